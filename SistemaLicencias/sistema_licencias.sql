@@ -15,7 +15,10 @@ CREATE TABLE conductores (
     documentos_validados BOOLEAN DEFAULT FALSE,
     observaciones TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Claves de búsqueda: sin tildes, en minúsculas y con espacios colapsados (NormalizadorTexto)
+    nombres_busqueda VARCHAR(100),
+    apellidos_busqueda VARCHAR(100)
 );
 
 -- Tabla de licencias
@@ -27,6 +30,7 @@ CREATE TABLE licencias (
     fecha_emision DATE NOT NULL,
     fecha_vencimiento DATE NOT NULL,
     activa BOOLEAN DEFAULT TRUE,
+    vencida BOOLEAN NOT NULL DEFAULT FALSE,
     prueba_psicometrica_id BIGINT,
     observaciones TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -53,3 +57,57 @@ CREATE INDEX idx_conductor_cedula ON conductores(cedula);
 CREATE INDEX idx_licencia_numero ON licencias(numero_licencia);
 CREATE INDEX idx_licencia_conductor ON licencias(conductor_id);
 CREATE INDEX idx_prueba_conductor ON pruebas_psicometricas(conductor_id);
+
+-- Búsqueda por prefijo de las claves normalizadas (LIKE 'prefijo%')
+CREATE INDEX idx_conductores_apellidos_busqueda ON conductores(apellidos_busqueda);
+CREATE INDEX idx_conductores_nombres_busqueda ON conductores(nombres_busqueda);
+
+-- Pruebas por conductor: última prueba aprobada
+CREATE INDEX idx_pruebas_conductor_fecha ON pruebas_psicometricas(conductor_id, fecha_realizacion);
+
+-- activa = FALSE es la desactivación manual; vencida la marca el barrido de
+-- vencimientos. MySQL no tiene índices parciales: vencida va primero para que
+-- el barrido recorra solo las pendientes
+CREATE INDEX idx_licencias_vencimiento_pendientes ON licencias(vencida, fecha_vencimiento);
+
+-- Licencias de un conductor por fecha de emisión (búsqueda del listado por cédula)
+CREATE INDEX idx_licencias_conductor_emision ON licencias(conductor_id, fecha_emision);
+
+-- Registro de barridos de vencimiento (BarridoVencimientos), una fila por fecha de corte
+CREATE TABLE barridos_vencimiento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    fecha_corte DATE NOT NULL,
+    inicio TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP,
+    fin TIMESTAMP NULL,
+    filas_actualizadas INT DEFAULT 0,
+    UNIQUE KEY uk_barridos_fecha_corte (fecha_corte)
+);
+
+-- Punto de control de cada importación de conductores en curso (se borra al terminar)
+CREATE TABLE importaciones_conductores (
+    archivo VARCHAR(500) PRIMARY KEY,
+    tamano_archivo BIGINT NOT NULL,
+    modificado BIGINT NOT NULL,
+    registros BIGINT NOT NULL,
+    importados BIGINT NOT NULL,
+    rechazados BIGINT NOT NULL,
+    bytes_rechazos BIGINT NOT NULL,
+    actualizado TIMESTAMP NULL
+);
+
+-- Migración para bases de datos existentes (MySQL 8.0.19 o posterior).
+-- La aplicación completa las claves de búsqueda al iniciar (ConductorDAO.completarClavesBusqueda).
+-- ALTER TABLE conductores ADD COLUMN nombres_busqueda VARCHAR(100), ADD COLUMN apellidos_busqueda VARCHAR(100);
+-- CREATE INDEX idx_conductores_apellidos_busqueda ON conductores(apellidos_busqueda);
+-- CREATE INDEX idx_conductores_nombres_busqueda ON conductores(nombres_busqueda);
+-- CREATE INDEX idx_pruebas_conductor_fecha ON pruebas_psicometricas(conductor_id, fecha_realizacion);
+-- ALTER TABLE licencias ADD COLUMN vencida BOOLEAN NOT NULL DEFAULT FALSE;
+-- CREATE INDEX idx_licencias_vencimiento_pendientes ON licencias(vencida, fecha_vencimiento);
+-- CREATE INDEX idx_licencias_conductor_emision ON licencias(conductor_id, fecha_emision);
+-- CREATE TABLE IF NOT EXISTS barridos_vencimiento (id BIGINT AUTO_INCREMENT PRIMARY KEY,
+--     fecha_corte DATE NOT NULL, inicio TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP, fin TIMESTAMP NULL,
+--     filas_actualizadas INT DEFAULT 0, UNIQUE KEY uk_barridos_fecha_corte (fecha_corte));
+-- CREATE TABLE IF NOT EXISTS importaciones_conductores (archivo VARCHAR(500) PRIMARY KEY,
+--     tamano_archivo BIGINT NOT NULL, modificado BIGINT NOT NULL, registros BIGINT NOT NULL,
+--     importados BIGINT NOT NULL, rechazados BIGINT NOT NULL, bytes_rechazos BIGINT NOT NULL,
+--     actualizado TIMESTAMP NULL);
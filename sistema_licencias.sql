@@ -11,9 +11,16 @@ CREATE TABLE conductores (
     tipo_sangre VARCHAR(5),
     documentos_validados BOOLEAN DEFAULT FALSE,
     observaciones TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Claves de búsqueda: sin tildes, en minúsculas y con espacios colapsados (NormalizadorTexto)
+    nombres_busqueda VARCHAR(100),
+    apellidos_busqueda VARCHAR(100)
 );
 
+-- varchar_pattern_ops permite usar el índice en LIKE 'prefijo%' con cualquier collation
+CREATE INDEX idx_conductores_apellidos_busqueda ON conductores (apellidos_busqueda varchar_pattern_ops);
+CREATE INDEX idx_conductores_nombres_busqueda ON conductores (nombres_busqueda varchar_pattern_ops);
+
 -- Tabla de usuarios (Para el nuevo Login de 2 roles)
 CREATE TABLE usuarios (
     id SERIAL PRIMARY KEY,
@@ -38,6 +45,9 @@ CREATE TABLE pruebas_psicometricas (
     observaciones TEXT
 );
 
+-- Pruebas por conductor: última prueba aprobada y descarte de pruebas ya cargadas (CargaMasivaDAO)
+CREATE INDEX idx_pruebas_conductor_fecha ON pruebas_psicometricas (conductor_id, fecha_realizacion);
+
 -- Tabla de licencias
 CREATE TABLE licencias (
     id SERIAL PRIMARY KEY,
@@ -47,10 +57,72 @@ CREATE TABLE licencias (
     fecha_emision DATE NOT NULL,
     fecha_vencimiento DATE NOT NULL,
     activa BOOLEAN DEFAULT TRUE,
+    vencida BOOLEAN NOT NULL DEFAULT FALSE,
     prueba_psicometrica_id INTEGER REFERENCES pruebas_psicometricas(id),
     observaciones TEXT
 );
 
+-- activa = FALSE es la desactivación manual; vencida la marca el barrido de
+-- vencimientos. Licencias no vencidas por fecha de vencimiento: el barrido busca
+-- las que vencieron sin recorrer el historial ya marcado
+CREATE INDEX idx_licencias_vencimiento_pendientes ON licencias (fecha_vencimiento) WHERE NOT vencida;
+
+-- Licencias de un conductor por fecha de emisión: búsqueda del listado por
+-- cédula (LicenciaDAO.buscarListado) y licencias de un conductor
+CREATE INDEX idx_licencias_conductor_emision ON licencias (conductor_id, fecha_emision);
+
+-- Registro de barridos de vencimiento (BarridoVencimientos), una fila por fecha de
+-- corte (fecha hasta la que se marcaron las licencias vencidas); fin queda NULL si no terminó
+CREATE TABLE barridos_vencimiento (
+    id SERIAL PRIMARY KEY,
+    fecha_corte DATE NOT NULL UNIQUE,
+    inicio TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    fin TIMESTAMP,
+    filas_actualizadas INTEGER DEFAULT 0
+);
+
+-- Punto de control de cada importación de conductores en curso (se borra al terminar)
+CREATE TABLE importaciones_conductores (
+    archivo VARCHAR(500) PRIMARY KEY,
+    tamano_archivo BIGINT NOT NULL,
+    modificado BIGINT NOT NULL,
+    registros BIGINT NOT NULL,
+    importados BIGINT NOT NULL,
+    rechazados BIGINT NOT NULL,
+    bytes_rechazos BIGINT NOT NULL,
+    actualizado TIMESTAMP
+);
+
 -- Insertar el Administrador inicial para poder entrar al sistema
 INSERT INTO usuarios (username, password_hash, rol, nombre_completo) 
-VALUES ('admin_root', 'admin123', 'ADMINISTRADOR', 'Super Administrador');
\ No newline at end of file
+VALUES ('admin_root', 'admin123', 'ADMINISTRADOR', 'Super Administrador');
+
+-- Migración para bases de datos existentes (claves de búsqueda normalizadas).
+-- La aplicación completa los valores al iniciar (ConductorDAO.completarClavesBusqueda).
+-- ALTER TABLE conductores ADD COLUMN IF NOT EXISTS nombres_busqueda VARCHAR(100);
+-- ALTER TABLE conductores ADD COLUMN IF NOT EXISTS apellidos_busqueda VARCHAR(100);
+-- CREATE INDEX IF NOT EXISTS idx_conductores_apellidos_busqueda ON conductores (apellidos_busqueda varchar_pattern_ops);
+-- CREATE INDEX IF NOT EXISTS idx_conductores_nombres_busqueda ON conductores (nombres_busqueda varchar_pattern_ops);
+
+-- Migración para bases de datos existentes (barrido de vencimientos).
+-- Las licencias que un barrido anterior dejó en activa = FALSE siguen así: no se
+-- pueden distinguir de las desactivadas a mano y deben revisarse.
+-- ALTER TABLE licencias ADD COLUMN IF NOT EXISTS vencida BOOLEAN NOT NULL DEFAULT FALSE;
+-- DROP INDEX IF EXISTS idx_licencias_vencimiento_activas;
+-- CREATE INDEX IF NOT EXISTS idx_licencias_vencimiento_pendientes ON licencias (fecha_vencimiento) WHERE NOT vencida;
+-- CREATE TABLE IF NOT EXISTS barridos_vencimiento (id SERIAL PRIMARY KEY, fecha_corte DATE NOT NULL UNIQUE,
+--     inicio TIMESTAMP DEFAULT CURRENT_TIMESTAMP, fin TIMESTAMP, filas_actualizadas INTEGER DEFAULT 0);
+
+-- Migración para bases de datos existentes (carga masiva de pruebas psicométricas).
+-- CREATE INDEX IF NOT EXISTS idx_pruebas_conductor_fecha ON pruebas_psicometricas (conductor_id, fecha_realizacion);
+
+-- Migración para bases de datos existentes (búsqueda del listado por cédula).
+-- CREATE INDEX IF NOT EXISTS idx_licencias_conductor_emision ON licencias (conductor_id, fecha_emision);
+
+-- Migración para bases de datos existentes (reanudación de la importación de conductores).
+-- Los archivos <csv>.progreso de la versión anterior ya no se usan: una importación
+-- interrumpida con ellos debe empezar de nuevo.
+-- CREATE TABLE IF NOT EXISTS importaciones_conductores (archivo VARCHAR(500) PRIMARY KEY,
+--     tamano_archivo BIGINT NOT NULL, modificado BIGINT NOT NULL, registros BIGINT NOT NULL,
+--     importados BIGINT NOT NULL, rechazados BIGINT NOT NULL, bytes_rechazos BIGINT NOT NULL,
+--     actualizado TIMESTAMP);
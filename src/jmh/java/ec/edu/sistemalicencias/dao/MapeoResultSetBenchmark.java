@@ -0,0 +1,118 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.Licencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Costo de convertir una fila en entidad, sin base de datos: el ResultSet es
+ * un proxy que devuelve valores fijos por nombre de columna.
+ * LicenciaDAO.mapearResultSet es privado: se invoca con un MethodHandle
+ * constante, que el JIT enlaza como una llamada directa.
+ * Ejecutar con: gradle jmh -PjmhIncludes=MapeoResultSetBenchmark
+ */
+@State(Scope.Thread)
+public class MapeoResultSetBenchmark {
+
+    private static final MethodHandle MAPEAR_LICENCIA = buscarMapeoLicencia();
+
+    private ResultSet filaConductor;
+    private ResultSet filaLicencia;
+    private LicenciaDAO licenciaDAO;
+
+    @Setup
+    public void preparar() {
+        Map<String, Object> conductor = new HashMap<>();
+        conductor.put("id", 1L);
+        conductor.put("cedula", "1710034065");
+        conductor.put("nombres", "María José");
+        conductor.put("apellidos", "Pérez Núñez");
+        conductor.put("fecha_nacimiento", Date.valueOf(LocalDate.of(1985, 6, 15)));
+        conductor.put("direccion", "Av. Amazonas N34-120, Quito");
+        conductor.put("telefono", "0991234567");
+        conductor.put("email", "maria.perez@correo.ec");
+        conductor.put("tipo_sangre", "O+");
+        conductor.put("documentos_validados", true);
+        conductor.put("observaciones", null);
+        filaConductor = simularFila(conductor);
+
+        Map<String, Object> licencia = new HashMap<>();
+        licencia.put("id", 1L);
+        licencia.put("numero_licencia", "EC-B-00000001");
+        licencia.put("conductor_id", 1L);
+        licencia.put("tipo_licencia", "B");
+        licencia.put("fecha_emision", Date.valueOf(LocalDate.of(2023, 1, 10)));
+        licencia.put("fecha_vencimiento", Date.valueOf(LocalDate.of(2028, 1, 10)));
+        licencia.put("activa", true);
+        licencia.put("vencida", false);
+        licencia.put("observaciones", null);
+        licencia.put("prueba_psicometrica_id", 1L);
+        filaLicencia = simularFila(licencia);
+
+        licenciaDAO = new LicenciaDAO();
+    }
+
+    @Benchmark
+    public Conductor mapearConductor() throws Exception {
+        return ConductorDAO.mapearConductor(filaConductor, "");
+    }
+
+    @Benchmark
+    public Licencia mapearLicencia() throws Throwable {
+        return (Licencia) MAPEAR_LICENCIA.invokeExact(licenciaDAO, filaLicencia);
+    }
+
+    private static MethodHandle buscarMapeoLicencia() {
+        try {
+            return MethodHandles.privateLookupIn(LicenciaDAO.class, MethodHandles.lookup())
+                    .findVirtual(LicenciaDAO.class, "mapearResultSet",
+                            MethodType.methodType(Licencia.class, ResultSet.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró LicenciaDAO.mapearResultSet", e);
+        }
+    }
+
+    /**
+     * ResultSet de una sola fila con los getters por nombre que usan los DAO
+     */
+    private static ResultSet simularFila(Map<String, Object> valores) {
+        boolean[] ultimoNulo = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, metodo, args) -> {
+                    String nombre = metodo.getName();
+                    if (nombre.equals("wasNull")) {
+                        return ultimoNulo[0];
+                    }
+                    if (args == null || args.length != 1 || !(args[0] instanceof String)) {
+                        throw new UnsupportedOperationException(nombre);
+                    }
+                    Object valor = valores.get((String) args[0]);
+                    ultimoNulo[0] = valor == null;
+                    switch (nombre) {
+                        case "getLong":
+                            return valor != null ? (Long) valor : 0L;
+                        case "getBoolean":
+                            return valor != null && (Boolean) valor;
+                        case "getString":
+                        case "getDate":
+                        case "getObject":
+                            return valor;
+                        default:
+                            throw new UnsupportedOperationException(nombre);
+                    }
+                });
+    }
+}
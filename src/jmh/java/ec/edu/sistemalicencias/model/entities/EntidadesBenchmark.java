@@ -0,0 +1,75 @@
+package ec.edu.sistemalicencias.model.entities;
+
+import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
+import ec.edu.sistemalicencias.model.exceptions.DocumentoInvalidoException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+
+/**
+ * Validaciones y cálculos de las entidades del dominio.
+ * Ejecutar con: gradle jmh -PjmhIncludes=EntidadesBenchmark
+ */
+@State(Scope.Thread)
+public class EntidadesBenchmark {
+
+    private static final String CEDULA_VALIDA = "1710034065";
+
+    private Conductor conductor;
+    private Licencia licenciaVigente;
+    private Licencia licenciaPorVencer;
+    private Licencia licenciaVencida;
+    private PruebaPsicometrica prueba;
+
+    @Setup
+    public void preparar() {
+        conductor = new Conductor(CEDULA_VALIDA, "María José", "Pérez Núñez", LocalDate.of(1985, 6, 15));
+
+        licenciaVigente = crearLicencia(LocalDate.now().plusYears(3));
+        licenciaPorVencer = crearLicencia(LocalDate.now().plusDays(10));
+        licenciaVencida = crearLicencia(LocalDate.now().minusDays(1));
+
+        prueba = new PruebaPsicometrica(1L);
+        prueba.setNotaReaccion(85);
+        prueba.setNotaAtencion(78.5);
+        prueba.setNotaCoordinacion(90);
+        prueba.setNotaPercepcion(72);
+        prueba.setNotaPsicologica(88);
+    }
+
+    private static Licencia crearLicencia(LocalDate vencimiento) {
+        Licencia licencia = new Licencia(1L, TipoLicenciaConstantes.TIPO_B);
+        licencia.setNumeroLicencia("EC-B-00000001");
+        licencia.setFechaEmision(vencimiento.minusYears(5));
+        licencia.setFechaVencimiento(vencimiento);
+        return licencia;
+    }
+
+    @Benchmark
+    public boolean conductorValidar() throws DocumentoInvalidoException {
+        return conductor.validar();
+    }
+
+    @Benchmark
+    public String licenciaEstadoVigente() {
+        return licenciaVigente.obtenerEstado();
+    }
+
+    @Benchmark
+    public String licenciaEstadoPorVencer() {
+        return licenciaPorVencer.obtenerEstado();
+    }
+
+    @Benchmark
+    public String licenciaEstadoVencida() {
+        return licenciaVencida.obtenerEstado();
+    }
+
+    @Benchmark
+    public double pruebaCalcularPromedio() {
+        return prueba.calcularPromedio();
+    }
+}
@@ -0,0 +1,57 @@
+package ec.edu.sistemalicencias.util;
+
+import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.Licencia;
+import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Generación de una licencia en PDF escribiendo a un stream nulo,
+ * para medir solo el armado del documento (sin disco).
+ * Ejecutar con: gradle jmh -PjmhIncludes=PDFGeneratorBenchmark
+ */
+@State(Scope.Thread)
+public class PDFGeneratorBenchmark {
+
+    private Conductor conductor;
+    private Licencia licencia;
+    private PruebaPsicometrica prueba;
+
+    @Setup
+    public void preparar() {
+        conductor = new Conductor("1710034065", "María José", "Pérez Núñez", LocalDate.of(1985, 6, 15));
+        conductor.setId(1L);
+        conductor.setDireccion("Av. Amazonas N34-120, Quito");
+        conductor.setTelefono("0991234567");
+        conductor.setEmail("maria.perez@correo.ec");
+        conductor.setTipoSangre("O+");
+
+        licencia = new Licencia(1L, TipoLicenciaConstantes.TIPO_B);
+        licencia.setId(1L);
+        licencia.setNumeroLicencia("EC-B-00000001");
+
+        prueba = new PruebaPsicometrica(1L);
+        prueba.setNotaReaccion(85);
+        prueba.setNotaAtencion(78.5);
+        prueba.setNotaCoordinacion(90);
+        prueba.setNotaPercepcion(72);
+        prueba.setNotaPsicologica(88);
+    }
+
+    @Benchmark
+    public void generarLicenciaPDF() throws Exception {
+        PDFGenerator.generarLicenciaPDF(licencia, conductor, prueba, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void generarLicenciaPDFSinPrueba() throws Exception {
+        PDFGenerator.generarLicenciaPDF(licencia, conductor, null, OutputStream.nullOutputStream());
+    }
+}
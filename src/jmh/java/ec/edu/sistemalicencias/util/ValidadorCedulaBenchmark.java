@@ -0,0 +1,113 @@
+package ec.edu.sistemalicencias.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Validación de cédulas: una a una (comparada con la implementación anterior
+ * basada en substring + parseInt) y masiva sobre un arreglo.
+ * Ejecutar con: gradle jmh -PjmhIncludes=ValidadorCedulaBenchmark
+ */
+@State(Scope.Thread)
+public class ValidadorCedulaBenchmark {
+
+    private static final String CEDULA_VALIDA = "1710034065";
+
+    @Param({"1000000"})
+    private int cantidad;
+
+    private String[] cedulas;
+
+    @Setup
+    public void preparar() {
+        // Mitad válidas, mitad con el dígito verificador alterado
+        Random aleatorio = new Random(42);
+        cedulas = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            char[] digitos = new char[ValidadorCedula.LONGITUD];
+            int provincia = 1 + aleatorio.nextInt(24);
+            digitos[0] = (char) ('0' + provincia / 10);
+            digitos[1] = (char) ('0' + provincia % 10);
+            digitos[2] = (char) ('0' + aleatorio.nextInt(6));
+            for (int j = 3; j < 9; j++) {
+                digitos[j] = (char) ('0' + aleatorio.nextInt(10));
+            }
+            for (char verificador = '0'; verificador <= '9'; verificador++) {
+                digitos[9] = verificador;
+                if (ValidadorCedula.esValida(new String(digitos))) {
+                    break;
+                }
+            }
+            if ((i & 1) == 1) {
+                digitos[9] = (char) ('0' + (digitos[9] - '0' + 1) % 10);
+            }
+            cedulas[i] = new String(digitos);
+        }
+    }
+
+    @Benchmark
+    public boolean validarUna() {
+        return ValidadorCedula.esValida(CEDULA_VALIDA);
+    }
+
+    @Benchmark
+    public boolean validarUnaAnterior() {
+        return validarAnterior(CEDULA_VALIDA);
+    }
+
+    @Benchmark
+    public BitSet validarTodas() {
+        return ValidadorCedula.validarTodas(cedulas);
+    }
+
+    @Benchmark
+    public int validarTodasSecuencialAnterior() {
+        int validas = 0;
+        for (String cedula : cedulas) {
+            if (cedula.matches("\\d{10}") && validarAnterior(cedula)) {
+                validas++;
+            }
+        }
+        return validas;
+    }
+
+    /**
+     * Implementación anterior de Conductor, como referencia
+     */
+    private static boolean validarAnterior(String cedula) {
+        if (cedula == null || cedula.length() != 10) {
+            return false;
+        }
+        try {
+            int provincia = Integer.parseInt(cedula.substring(0, 2));
+            if (provincia < 1 || provincia > 24) {
+                return false;
+            }
+            int tercerDigito = Integer.parseInt(cedula.substring(2, 3));
+            if (tercerDigito > 5) {
+                return false;
+            }
+            int[] coeficientes = {2, 1, 2, 1, 2, 1, 2, 1, 2};
+            int suma = 0;
+            for (int i = 0; i < 9; i++) {
+                int valor = Integer.parseInt(cedula.substring(i, i + 1)) * coeficientes[i];
+                if (valor >= 10) {
+                    valor -= 9;
+                }
+                suma += valor;
+            }
+            int digitoVerificador = Integer.parseInt(cedula.substring(9, 10));
+            int residuo = suma % 10;
+            int resultado = residuo == 0 ? 0 : 10 - residuo;
+            return resultado == digitoVerificador;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
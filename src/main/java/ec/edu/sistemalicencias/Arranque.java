@@ -0,0 +1,154 @@
+package ec.edu.sistemalicencias;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.config.MonitorSalud;
+import ec.edu.sistemalicencias.dao.ConductorDAO;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.service.BarridoVencimientos;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Secuencia de arranque de la aplicación.
+ * Precalienta la conexión, el pool y las clases de referencia en hilos
+ * virtuales mientras la ventana principal se construye en el EDT, prepara la
+ * búsqueda por nombre (claves normalizadas e índice) y el barrido diario de
+ * licencias vencidas cuando hay conexión (o cuando el monitor de salud la
+ * detecta, si al arrancar no la había), deja corriendo el {@link MonitorSalud}
+ * y mide el tiempo hasta el primer cuadro y hasta que el sistema está listo.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+final class Arranque {
+
+    private static final Logger REGISTRO = Logger.getLogger(Arranque.class.getName());
+
+    // Instante de inicio de la JVM, para medir también la carga de clases previa a main
+    private static final long INICIO_JVM_MS = System.currentTimeMillis()
+            - ManagementFactory.getRuntimeMXBean().getUptime();
+
+    private static volatile long primerCuadroMs = -1;
+    private static volatile long listoMs = -1;
+    private static final AtomicBoolean tareasIniciadas = new AtomicBoolean();
+
+    private Arranque() {
+    }
+
+    /**
+     * Inicia el precalentamiento en segundo plano
+     * @return Future que se completa con true si la base de datos responde
+     */
+    static CompletableFuture<Boolean> precalentar() {
+        ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        // Driver, conexiones mínimas del pool y verificación
+        CompletableFuture<Boolean> conexion = CompletableFuture.supplyAsync(() -> {
+            DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+            dbConfig.getPool().precalentar();
+            boolean conectado = dbConfig.verificarConexion();
+            // Desde aquí el estado de la conexión lo mantiene el monitor
+            dbConfig.getMonitorSalud().iniciar();
+            return conectado;
+        }, ejecutor);
+
+        // Claves de búsqueda e índice de nombres pueden tardar con tablas grandes: no retrasan el "listo"
+        conexion.thenAccept(conectado -> {
+            if (conectado) {
+                iniciarTareasFondo();
+            } else {
+                DatabaseConfig.getInstance().getMonitorSalud().agregarOyente((estado, monitor) -> {
+                    if (estado == MonitorSalud.Estado.DISPONIBLE) {
+                        iniciarTareasFondo();
+                    }
+                });
+            }
+        });
+
+        // Clases de referencia: constantes del formulario y fuentes de iText del PDF
+        CompletableFuture<Void> referencias = CompletableFuture.runAsync(() -> {
+            inicializar("ec.edu.sistemalicencias.model.TipoLicenciaConstantes");
+            inicializar("ec.edu.sistemalicencias.model.TipoSangreConstantes");
+            inicializar("ec.edu.sistemalicencias.util.PDFGenerator");
+        }, ejecutor);
+
+        ejecutor.shutdown();
+        return conexion.thenCombine(referencias, (conectado, sinResultado) -> conectado)
+                .exceptionally(error -> {
+                    REGISTRO.warning("Error al precalentar: " + error.getMessage());
+                    return false;
+                });
+    }
+
+    /**
+     * Registra que la ventana principal ya se mostró
+     */
+    static synchronized void marcarPrimerCuadro() {
+        primerCuadroMs = System.currentTimeMillis() - INICIO_JVM_MS;
+        reportarSiCompleto();
+    }
+
+    /**
+     * Registra que el precalentamiento terminó
+     */
+    static synchronized void marcarListo() {
+        listoMs = System.currentTimeMillis() - INICIO_JVM_MS;
+        reportarSiCompleto();
+    }
+
+    private static void reportarSiCompleto() {
+        if (primerCuadroMs >= 0 && listoMs >= 0) {
+            REGISTRO.info("Arranque: primer cuadro en " + primerCuadroMs
+                    + " ms, listo en " + Math.max(primerCuadroMs, listoMs) + " ms");
+        }
+    }
+
+    /**
+     * Búsqueda por nombre y barrido de vencimientos, una sola vez
+     */
+    private static void iniciarTareasFondo() {
+        if (!tareasIniciadas.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("busqueda-nombres").start(Arranque::prepararBusquedaNombres);
+        if (Boolean.parseBoolean(System.getProperty("licencias.barrido.habilitado", "true"))) {
+            new BarridoVencimientos().iniciar();
+        }
+    }
+
+    private static void prepararBusquedaNombres() {
+        ConductorDAO conductorDAO = new ConductorDAO();
+        try {
+            int completados = conductorDAO.completarClavesBusqueda();
+            if (completados > 0) {
+                REGISTRO.fine("Claves de búsqueda completadas: " + completados + " conductores");
+            }
+        } catch (LicenciaException e) {
+            REGISTRO.warning("No se pudieron completar las claves de búsqueda: " + e.getMessage());
+        }
+
+        try {
+            long inicio = System.currentTimeMillis();
+            int cargados = conductorDAO.cargarIndiceNombres();
+            if (cargados > 0) {
+                REGISTRO.fine("Índice de nombres: " + cargados + " conductores en "
+                        + (System.currentTimeMillis() - inicio) + " ms");
+            }
+        } catch (LicenciaException e) {
+            REGISTRO.warning("No se pudo cargar el índice de nombres: " + e.getMessage());
+        }
+    }
+
+    private static void inicializar(String clase) {
+        try {
+            Class.forName(clase);
+        } catch (ClassNotFoundException | LinkageError e) {
+            REGISTRO.warning("No se pudo precargar " + clase + ": " + e.getMessage());
+        }
+    }
+}
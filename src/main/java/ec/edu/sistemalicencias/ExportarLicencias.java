@@ -0,0 +1,50 @@
+package ec.edu.sistemalicencias;
+
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.service.ExportadorListadoLicencias;
+import ec.edu.sistemalicencias.service.LicenciaService;
+
+import java.io.File;
+
+/**
+ * Vuelca todas las licencias con los datos del conductor, sin interfaz gráfica.
+ * Uso: ExportarLicencias <archivo> [csv|jsonl]
+ * El formato se deduce de la extensión si no se indica; un archivo terminado
+ * en .gz se escribe comprimido (por ejemplo licencias.jsonl.gz).
+ */
+public class ExportarLicencias {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: ExportarLicencias <archivo> [csv|jsonl]");
+            System.exit(2);
+        }
+
+        File destino = new File(args[0]);
+        String nombre = destino.getName().toLowerCase();
+        boolean comprimir = nombre.endsWith(".gz");
+        ExportadorListadoLicencias.Formato formato;
+        if (args.length > 1) {
+            formato = ExportadorListadoLicencias.Formato.valueOf(args[1].toUpperCase());
+        } else {
+            formato = nombre.contains(".jsonl") || nombre.contains(".json")
+                    ? ExportadorListadoLicencias.Formato.JSONL
+                    : ExportadorListadoLicencias.Formato.CSV;
+        }
+
+        try {
+            ExportadorListadoLicencias.Resultado resultado = new LicenciaService().exportarListadoLicencias(
+                    destino, formato, comprimir, filas -> System.out.printf("%,d filas%n", filas));
+
+            System.out.printf("✅ Exportación terminada: %,d filas, %,d bytes en %s%n",
+                    resultado.getFilas(), resultado.getBytes(), destino.getAbsolutePath());
+            System.out.printf("   %.0f filas/s%n", resultado.getFilasPorSegundo());
+        } catch (LicenciaException e) {
+            System.err.println("❌ ERROR EN LA EXPORTACIÓN: " + e.getMessage());
+            if (e.getCause() != null) {
+                e.getCause().printStackTrace();
+            }
+            System.exit(1);
+        }
+    }
+}
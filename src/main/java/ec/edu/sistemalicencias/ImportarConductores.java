@@ -0,0 +1,65 @@
+package ec.edu.sistemalicencias;
+
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.service.ImportadorConductores;
+import ec.edu.sistemalicencias.service.LicenciaService;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Importa conductores desde un CSV sin interfaz gráfica.
+ * Uso: ImportarConductores [--reiniciar] <archivo.csv> [rechazos.csv]
+ * Si se interrumpe, ejecutar de nuevo con el mismo archivo continúa la importación;
+ * con --reiniciar se descarta el punto de control y se empieza de cero.
+ */
+public class ImportarConductores {
+
+    // Intervalo mínimo entre líneas de avance
+    private static final long INTERVALO_AVANCE_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) {
+        boolean reiniciar = args.length > 0 && args[0].equals("--reiniciar");
+        if (reiniciar) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        if (args.length < 1) {
+            System.err.println("Uso: ImportarConductores [--reiniciar] <archivo.csv> [rechazos.csv]");
+            System.exit(2);
+        }
+
+        File archivo = new File(args[0]);
+        File rechazos = args.length > 1 ? new File(args[1]) : new File(args[0] + ".rechazos.csv");
+        long inicio = System.nanoTime();
+        long[] ultimoAviso = {inicio};
+
+        try {
+            LicenciaService servicio = new LicenciaService();
+            if (reiniciar) {
+                servicio.descartarImportacionConductores(archivo);
+            }
+            ImportadorConductores.Resultado resultado = servicio.importarConductores(archivo, rechazos,
+                    (registros, importados, rechazados) -> {
+                        long ahora = System.nanoTime();
+                        if (ahora - ultimoAviso[0] >= INTERVALO_AVANCE_NANOS) {
+                            ultimoAviso[0] = ahora;
+                            System.out.printf("%,d registros (%,d importados, %,d rechazados)%n",
+                                    registros, importados, rechazados);
+                        }
+                    });
+
+            System.out.printf("✅ Importación terminada: %,d registros, %,d importados, %,d rechazados%n",
+                    resultado.getRegistros(), resultado.getImportados(), resultado.getRechazados());
+            System.out.printf("   %.0f registros/s en esta ejecución%n", resultado.getRegistrosPorSegundo());
+            if (resultado.getRechazados() > 0) {
+                System.out.println("   Filas rechazadas en: " + rechazos.getAbsolutePath());
+            }
+        } catch (LicenciaException e) {
+            System.err.println("❌ ERROR EN LA IMPORTACIÓN: " + e.getMessage());
+            if (e.getCause() != null) {
+                e.getCause().printStackTrace();
+            }
+            System.exit(1);
+        }
+    }
+}
@@ -2,9 +2,13 @@
 package ec.edu.sistemalicencias;
 
 import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.config.MonitorSalud;
 import ec.edu.sistemalicencias.view.MainView;
 
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Clase principal del Sistema de Licencias de Conducir del Ecuador.
@@ -16,9 +20,15 @@ import javax.swing.*;
 public class Main {
 
     /**
-     * Método principal que inicia la aplicación
+     * Método principal que inicia la aplicación.
+     * La conexión se precalienta en segundo plano mientras se construye la
+     * ventana principal, que muestra el estado de la conexión al terminar y
+     * después cada cambio que detecta el monitor de salud.
      */
     public static void main(String[] args) {
+        // Precalentar conexión y clases de referencia en paralelo con la interfaz
+        CompletableFuture<Boolean> precalentamiento = Arranque.precalentar();
+
         // Configurar Look and Feel del sistema operativo
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -26,67 +36,60 @@ public class Main {
             System.err.println("No se pudo establecer el Look and Feel: " + e.getMessage());
         }
 
-        // Verificar conexión a base de datos
-        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
-
         SwingUtilities.invokeLater(() -> {
-            // Mostrar splash screen o mensaje de inicio
-            mostrarPantallaInicio();
-
-            // Verificar conexión a BD
-            if (!dbConfig.verificarConexion()) {
-                mostrarErrorConexion();
-                return;
-            }
-
             // Iniciar ventana principal
             MainView mainView = new MainView();
+            mainView.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    Arranque.marcarPrimerCuadro();
+                }
+            });
             mainView.setVisible(true);
+
+            // Verificar conexión a BD cuando termine el precalentamiento
+            precalentamiento.thenAccept(conectado -> {
+                Arranque.marcarListo();
+                MonitorSalud monitor = DatabaseConfig.getInstance().getMonitorSalud();
+                monitor.agregarOyente((estado, m) -> mostrarEstado(mainView, m));
+                mostrarEstado(mainView, monitor);
+                if (!conectado) {
+                    SwingUtilities.invokeLater(() -> mostrarErrorConexion(mainView));
+                }
+            });
         });
     }
 
     /**
-     * Muestra una pantalla de inicio con información del sistema
+     * Pasa el estado del monitor al indicador de la ventana (latencia o último error en el tooltip)
      */
-    private static void mostrarPantallaInicio() {
-        JOptionPane.showMessageDialog(
-                null,
-                "SISTEMA DE LICENCIAS DE CONDUCIR - ECUADOR\n\n" +
-                        "Agencia Nacional de Tránsito\n" +
-                        "Versión 1.0\n\n" +
-                        "Desarrollado con:\n" +
-                        "- Java 21\n" +
-                        "- MySQL Database\n" +
-                        "- Arquitectura MVC\n" +
-                        "- iText PDF\n\n" +
-                        "Iniciando sistema...",
-                "Bienvenido",
-                JOptionPane.INFORMATION_MESSAGE
-        );
+    private static void mostrarEstado(MainView mainView, MonitorSalud monitor) {
+        boolean conectado = monitor.getEstado() == MonitorSalud.Estado.DISPONIBLE;
+        mainView.mostrarEstadoConexion(conectado, conectado
+                ? "Latencia: " + monitor.getUltimaLatenciaMs() + " ms"
+                : monitor.describirCaida());
     }
 
     /**
      * Muestra un mensaje de error si no se puede conectar a la base de datos
      */
-    private static void mostrarErrorConexion() {
+    private static void mostrarErrorConexion(JFrame ventana) {
         String mensaje = "ERROR DE CONEXIÓN A BASE DE DATOS\n\n" +
-                "No se pudo establecer conexión con MySQL.\n\n" +
+                "No se pudo establecer conexión con PostgreSQL.\n\n" +
                 "Verifique que:\n" +
-                "1. MySQL Server esté ejecutándose\n" +
+                "1. Haya conexión a Internet\n" +
                 "2. La base de datos 'sistema_licencias' exista\n" +
-                "3. Las credenciales sean correctas (usuario: root, password: root)\n" +
-                "4. El servidor esté en localhost:3306\n\n" +
+                "3. Las credenciales sean correctas (-Dlicencias.db.usuario, -Dlicencias.db.password)\n" +
+                "4. La URL sea correcta (-Dlicencias.db.url)\n\n" +
                 "Para crear la base de datos, ejecute el script:\n" +
-                "src/main/resources/schema.sql\n\n" +
-                "La aplicación se cerrará.";
+                "sistema_licencias.sql\n\n" +
+                "Las operaciones fallarán hasta que se restablezca la conexión.";
 
         JOptionPane.showMessageDialog(
-                null,
+                ventana,
                 mensaje,
                 "Error de Conexión",
                 JOptionPane.ERROR_MESSAGE
         );
-
-        System.exit(1);
     }
 }
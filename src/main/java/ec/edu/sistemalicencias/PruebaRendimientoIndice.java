@@ -0,0 +1,155 @@
+package ec.edu.sistemalicencias;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.dao.ConductorDAO;
+import ec.edu.sistemalicencias.dao.IndiceTrigramas;
+import ec.edu.sistemalicencias.model.entities.Conductor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara buscarPorNombre() con LIKE contra el índice de trigramas.
+ * Uso: PruebaRendimientoIndice [cantidad] [consultas]
+ * Inserta conductores sintéticos (1.000.000 por defecto) y los elimina al terminar.
+ */
+public class PruebaRendimientoIndice {
+
+    private static final String MARCA = "PRUEBA_RENDIMIENTO_INDICE";
+    private static final String[] SILABAS = {
+            "ma", "ri", "an", "to", "lu", "ca", "pe", "dro", "jo", "se", "fer", "nan", "da", "gon", "za",
+            "lez", "ro", "dri", "guez", "her", "mo", "sa", "vi", "lla", "cor", "tes", "mi", "guel", "ve", "ra",
+            "bel", "ce", "cha", "qui", "ñe", "yu", "xi", "bo", "nu", "fa", "gi", "hu", "ke", "pla", "tri",
+            "zam", "bra", "cle", "dul", "ez", "fro", "gla", "ir", "jua", "lo", "mar", "ne", "ol", "pri", "sol"
+    };
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ConductorDAO dao = new ConductorDAO();
+        IndiceTrigramas indice = IndiceTrigramas.getInstance();
+        Random aleatorio = new Random(42);
+
+        try {
+            limpiar();
+
+            long inicio = System.nanoTime();
+            List<Conductor> conductores = crearConductores(cantidad, aleatorio);
+            dao.guardarTodos(conductores);
+            System.out.printf("Insertados %d conductores en %.1f s%n", cantidad, segundos(inicio));
+
+            List<String> textos = new ArrayList<>(consultas);
+            for (int i = 0; i < consultas; i++) {
+                Conductor conductor = conductores.get(aleatorio.nextInt(cantidad));
+                String nombre = aleatorio.nextBoolean() ? conductor.getNombres() : conductor.getApellidos();
+                int largo = Math.min(nombre.length(), 4 + aleatorio.nextInt(3));
+                int desde = aleatorio.nextInt(nombre.length() - largo + 1);
+                textos.add(nombre.substring(desde, desde + largo));
+            }
+            conductores = null;
+
+            // LIKE: el índice aún no está cargado
+            long[] nanosLike = new long[consultas];
+            int[] filasLike = new int[consultas];
+            for (int i = 0; i < consultas; i++) {
+                inicio = System.nanoTime();
+                filasLike[i] = dao.buscarPorNombre(textos.get(i)).size();
+                nanosLike[i] = System.nanoTime() - inicio;
+            }
+
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long memoriaAntes = runtime.totalMemory() - runtime.freeMemory();
+            inicio = System.nanoTime();
+            int cargados = dao.cargarIndiceNombres();
+            System.out.printf("Índice cargado: %d conductores, %d trigramas en %.1f s%n",
+                    cargados, indice.getTrigramas(), segundos(inicio));
+            System.gc();
+            System.out.printf("Memoria aproximada del índice: %d MB%n",
+                    (runtime.totalMemory() - runtime.freeMemory() - memoriaAntes) / (1024 * 1024));
+
+            long[] nanosCandidatos = new long[consultas];
+            long[] nanosIndice = new long[consultas];
+            for (int i = 0; i < consultas; i++) {
+                inicio = System.nanoTime();
+                indice.buscar(textos.get(i));
+                nanosCandidatos[i] = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                int filas = dao.buscarPorNombre(textos.get(i)).size();
+                nanosIndice[i] = System.nanoTime() - inicio;
+
+                if (filas != filasLike[i]) {
+                    System.err.printf("❌ '%s': LIKE devolvió %d filas y el índice %d%n",
+                            textos.get(i), filasLike[i], filas);
+                }
+            }
+
+            System.out.printf("Filas por consulta (mediana): %d%n", mediana(Arrays.stream(filasLike).asLongStream().toArray()));
+            imprimir("LIKE", nanosLike);
+            imprimir("Índice (solo IDs)", nanosCandidatos);
+            imprimir("Índice + lectura", nanosIndice);
+            System.out.printf("Mejora: %.1fx%n", (double) mediana(nanosLike) / Math.max(1, mediana(nanosIndice)));
+        } catch (Exception e) {
+            System.err.println("❌ ERROR EN LA PRUEBA:");
+            e.printStackTrace();
+        } finally {
+            limpiar();
+        }
+    }
+
+    private static List<Conductor> crearConductores(int cantidad, Random aleatorio) {
+        List<Conductor> conductores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Conductor conductor = new Conductor(String.format("99%08d", i),
+                    crearNombre(aleatorio) + " " + crearNombre(aleatorio),
+                    crearNombre(aleatorio) + " " + crearNombre(aleatorio),
+                    LocalDate.of(1970 + aleatorio.nextInt(35), 1 + aleatorio.nextInt(12), 1 + aleatorio.nextInt(28)));
+            conductor.setObservaciones(MARCA);
+            conductores.add(conductor);
+        }
+        return conductores;
+    }
+
+    private static String crearNombre(Random aleatorio) {
+        StringBuilder nombre = new StringBuilder();
+        int silabas = 2 + aleatorio.nextInt(3);
+        for (int i = 0; i < silabas; i++) {
+            nombre.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+        }
+        nombre.setCharAt(0, Character.toUpperCase(nombre.charAt(0)));
+        return nombre.toString();
+    }
+
+    private static long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+
+    private static double segundos(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000_000.0;
+    }
+
+    private static void imprimir(String metodo, long[] nanos) {
+        System.out.printf("%-20s mediana %10.3f ms, máximo %10.3f ms%n",
+                metodo, mediana(nanos) / 1_000_000.0, Arrays.stream(nanos).max().orElse(0) / 1_000_000.0);
+    }
+
+    private static void limpiar() {
+        // Limpieza directa: eliminar un millón de filas con eliminar() tomaría demasiado
+        try (Connection conn = DatabaseConfig.getInstance().obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM conductores WHERE observaciones = ?")) {
+            stmt.setString(1, MARCA);
+            stmt.executeUpdate();
+        } catch (Exception e) {
+            System.err.println("No se pudieron eliminar los conductores de prueba: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ec.edu.sistemalicencias;
+
+import ec.edu.sistemalicencias.dao.PruebaPsicometricaDAO;
+import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara el rendimiento de guardar() fila por fila contra guardarTodos().
+ * Uso: PruebaRendimientoLotes <conductorId> [cantidad] [tamanoLote]
+ * Las pruebas insertadas se eliminan al terminar.
+ */
+public class PruebaRendimientoLotes {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: PruebaRendimientoLotes <conductorId> [cantidad] [tamanoLote]");
+            return;
+        }
+
+        long conductorId = Long.parseLong(args[0]);
+        int cantidad = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int tamanoLote = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        PruebaPsicometricaDAO dao = new PruebaPsicometricaDAO();
+        List<PruebaPsicometrica> individuales = crearPruebas(conductorId, cantidad);
+        List<PruebaPsicometrica> enLote = crearPruebas(conductorId, cantidad);
+
+        try {
+            long inicio = System.nanoTime();
+            for (PruebaPsicometrica prueba : individuales) {
+                prueba.setId(dao.guardar(prueba));
+            }
+            long nanosIndividual = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            dao.guardarTodos(enLote, tamanoLote);
+            long nanosLote = System.nanoTime() - inicio;
+
+            imprimir("guardar()", cantidad, nanosIndividual);
+            imprimir("guardarTodos(" + tamanoLote + ")", cantidad, nanosLote);
+            System.out.printf("Mejora: %.1fx%n", (double) nanosIndividual / Math.max(1, nanosLote));
+        } catch (Exception e) {
+            System.err.println("❌ ERROR EN LA PRUEBA:");
+            e.printStackTrace();
+        } finally {
+            limpiar(dao, individuales);
+            limpiar(dao, enLote);
+        }
+    }
+
+    private static List<PruebaPsicometrica> crearPruebas(long conductorId, int cantidad) {
+        List<PruebaPsicometrica> pruebas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            PruebaPsicometrica prueba = new PruebaPsicometrica(conductorId);
+            prueba.setNotaReaccion(80);
+            prueba.setNotaAtencion(80);
+            prueba.setNotaCoordinacion(80);
+            prueba.setNotaPercepcion(80);
+            prueba.setNotaPsicologica(80);
+            prueba.setObservaciones("Prueba de rendimiento " + i);
+            pruebas.add(prueba);
+        }
+        return pruebas;
+    }
+
+    private static void imprimir(String metodo, int cantidad, long nanos) {
+        double segundos = nanos / 1_000_000_000.0;
+        System.out.printf("%-20s %6d filas en %8.2f s (%.0f filas/s)%n",
+                metodo, cantidad, segundos, cantidad / segundos);
+    }
+
+    private static void limpiar(PruebaPsicometricaDAO dao, List<PruebaPsicometrica> pruebas) {
+        for (PruebaPsicometrica prueba : pruebas) {
+            if (prueba.getId() != null) {
+                try {
+                    dao.eliminar(prueba.getId());
+                } catch (Exception e) {
+                    System.err.println("No se pudo eliminar la prueba " + prueba.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package ec.edu.sistemalicencias.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física.
+ * La clave es el texto SQL junto con el indicador RETURN_GENERATED_KEYS,
+ * porque el driver genera una sentencia distinta cuando se piden claves.
+ *
+ * Reutilizar el mismo PreparedStatement permite que el driver de PostgreSQL
+ * pase a sentencia preparada en el servidor (prepareThreshold) y evite
+ * el parse/plan en cada ejecución.
+ *
+ * Al devolver una sentencia se vacían el lote y los parámetros y se
+ * restauran fetchSize, maxRows y queryTimeout, para que los ajustes de un
+ * DAO no se hereden en el siguiente préstamo.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+class CacheSentencias {
+
+    // Contadores globales de todas las conexiones del pool
+    private static final AtomicLong ACIERTOS = new AtomicLong();
+    private static final AtomicLong FALLOS = new AtomicLong();
+    private static final AtomicLong DESALOJOS = new AtomicLong();
+
+    private final ConexionAgrupada conexion;
+    private final int capacidad;
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    /**
+     * Constructor
+     * @param conexion Conexión física dueña de la caché
+     * @param capacidad Número máximo de sentencias cacheadas
+     */
+    CacheSentencias(ConexionAgrupada conexion, int capacidad) {
+        this.conexion = conexion;
+        this.capacidad = capacidad;
+        // accessOrder = true: el primer elemento es el menos usado recientemente
+        this.entradas = new LinkedHashMap<>(Math.max(16, capacidad * 2), 0.75f, true);
+    }
+
+    /**
+     * Obtiene una sentencia preparada de la caché o la prepara si no existe
+     * @param logica Conexión lógica del préstamo actual (para getConnection)
+     * @param sql Texto SQL
+     * @param clavesGeneradas Statement.RETURN_GENERATED_KEYS o Statement.NO_GENERATED_KEYS
+     * @return Sentencia lista para usar; al cerrarla vuelve a la caché
+     * @throws SQLException Si el driver no puede preparar la sentencia
+     */
+    synchronized PreparedStatement preparar(Connection logica, String sql, int clavesGeneradas)
+            throws SQLException {
+        String clave = (clavesGeneradas == Statement.RETURN_GENERATED_KEYS ? "K:" : "N:") + sql;
+        Entrada entrada = entradas.get(clave);
+
+        if (entrada != null && !entrada.enUso) {
+            ACIERTOS.incrementAndGet();
+            entrada.prestar(logica);
+            return entrada.proxy;
+        }
+
+        FALLOS.incrementAndGet();
+        PreparedStatement fisica = conexion.getFisica().prepareStatement(sql, clavesGeneradas);
+
+        if (entrada != null) {
+            // La misma sentencia ya está abierta en esta conexión: se entrega sin cachear
+            return fisica;
+        }
+
+        entrada = new Entrada(fisica);
+        entradas.put(clave, entrada);
+        desalojarExcedentes();
+        entrada.prestar(logica);
+        return entrada.proxy;
+    }
+
+    /**
+     * Marca como libres las sentencias que quedaron abiertas al devolver la conexión
+     */
+    synchronized void liberarTodas() {
+        for (Entrada entrada : new ArrayList<>(entradas.values())) {
+            if (entrada.enUso) {
+                entrada.devolver();
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias físicas (al cerrar la conexión)
+     */
+    synchronized void cerrarTodas() {
+        for (Entrada entrada : entradas.values()) {
+            entrada.cerrarFisica();
+        }
+        entradas.clear();
+    }
+
+    synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    private void desalojarExcedentes() {
+        Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+        List<Entrada> desalojadas = new ArrayList<>();
+        while (entradas.size() - desalojadas.size() > capacidad && it.hasNext()) {
+            Entrada candidata = it.next().getValue();
+            it.remove();
+            desalojadas.add(candidata);
+        }
+        for (Entrada entrada : desalojadas) {
+            DESALOJOS.incrementAndGet();
+            if (entrada.enUso) {
+                // Se cierra cuando su usuario actual la cierre
+                entrada.desalojada = true;
+            } else {
+                entrada.cerrarFisica();
+            }
+        }
+    }
+
+    // Estadísticas globales
+
+    static long getAciertos() {
+        return ACIERTOS.get();
+    }
+
+    static long getFallos() {
+        return FALLOS.get();
+    }
+
+    static long getDesalojos() {
+        return DESALOJOS.get();
+    }
+
+    /**
+     * Sentencia cacheada y su proxy reutilizable
+     */
+    private class Entrada implements InvocationHandler {
+
+        private final PreparedStatement fisica;
+        private final PreparedStatement proxy;
+        // Valores del driver al preparar, para restaurarlos al devolver
+        private final int fetchSizeInicial;
+        private final int maxRowsInicial;
+        private final int queryTimeoutInicial;
+        private Connection logica;
+        private boolean enUso;
+        private boolean desalojada;
+
+        Entrada(PreparedStatement fisica) throws SQLException {
+            this.fisica = fisica;
+            this.fetchSizeInicial = fisica.getFetchSize();
+            this.maxRowsInicial = fisica.getMaxRows();
+            this.queryTimeoutInicial = fisica.getQueryTimeout();
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this
+            );
+        }
+
+        void prestar(Connection logica) {
+            this.logica = logica;
+            this.enUso = true;
+        }
+
+        void devolver() {
+            this.enUso = false;
+            this.logica = null;
+            try {
+                // Un lote que falló a mitad puede dejar filas pendientes
+                fisica.clearBatch();
+                fisica.clearParameters();
+                // Lo que ajustó el préstamo anterior no debe afectar al siguiente
+                if (fisica.getFetchSize() != fetchSizeInicial) {
+                    fisica.setFetchSize(fetchSizeInicial);
+                }
+                if (fisica.getMaxRows() != maxRowsInicial) {
+                    fisica.setMaxRows(maxRowsInicial);
+                }
+                if (fisica.getQueryTimeout() != queryTimeoutInicial) {
+                    fisica.setQueryTimeout(queryTimeoutInicial);
+                }
+            } catch (SQLException e) {
+                cerrarFisica();
+                entradas.values().remove(this);
+            }
+        }
+
+        void cerrarFisica() {
+            try {
+                fisica.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar sentencia cacheada: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    synchronized (CacheSentencias.this) {
+                        if (enUso) {
+                            if (desalojada) {
+                                enUso = false;
+                                cerrarFisica();
+                            } else {
+                                devolver();
+                            }
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !enUso || fisica.isClosed();
+                case "getConnection":
+                    return logica;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return fisica.toString();
+                default:
+                    break;
+            }
+
+            if (!enUso) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+
+            try {
+                return metodo.invoke(fisica, args);
+            } catch (InvocationTargetException e) {
+                Throwable causa = e.getCause();
+                conexion.revisarError(causa);
+                throw causa;
+            }
+        }
+    }
+}
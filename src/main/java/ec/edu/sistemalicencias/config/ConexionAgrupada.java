@@ -0,0 +1,202 @@
+package ec.edu.sistemalicencias.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Conexión física administrada por {@link PoolConexiones}.
+ * Cada préstamo entrega un proxy de {@link Connection} cuyo close()
+ * devuelve la conexión al pool en lugar de cerrarla. Las sentencias
+ * preparadas se reutilizan mediante {@link CacheSentencias} y todas las
+ * sentencias se entregan medidas por {@link MetricasJdbc}.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+class ConexionAgrupada {
+
+    private final PoolConexiones pool;
+    private final Connection fisica;
+    private final CacheSentencias cacheSentencias;
+    private final MetricasJdbc metricas = MetricasJdbc.getInstance();
+
+    private volatile long ultimoUso;
+    private volatile long inicioPrestamo;
+    private volatile Throwable origenPrestamo;
+    private volatile boolean fugaReportada;
+    private volatile boolean rota;
+
+    ConexionAgrupada(PoolConexiones pool, Connection fisica, int capacidadCache) {
+        this.pool = pool;
+        this.fisica = fisica;
+        this.cacheSentencias = capacidadCache > 0 ? new CacheSentencias(this, capacidadCache) : null;
+        this.ultimoUso = System.currentTimeMillis();
+    }
+
+    /**
+     * Marca la conexión como prestada y crea su conexión lógica
+     * @param capturarTraza true para guardar la traza de quien la toma (detección de fugas)
+     * @return Proxy de Connection para el solicitante
+     */
+    Connection prestar(boolean capturarTraza) {
+        this.inicioPrestamo = System.currentTimeMillis();
+        this.origenPrestamo = capturarTraza ? new Throwable("Préstamo de conexión") : null;
+        this.fugaReportada = false;
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionLogica()
+        );
+    }
+
+    /**
+     * Deja la conexión en estado limpio para el siguiente préstamo
+     * @return true si la conexión puede volver al pool
+     */
+    boolean restablecer() {
+        this.ultimoUso = System.currentTimeMillis();
+        this.origenPrestamo = null;
+        if (rota) {
+            return false;
+        }
+        try {
+            if (fisica.isClosed()) {
+                return false;
+            }
+            if (cacheSentencias != null) {
+                cacheSentencias.liberarTodas();
+            }
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            fisica.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cierra la conexión física ignorando errores
+     */
+    void cerrarFisica() {
+        if (cacheSentencias != null) {
+            cacheSentencias.cerrarTodas();
+        }
+        try {
+            fisica.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión física: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marca la fuga como reportada
+     * @return true si es la primera vez que se reporta en este préstamo
+     */
+    boolean marcarFugaReportada() {
+        if (fugaReportada) {
+            return false;
+        }
+        fugaReportada = true;
+        return true;
+    }
+
+    /**
+     * Marca la conexión como rota si el error es de conexión (SQLState clase 08)
+     * @param error Excepción lanzada por el driver
+     */
+    void revisarError(Throwable error) {
+        if (error instanceof SQLException) {
+            String estado = ((SQLException) error).getSQLState();
+            if (estado != null && estado.startsWith("08")) {
+                rota = true;
+            }
+        }
+    }
+
+    Connection getFisica() {
+        return fisica;
+    }
+
+    long getUltimoUso() {
+        return ultimoUso;
+    }
+
+    long getInicioPrestamo() {
+        return inicioPrestamo;
+    }
+
+    Throwable getOrigenPrestamo() {
+        return origenPrestamo;
+    }
+
+    /**
+     * Manejador del proxy entregado en cada préstamo
+     */
+    private class ConexionLogica implements InvocationHandler {
+
+        private boolean cerrada;
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        pool.devolver(ConexionAgrupada.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionAgrupada[" + fisica + (cerrada ? ", devuelta" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La conexión ya fue devuelta al pool", "08003");
+            }
+
+            try {
+                Object resultado = null;
+                if (cacheSentencias != null && "prepareStatement".equals(metodo.getName())) {
+                    // Solo prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys)
+                    if (args.length == 1) {
+                        resultado = cacheSentencias.preparar((Connection) proxy, (String) args[0],
+                                Statement.NO_GENERATED_KEYS);
+                    } else if (args.length == 2 && metodo.getParameterTypes()[1] == int.class) {
+                        resultado = cacheSentencias.preparar((Connection) proxy, (String) args[0], (Integer) args[1]);
+                    }
+                }
+                if (resultado == null) {
+                    resultado = metodo.invoke(fisica, args);
+                }
+                // createStatement, prepareStatement y prepareCall: se miden sus ejecuciones
+                if (resultado instanceof Statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    return metricas.medir((Statement) resultado, sql);
+                }
+                return resultado;
+            } catch (InvocationTargetException e) {
+                revisarError(e.getCause());
+                throw e.getCause();
+            } catch (SQLException e) {
+                revisarError(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package ec.edu.sistemalicencias.config;
 
 import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConfig {
@@ -12,18 +11,52 @@ public class DatabaseConfig {
     private final String usuario;
     private final String password;
     private final String driver;
+    private final PoolConexiones pool;
+    private final int tamanoLote;
+    private final int tamanoFetch;
+    private final Dialecto dialecto;
+    private final MonitorSalud monitorSalud;
 
     private DatabaseConfig() {
-        this.driver = "org.postgresql.Driver";
-        this.url = "jdbc:postgresql://aws-1-us-east-1.pooler.supabase.com:5432/postgres";
-        this.usuario = "postgres.smyfckywiqznbdirnerh";
-        this.password = "RootAdmin1234*";
+        // Valores por defecto, sobreescribibles con -Dlicencias.db.*
+        String urlBase = System.getProperty("licencias.db.url",
+                "jdbc:postgresql://aws-1-us-east-1.pooler.supabase.com:5432/postgres");
+        this.dialecto = Dialecto.detectar(urlBase);
+        // -Dlicencias.db.ajustarUrl=false deja la URL tal cual (sin las propiedades de lotes del dialecto)
+        this.url = Boolean.parseBoolean(System.getProperty("licencias.db.ajustarUrl", "true"))
+                ? dialecto.ajustarUrl(urlBase) : urlBase;
+        this.driver = System.getProperty("licencias.db.driver", dialecto.getDriver());
+        this.usuario = System.getProperty("licencias.db.usuario", "postgres.smyfckywiqznbdirnerh");
+        this.password = System.getProperty("licencias.db.password", "RootAdmin1234*");
 
-        try {
-            Class.forName(driver);
-        } catch (ClassNotFoundException e) {
-            System.err.println("Error al cargar el driver PostgreSQL: " + e.getMessage());
+        if (driver != null) {
+            try {
+                Class.forName(driver);
+            } catch (ClassNotFoundException e) {
+                System.err.println("Error al cargar el driver " + dialecto.getNombre() + ": " + e.getMessage());
+            }
         }
+
+        this.pool = new PoolConexiones(url, usuario, password,
+                Integer.getInteger("licencias.pool.minimo", 2),
+                Integer.getInteger("licencias.pool.maximo", 10),
+                Long.getLong("licencias.pool.esperaMs", 10_000L),
+                Long.getLong("licencias.pool.inactividadMs", 300_000L),
+                Long.getLong("licencias.pool.validacionTrasMs", 500L),
+                Long.getLong("licencias.pool.umbralFugaMs", 60_000L),
+                Integer.getInteger("licencias.pool.cacheSentencias", 32));
+        pool.iniciar();
+
+        this.tamanoLote = Integer.getInteger("licencias.db.tamanoLote", 500);
+        this.tamanoFetch = Integer.getInteger("licencias.db.tamanoFetch", 500);
+
+        this.monitorSalud = new MonitorSalud(url, usuario, password, dialecto.getNombre(),
+                Long.getLong("licencias.salud.intervaloMs", 5_000L),
+                Long.getLong("licencias.salud.timeoutMs", 3_000L),
+                Integer.getInteger("licencias.salud.fallos", 2),
+                Integer.getInteger("licencias.salud.exitos", 2));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::cerrar, "pool-conexiones-cierre"));
     }
 
     public static synchronized DatabaseConfig getInstance() {
@@ -33,11 +66,43 @@ public class DatabaseConfig {
         return instancia;
     }
 
+    /**
+     * Presta una conexión del pool. Cerrarla la devuelve al pool.
+     * Dentro de una {@link UnidadTrabajo} devuelve la conexión de la transacción.
+     */
     public Connection obtenerConexion() throws BaseDatosException {
+        Connection transaccion = UnidadTrabajo.conexionActual();
+        if (transaccion != null) {
+            return transaccion;
+        }
+        return prestarConexion();
+    }
+
+    /**
+     * Presta una conexión directamente del pool. Si el {@link MonitorSalud}
+     * declaró la base de datos caída falla de inmediato en lugar de esperar
+     * el timeout de la red.
+     */
+    Connection prestarConexion() throws BaseDatosException {
+        if (monitorSalud.estaCaida()) {
+            throw new BaseDatosException(monitorSalud.describirCaida());
+        }
+        EventoObtencionConexion evento = new EventoObtencionConexion();
+        evento.begin();
+        long inicio = System.nanoTime();
         try {
-            return DriverManager.getConnection(url, usuario, password);
+            Connection conexion = pool.obtener();
+            MetricasJdbc.getInstance().registrarEspera(System.nanoTime() - inicio, false);
+            if (evento.shouldCommit()) {
+                evento.prestadas = pool.getConexionesPrestadas();
+                evento.commit();
+            }
+            return conexion;
         } catch (SQLException e) {
-            throw new BaseDatosException("Error al conectar con PostgreSQL Cloud: " + e.getMessage(), e);
+            MetricasJdbc.getInstance().registrarEspera(System.nanoTime() - inicio, true);
+            evento.error = true;
+            evento.commit();
+            throw new BaseDatosException("Error al conectar con " + dialecto.getNombre() + ": " + e.getMessage(), e);
         }
     }
 
@@ -53,15 +118,24 @@ public class DatabaseConfig {
         }
     }
 
+    /**
+     * Estado de la conexión según el {@link MonitorSalud}, sin esperar a la
+     * base de datos. Solo si todavía no hubo ninguna sonda hace una (con el
+     * tiempo máximo de sonda).
+     */
     public boolean verificarConexion() {
-        try (Connection conn = obtenerConexion()) {
-            return conn != null && !conn.isClosed();
-        } catch (Exception e) {
-            return false;
+        if (monitorSalud.getEstado() == MonitorSalud.Estado.DESCONOCIDO) {
+            return monitorSalud.sondear();
         }
+        return monitorSalud.getEstado() == MonitorSalud.Estado.DISPONIBLE;
     }
 
     public String getUrl() { return url; }
     public String getUsuario() { return usuario; }
     public String getDriver() { return driver; }
-}
\ No newline at end of file
+    public PoolConexiones getPool() { return pool; }
+    public int getTamanoLote() { return tamanoLote; }
+    public int getTamanoFetch() { return tamanoFetch; }
+    public Dialecto getDialecto() { return dialecto; }
+    public MonitorSalud getMonitorSalud() { return monitorSalud; }
+}
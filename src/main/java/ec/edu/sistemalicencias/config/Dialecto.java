@@ -0,0 +1,238 @@
+package ec.edu.sistemalicencias.config;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SQL que cambia según el motor de base de datos. Se elige por la URL JDBC.
+ *
+ * PostgreSQL usa ON CONFLICT, listas como arreglo en un solo parámetro
+ * (= ANY(?)) y reWriteBatchedInserts; MySQL (8.0.19 o posterior) usa
+ * ON DUPLICATE KEY UPDATE con alias de fila, listas IN,
+ * rewriteBatchedStatements y cursores en el servidor (useCursorFetch) para
+ * que setFetchSize no cargue todo el resultado.
+ * Cualquier otro motor usa SQL estándar (MERGE, FETCH FIRST e IN).
+ *
+ * Esquemas: sistema_licencias.sql (PostgreSQL) y
+ * SistemaLicencias/sistema_licencias.sql (MySQL).
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public enum Dialecto {
+
+    POSTGRESQL("PostgreSQL", "org.postgresql.Driver", "reWriteBatchedInserts=true") {
+        @Override
+        public String insertarOActualizar(String tabla, List<String> columnas, List<String> claves) {
+            return insertar(tabla, columnas) + " ON CONFLICT (" + String.join(", ", claves) + ") DO UPDATE SET " +
+                    asignaciones(columnas, claves, "EXCLUDED.%s");
+        }
+
+        @Override
+        public String enLista(String columna, int cantidad) {
+            return columna + " = ANY(?)";
+        }
+
+        @Override
+        public int asignarLista(PreparedStatement stmt, int indice, String tipo, List<?> valores)
+                throws SQLException {
+            stmt.setArray(indice, stmt.getConnection().createArrayOf(tipo, valores.toArray()));
+            return indice + 1;
+        }
+
+        @Override
+        public int maximoLista(int tamanoLote) {
+            return Integer.MAX_VALUE;
+        }
+    },
+
+    MYSQL("MySQL", "com.mysql.cj.jdbc.Driver", "rewriteBatchedStatements=true&useCursorFetch=true") {
+        @Override
+        public String fechaActual() {
+            return "CURDATE()";
+        }
+
+        @Override
+        public String actualizarConLimite(String tabla, String asignaciones, String condicion, int filas) {
+            // MySQL no admite LIMIT en una subconsulta IN, pero sí en el propio UPDATE
+            return "UPDATE " + tabla + " SET " + asignaciones + " WHERE " + condicion + " LIMIT " + filas;
+        }
+
+        @Override
+        public String insertarOActualizar(String tabla, List<String> columnas, List<String> claves) {
+            // Alias de fila (MySQL 8.0.19+): VALUES(col) en el UPDATE está obsoleto desde 8.0.20
+            return insertar(tabla, columnas) + " AS nueva ON DUPLICATE KEY UPDATE " +
+                    asignaciones(columnas, claves, "nueva.%s");
+        }
+    },
+
+    ESTANDAR("la base de datos", null, null) {
+        @Override
+        public String limitar(String consulta, int filas) {
+            return consulta + " FETCH FIRST " + filas + " ROWS ONLY";
+        }
+
+        @Override
+        public String insertarOActualizar(String tabla, List<String> columnas, List<String> claves) {
+            String lista = String.join(", ", columnas);
+            return "MERGE INTO " + tabla + " USING (VALUES (" +
+                    String.join(", ", Collections.nCopies(columnas.size(), "?")) + ")) AS nueva (" + lista + ") ON " +
+                    claves.stream().map(c -> tabla + "." + c + " = nueva." + c).collect(Collectors.joining(" AND ")) +
+                    " WHEN MATCHED THEN UPDATE SET " + asignaciones(columnas, claves, "nueva.%s") +
+                    " WHEN NOT MATCHED THEN INSERT (" + lista + ") VALUES (" +
+                    columnas.stream().map(c -> "nueva." + c).collect(Collectors.joining(", ")) + ")";
+        }
+    };
+
+    private final String nombre;
+    private final String driver;
+    private final String propiedadesUrl;
+
+    Dialecto(String nombre, String driver, String propiedadesUrl) {
+        this.nombre = nombre;
+        this.driver = driver;
+        this.propiedadesUrl = propiedadesUrl;
+    }
+
+    /**
+     * Elige el dialecto por el subprotocolo de la URL JDBC
+     * @param url URL de conexión
+     * @return Dialecto del motor (ESTANDAR si no se reconoce)
+     */
+    public static Dialecto detectar(String url) {
+        if (url.startsWith("jdbc:postgresql:")) {
+            return POSTGRESQL;
+        }
+        if (url.startsWith("jdbc:mysql:")) {
+            return MYSQL;
+        }
+        return ESTANDAR;
+    }
+
+    /**
+     * Agrega a la URL las propiedades del driver para lotes rápidos, salvo las
+     * que ya estén indicadas en ella
+     * @param url URL de conexión
+     * @return URL con las propiedades agregadas
+     */
+    public String ajustarUrl(String url) {
+        if (propiedadesUrl == null) {
+            return url;
+        }
+        StringBuilder ajustada = new StringBuilder(url);
+        for (String propiedad : propiedadesUrl.split("&")) {
+            String clave = propiedad.substring(0, propiedad.indexOf('=') + 1);
+            if (!url.contains("?" + clave) && !url.contains("&" + clave)) {
+                ajustada.append(ajustada.indexOf("?") < 0 ? '?' : '&').append(propiedad);
+            }
+        }
+        return ajustada.toString();
+    }
+
+    /**
+     * Nombre del motor para mensajes
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Clase del driver JDBC, o null si no hay uno por defecto
+     */
+    public String getDriver() {
+        return driver;
+    }
+
+    /**
+     * Expresión de la fecha actual del servidor
+     */
+    public String fechaActual() {
+        return "CURRENT_DATE";
+    }
+
+    /**
+     * Limita una consulta a las primeras filas
+     * @param consulta SELECT completo, incluido el ORDER BY
+     * @param filas Máximo de filas
+     * @return Consulta limitada
+     */
+    public String limitar(String consulta, int filas) {
+        return consulta + " LIMIT " + filas;
+    }
+
+    /**
+     * UPDATE de como máximo un número de filas que cumplen una condición. La
+     * tabla debe tener columna id.
+     * @param tabla Tabla a actualizar
+     * @param asignaciones Lista SET
+     * @param condicion Condición WHERE (puede tener parámetros)
+     * @param filas Máximo de filas a actualizar
+     * @return Sentencia UPDATE
+     */
+    public String actualizarConLimite(String tabla, String asignaciones, String condicion, int filas) {
+        return "UPDATE " + tabla + " SET " + asignaciones + " WHERE id IN (" +
+                limitar("SELECT id FROM " + tabla + " WHERE " + condicion, filas) + ")";
+    }
+
+    /**
+     * Inserta una fila o, si ya existe otra con las mismas claves, actualiza
+     * sus demás columnas. Los parámetros son los valores de las columnas en orden.
+     * @param tabla Tabla destino
+     * @param columnas Columnas a insertar
+     * @param claves Columnas con restricción UNIQUE o PRIMARY KEY que identifican la fila
+     * @return Sentencia con un parámetro por columna
+     */
+    public abstract String insertarOActualizar(String tabla, List<String> columnas, List<String> claves);
+
+    /**
+     * Condición de pertenencia a una lista de valores
+     * @param columna Columna a comparar
+     * @param cantidad Número de valores
+     * @return Condición con los parámetros que asigna {@link #asignarLista}
+     */
+    public String enLista(String columna, int cantidad) {
+        return columna + " IN (" + String.join(", ", Collections.nCopies(cantidad, "?")) + ")";
+    }
+
+    /**
+     * Asigna los valores de una condición {@link #enLista}
+     * @param stmt Sentencia
+     * @param indice Índice del primer parámetro
+     * @param tipo Tipo SQL de los elementos (bigint, varchar), para los arreglos
+     * @param valores Valores de la lista
+     * @return Índice del siguiente parámetro
+     * @throws SQLException Si falla la asignación
+     */
+    public int asignarLista(PreparedStatement stmt, int indice, String tipo, List<?> valores) throws SQLException {
+        for (Object valor : valores) {
+            stmt.setObject(indice++, valor);
+        }
+        return indice;
+    }
+
+    /**
+     * Máximo de valores por condición {@link #enLista}. Con listas IN se
+     * parte en tramos de tamanoLote para no exceder el límite de parámetros;
+     * con arreglos va todo en una sola consulta.
+     * @param tamanoLote Tamaño de lote configurado
+     * @return Valores por consulta
+     */
+    public int maximoLista(int tamanoLote) {
+        return tamanoLote;
+    }
+
+    private static String insertar(String tabla, List<String> columnas) {
+        return "INSERT INTO " + tabla + " (" + String.join(", ", columnas) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columnas.size(), "?")) + ")";
+    }
+
+    private static String asignaciones(List<String> columnas, List<String> claves, String formatoValor) {
+        return columnas.stream()
+                .filter(c -> !claves.contains(c))
+                .map(c -> c + " = " + String.format(formatoValor, c))
+                .collect(Collectors.joining(", "));
+    }
+}
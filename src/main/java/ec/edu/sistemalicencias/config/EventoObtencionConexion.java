@@ -0,0 +1,30 @@
+package ec.edu.sistemalicencias.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada préstamo de conexión del pool
+ * fuera de una {@link UnidadTrabajo}, con lo que esperó el hilo
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+@Name("ec.edu.sistemalicencias.ObtencionConexion")
+@Label("Obtención de conexión")
+@Category({"Sistema Licencias", "JDBC"})
+@Description("Espera por una conexión del pool")
+@StackTrace(false)
+final class EventoObtencionConexion extends Event {
+
+    @Label("Conexiones prestadas")
+    @Description("Conexiones en uso al terminar la espera")
+    int prestadas;
+
+    @Label("Error")
+    boolean error;
+}
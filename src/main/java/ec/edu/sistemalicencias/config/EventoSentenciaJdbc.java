@@ -0,0 +1,40 @@
+package ec.edu.sistemalicencias.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada execute* de una sentencia medida.
+ * Queda anidado, en el mismo hilo, dentro del evento de la operación de
+ * servicio que lo originó. Sin traza de pila: la operación DAO ya la identifica.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+@Name("ec.edu.sistemalicencias.SentenciaJdbc")
+@Label("Sentencia JDBC")
+@Category({"Sistema Licencias", "JDBC"})
+@Description("Ejecución de una sentencia desde un DAO")
+@StackTrace(false)
+final class EventoSentenciaJdbc extends Event {
+
+    @Label("Operación DAO")
+    String operacion;
+
+    @Label("Método JDBC")
+    String metodo;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Filas")
+    @Description("Filas afectadas; en consultas, 0 (el recorrido del ResultSet no está incluido)")
+    long filas;
+
+    @Label("Error")
+    boolean error;
+}
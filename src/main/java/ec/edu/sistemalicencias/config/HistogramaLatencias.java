@@ -0,0 +1,147 @@
+package ec.edu.sistemalicencias.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos, en microsegundos.
+ *
+ * Cada potencia de dos se divide en 8 cubetas lineales, así que un percentil
+ * se reporta con un error relativo de a lo sumo 12,5 % y el histograma ocupa
+ * un arreglo fijo de ~500 contadores sin importar cuántas muestras reciba.
+ * El máximo y la suma se llevan exactos.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+final class HistogramaLatencias {
+
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra una muestra
+     * @param nanos Duración en nanosegundos
+     */
+    void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        cubetas.incrementAndGet(indice(micros));
+        suma.add(micros);
+        maximo.accumulate(micros);
+    }
+
+    /**
+     * Copia los contadores. Con reiniciar = true los pone en cero a la vez,
+     * cubeta por cubeta, así que una muestra concurrente cae en esta
+     * instantánea o en la siguiente, nunca en ambas.
+     * @param reiniciar true para reiniciar el histograma
+     * @return Muestras, media, percentiles y máximo
+     */
+    Instantanea instantanea(boolean reiniciar) {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = reiniciar ? cubetas.getAndSet(i, 0) : cubetas.get(i);
+            total += copia[i];
+        }
+        long sumaMicros = reiniciar ? suma.sumThenReset() : suma.sum();
+        long maximoMicros = reiniciar ? maximo.getThenReset() : maximo.get();
+        return new Instantanea(total, sumaMicros, maximoMicros,
+                percentil(copia, total, 0.50, maximoMicros),
+                percentil(copia, total, 0.95, maximoMicros),
+                percentil(copia, total, 0.99, maximoMicros));
+    }
+
+    private static int indice(long micros) {
+        if (micros < SUBCUBETAS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int subcubeta = (int) (micros >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta;
+    }
+
+    /**
+     * Límite superior de la cubeta (en microsegundos)
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long inferior = (long) (SUBCUBETAS + indice % SUBCUBETAS) << (exponente - BITS_SUBCUBETA);
+        return inferior + (1L << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+
+    private static long percentil(long[] copia, long total, double fraccion, long maximoMicros) {
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * fraccion);
+        long acumulado = 0;
+        for (int i = 0; i < copia.length; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximoMicros);
+            }
+        }
+        return maximoMicros;
+    }
+
+    /**
+     * Valores de un histograma en un instante, en microsegundos
+     */
+    static final class Instantanea {
+
+        private final long muestras;
+        private final long sumaMicros;
+        private final long maximoMicros;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+
+        Instantanea(long muestras, long sumaMicros, long maximoMicros,
+                    long p50Micros, long p95Micros, long p99Micros) {
+            this.muestras = muestras;
+            this.sumaMicros = sumaMicros;
+            this.maximoMicros = maximoMicros;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+        }
+
+        long getMuestras() {
+            return muestras;
+        }
+
+        long getSumaMicros() {
+            return sumaMicros;
+        }
+
+        long getMaximoMicros() {
+            return maximoMicros;
+        }
+
+        long getP50Micros() {
+            return p50Micros;
+        }
+
+        long getP95Micros() {
+            return p95Micros;
+        }
+
+        long getP99Micros() {
+            return p99Micros;
+        }
+
+        double getMediaMicros() {
+            return muestras == 0 ? 0 : (double) sumaMicros / muestras;
+        }
+    }
+}
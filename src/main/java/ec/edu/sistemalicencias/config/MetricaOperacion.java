@@ -0,0 +1,169 @@
+package ec.edu.sistemalicencias.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas JDBC de un método de DAO (por ejemplo ConductorDAO.buscarPorCedula):
+ * sentencias ejecutadas, errores, filas, latencia de ejecución y espera por
+ * conexión. Se actualizan sin bloqueos desde cualquier hilo.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+class MetricaOperacion implements MetricaOperacionMBean {
+
+    private final String nombre;
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder filas = new LongAdder();
+    private final HistogramaLatencias latencias = new HistogramaLatencias();
+    private final HistogramaLatencias esperas = new HistogramaLatencias();
+
+    MetricaOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    void registrarEjecucion(long nanos, boolean error) {
+        llamadas.increment();
+        if (error) {
+            errores.increment();
+        }
+        latencias.registrar(nanos);
+    }
+
+    void registrarEspera(long nanos, boolean error) {
+        if (error) {
+            errores.increment();
+        } else {
+            esperas.registrar(nanos);
+        }
+    }
+
+    void sumarFilas(long cantidad) {
+        if (cantidad > 0) {
+            filas.add(cantidad);
+        }
+    }
+
+    /**
+     * Copia todos los valores
+     * @param reiniciar true para ponerlos en cero a la vez
+     * @return Valores del método
+     */
+    Valores instantanea(boolean reiniciar) {
+        return new Valores(nombre,
+                reiniciar ? llamadas.sumThenReset() : llamadas.sum(),
+                reiniciar ? errores.sumThenReset() : errores.sum(),
+                reiniciar ? filas.sumThenReset() : filas.sum(),
+                latencias.instantanea(reiniciar),
+                esperas.instantanea(reiniciar));
+    }
+
+    // MetricaOperacionMBean
+
+    @Override
+    public long getLlamadas() {
+        return llamadas.sum();
+    }
+
+    @Override
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    @Override
+    public long getFilas() {
+        return filas.sum();
+    }
+
+    @Override
+    public double getLatenciaMediaMs() {
+        return latencias.instantanea(false).getMediaMicros() / 1_000;
+    }
+
+    @Override
+    public double getLatenciaP50Ms() {
+        return milisegundos(latencias.instantanea(false).getP50Micros());
+    }
+
+    @Override
+    public double getLatenciaP95Ms() {
+        return milisegundos(latencias.instantanea(false).getP95Micros());
+    }
+
+    @Override
+    public double getLatenciaP99Ms() {
+        return milisegundos(latencias.instantanea(false).getP99Micros());
+    }
+
+    @Override
+    public double getLatenciaMaximaMs() {
+        return milisegundos(latencias.instantanea(false).getMaximoMicros());
+    }
+
+    @Override
+    public long getConexionesObtenidas() {
+        return esperas.instantanea(false).getMuestras();
+    }
+
+    @Override
+    public double getEsperaConexionMediaMs() {
+        return esperas.instantanea(false).getMediaMicros() / 1_000;
+    }
+
+    @Override
+    public double getEsperaConexionP50Ms() {
+        return milisegundos(esperas.instantanea(false).getP50Micros());
+    }
+
+    @Override
+    public double getEsperaConexionP95Ms() {
+        return milisegundos(esperas.instantanea(false).getP95Micros());
+    }
+
+    @Override
+    public double getEsperaConexionP99Ms() {
+        return milisegundos(esperas.instantanea(false).getP99Micros());
+    }
+
+    @Override
+    public double getEsperaConexionMaximaMs() {
+        return milisegundos(esperas.instantanea(false).getMaximoMicros());
+    }
+
+    @Override
+    public void reiniciar() {
+        instantanea(true);
+    }
+
+    static double milisegundos(long micros) {
+        return micros / 1_000.0;
+    }
+
+    /**
+     * Valores de un método en un instante
+     */
+    static final class Valores {
+
+        final String nombre;
+        final long llamadas;
+        final long errores;
+        final long filas;
+        final HistogramaLatencias.Instantanea latencias;
+        final HistogramaLatencias.Instantanea esperas;
+
+        Valores(String nombre, long llamadas, long errores, long filas,
+                HistogramaLatencias.Instantanea latencias, HistogramaLatencias.Instantanea esperas) {
+            this.nombre = nombre;
+            this.llamadas = llamadas;
+            this.errores = errores;
+            this.filas = filas;
+            this.latencias = latencias;
+            this.esperas = esperas;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ec.edu.sistemalicencias.config;
+
+/**
+ * Vista JMX de las métricas JDBC de un método de DAO.
+ * Las latencias son de la ejecución de las sentencias (execute*), sin el
+ * recorrido del ResultSet; las esperas son las de obtener una conexión del pool.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public interface MetricaOperacionMBean {
+
+    /**
+     * Sentencias ejecutadas
+     */
+    long getLlamadas();
+
+    /**
+     * Sentencias o préstamos de conexión que terminaron con SQLException
+     */
+    long getErrores();
+
+    /**
+     * Filas leídas de los ResultSet más filas afectadas por INSERT/UPDATE/DELETE
+     */
+    long getFilas();
+
+    double getLatenciaMediaMs();
+
+    double getLatenciaP50Ms();
+
+    double getLatenciaP95Ms();
+
+    double getLatenciaP99Ms();
+
+    double getLatenciaMaximaMs();
+
+    long getConexionesObtenidas();
+
+    double getEsperaConexionMediaMs();
+
+    double getEsperaConexionP50Ms();
+
+    double getEsperaConexionP95Ms();
+
+    double getEsperaConexionP99Ms();
+
+    double getEsperaConexionMaximaMs();
+
+    /**
+     * Pone en cero los contadores de este método
+     */
+    void reiniciar();
+}
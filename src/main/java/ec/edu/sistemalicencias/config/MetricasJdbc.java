@@ -0,0 +1,233 @@
+package ec.edu.sistemalicencias.config;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas JDBC por método de DAO, publicadas como MBeans.
+ *
+ * Las sentencias que entrega el pool se envuelven en {@link SentenciaMedida},
+ * que mide cada execute* y cuenta filas. El método al que se atribuyen se
+ * busca una sola vez por sentencia preparada (y por préstamo de conexión)
+ * recorriendo la pila: es el método por el que se entró a la capa DAO
+ * (el marco más externo de los consecutivos del paquete dao); si no hay
+ * ninguno, se usa el primer marco de la aplicación fuera de config.
+ * Así no hace falta tocar cada método de los DAOs.
+ *
+ * MBeans en jconsole (dominio ec.edu.sistemalicencias):
+ * - type=MetricasJdbc: tabla de todos los métodos y reinicio
+ * - type=ConsultasDAO,name=Clase.metodo: contadores y percentiles del método
+ *
+ * Se desactiva con -Dlicencias.metricas.habilitadas=false, lo que también
+ * desactiva el {@link RegistroConsultasLentas}.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public final class MetricasJdbc implements MetricasJdbcMBean {
+
+    private static final String DOMINIO = "ec.edu.sistemalicencias";
+    private static final String PAQUETE_APLICACION = "ec.edu.sistemalicencias.";
+    private static final String PAQUETE_CONFIG = "ec.edu.sistemalicencias.config.";
+    private static final String PAQUETE_DAO = "ec.edu.sistemalicencias.dao.";
+    private static final String DESCONOCIDA = "desconocido";
+
+    private static final MetricasJdbc INSTANCIA = new MetricasJdbc(
+            Boolean.parseBoolean(System.getProperty("licencias.metricas.habilitadas", "true")));
+
+    // Sentencias ejecutadas por cada hilo, para contar idas a la base de datos por operación
+    private static final ThreadLocal<long[]> IDAS_BASE_DATOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final boolean habilitadas;
+    private final Map<String, MetricaOperacion> operaciones = new ConcurrentHashMap<>();
+    private final StackWalker pila = StackWalker.getInstance();
+
+    private MetricasJdbc(boolean habilitadas) {
+        this.habilitadas = habilitadas;
+        if (habilitadas) {
+            registrarMBean(this, MetricasJdbcMBean.class, "type=MetricasJdbc");
+        }
+    }
+
+    public static MetricasJdbc getInstance() {
+        return INSTANCIA;
+    }
+
+    public boolean estanHabilitadas() {
+        return habilitadas;
+    }
+
+    /**
+     * Envuelve una sentencia para medir sus ejecuciones, atribuidas al método
+     * de DAO que la está preparando
+     * @param sentencia Sentencia del driver o de la caché
+     * @param sql SQL de la sentencia preparada, o null si es un Statement simple
+     * @return Sentencia medida, o la misma si las métricas están desactivadas
+     */
+    Statement medir(Statement sentencia, String sql) {
+        if (!habilitadas) {
+            return sentencia;
+        }
+        return SentenciaMedida.envolver(sentencia, sql, operacionActual());
+    }
+
+    /**
+     * Sentencias ejecutadas por el hilo actual desde que empezó. La diferencia
+     * entre dos lecturas es el número de idas a la base de datos de lo que se
+     * hizo entre ellas (un executeBatch cuenta como una). Siempre 0 con las
+     * métricas desactivadas.
+     * @return Contador acumulado del hilo
+     */
+    public static long getIdasBaseDatos() {
+        return IDAS_BASE_DATOS.get()[0];
+    }
+
+    static void contarIdaBaseDatos() {
+        IDAS_BASE_DATOS.get()[0]++;
+    }
+
+    /**
+     * Registra cuánto tardó el pool en entregar una conexión
+     * @param nanos Tiempo de espera
+     * @param error true si no se obtuvo la conexión
+     */
+    void registrarEspera(long nanos, boolean error) {
+        if (habilitadas) {
+            operacionActual().registrarEspera(nanos, error);
+        }
+    }
+
+    /**
+     * Valores de todos los métodos, del que más tiempo pasó en la base de
+     * datos al que menos
+     * @param reiniciar true para poner los contadores en cero
+     * @return Valores por método
+     */
+    List<MetricaOperacion.Valores> valores(boolean reiniciar) {
+        List<MetricaOperacion.Valores> valores = new ArrayList<>(operaciones.size());
+        for (MetricaOperacion operacion : operaciones.values()) {
+            valores.add(operacion.instantanea(reiniciar));
+        }
+        valores.sort(Comparator.comparingLong((MetricaOperacion.Valores v) -> v.latencias.getSumaMicros())
+                .reversed());
+        return valores;
+    }
+
+    // MetricasJdbcMBean
+
+    @Override
+    public int getOperaciones() {
+        return operaciones.size();
+    }
+
+    @Override
+    public String instantanea() {
+        return formatear(valores(false));
+    }
+
+    @Override
+    public String instantaneaYReiniciar() {
+        return formatear(valores(true));
+    }
+
+    @Override
+    public void reiniciar() {
+        valores(true);
+    }
+
+    private MetricaOperacion operacionActual() {
+        String nombre = pila.walk(marcos -> {
+            StackWalker.StackFrame dao = null;
+            StackWalker.StackFrame primeraAplicacion = null;
+            for (StackWalker.StackFrame marco : (Iterable<StackWalker.StackFrame>) marcos::iterator) {
+                String clase = marco.getClassName();
+                if (clase.startsWith(PAQUETE_DAO)) {
+                    // Se sigue hasta la entrada a la capa DAO: buscarPorCedula, no su auxiliar privado
+                    dao = marco;
+                } else if (!clase.startsWith(PAQUETE_CONFIG)) {
+                    if (dao != null) {
+                        break;
+                    }
+                    if (primeraAplicacion == null && clase.startsWith(PAQUETE_APLICACION)) {
+                        primeraAplicacion = marco;
+                    }
+                }
+            }
+            StackWalker.StackFrame elegido = dao != null ? dao : primeraAplicacion;
+            return elegido != null ? nombreOperacion(elegido) : DESCONOCIDA;
+        });
+
+        MetricaOperacion operacion = operaciones.get(nombre);
+        if (operacion != null) {
+            return operacion;
+        }
+        return operaciones.computeIfAbsent(nombre, n -> {
+            MetricaOperacion nueva = new MetricaOperacion(n);
+            registrarMBean(nueva, MetricaOperacionMBean.class, "type=ConsultasDAO,name=" + n);
+            return nueva;
+        });
+    }
+
+    /**
+     * Clase simple y método del marco; las lambdas y clases internas se
+     * atribuyen al método y la clase que las contienen
+     */
+    static String nombreOperacion(StackWalker.StackFrame marco) {
+        String clase = marco.getClassName();
+        clase = clase.substring(clase.lastIndexOf('.') + 1);
+        int interna = clase.indexOf('$');
+        if (interna > 0) {
+            clase = clase.substring(0, interna);
+        }
+
+        String metodo = marco.getMethodName();
+        if (metodo.startsWith("lambda$")) {
+            int fin = metodo.indexOf('$', "lambda$".length());
+            metodo = metodo.substring("lambda$".length(), fin > 0 ? fin : metodo.length());
+        }
+        return clase + "." + metodo;
+    }
+
+    private static <T> void registrarMBean(T objeto, Class<T> interfaz, String propiedades) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(DOMINIO + ":" + propiedades);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(new StandardMBean(objeto, interfaz), nombre);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("No se pudo publicar el MBean " + propiedades + ": " + e.getMessage());
+        }
+    }
+
+    private static String formatear(List<MetricaOperacion.Valores> valores) {
+        StringBuilder tabla = new StringBuilder(String.format(Locale.ROOT,
+                "%-48s %10s %8s %12s %12s %9s %9s %9s %9s %10s %10s %10s%n",
+                "Operación", "Llamadas", "Errores", "Filas", "Total ms", "p50 ms", "p95 ms", "p99 ms",
+                "Máx ms", "Conexiones", "Esp p95 ms", "Esp máx ms"));
+        for (MetricaOperacion.Valores v : valores) {
+            tabla.append(String.format(Locale.ROOT,
+                    "%-48s %10d %8d %12d %12.1f %9.3f %9.3f %9.3f %9.3f %10d %10.3f %10.3f%n",
+                    v.nombre, v.llamadas, v.errores, v.filas,
+                    MetricaOperacion.milisegundos(v.latencias.getSumaMicros()),
+                    MetricaOperacion.milisegundos(v.latencias.getP50Micros()),
+                    MetricaOperacion.milisegundos(v.latencias.getP95Micros()),
+                    MetricaOperacion.milisegundos(v.latencias.getP99Micros()),
+                    MetricaOperacion.milisegundos(v.latencias.getMaximoMicros()),
+                    v.esperas.getMuestras(),
+                    MetricaOperacion.milisegundos(v.esperas.getP95Micros()),
+                    MetricaOperacion.milisegundos(v.esperas.getMaximoMicros())));
+        }
+        return tabla.toString();
+    }
+}
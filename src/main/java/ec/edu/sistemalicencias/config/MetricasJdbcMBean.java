@@ -0,0 +1,30 @@
+package ec.edu.sistemalicencias.config;
+
+/**
+ * Vista JMX del conjunto de métricas JDBC por método de DAO
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public interface MetricasJdbcMBean {
+
+    /**
+     * Métodos con métricas registradas
+     */
+    int getOperaciones();
+
+    /**
+     * Tabla de todos los métodos ordenada por tiempo total en la base de datos
+     */
+    String instantanea();
+
+    /**
+     * Igual que {@link #instantanea()} pero pone los contadores en cero al leerlos
+     */
+    String instantaneaYReiniciar();
+
+    /**
+     * Pone en cero los contadores de todos los métodos
+     */
+    void reiniciar();
+}
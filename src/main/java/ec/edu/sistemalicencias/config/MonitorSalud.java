@@ -0,0 +1,322 @@
+package ec.edu.sistemalicencias.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Monitor de salud de la base de datos en segundo plano.
+ *
+ * Cada intervalo valida con isValid (en PostgreSQL, una consulta vacía: una
+ * sola ida y vuelta) una conexión física propia, fuera del pool, midiendo la
+ * latencia. Así un pool saturado por búsquedas o exportaciones largas no se
+ * confunde con una base de datos caída. La conexión se abre en la primera
+ * sonda y se vuelve a abrir después de un fallo.
+ * Si la sonda no termina dentro del tiempo máximo cuenta como fallo aunque el
+ * hilo de la sonda siga esperando al driver, así que el estado nunca depende
+ * de un timeout TCP.
+ *
+ * El estado cambia con histéresis: hacen falta varios fallos seguidos para
+ * pasar a NO_DISPONIBLE y varios éxitos seguidos para volver a DISPONIBLE,
+ * de modo que un fallo aislado no hace parpadear la interfaz. El primer
+ * resultado (desde DESCONOCIDO) se aplica de inmediato. Los cambios se
+ * avisan a los oyentes desde el hilo del monitor.
+ *
+ * Propiedades del sistema:
+ * - licencias.salud.intervaloMs (5000)
+ * - licencias.salud.timeoutMs (3000)
+ * - licencias.salud.fallos: fallos seguidos para declarar la caída (2)
+ * - licencias.salud.exitos: éxitos seguidos para declarar la recuperación (2)
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class MonitorSalud {
+
+    /**
+     * Estado de la base de datos según las últimas sondas
+     */
+    public enum Estado { DESCONOCIDO, DISPONIBLE, NO_DISPONIBLE }
+
+    /**
+     * Recibe los cambios de estado. Se llama desde el hilo del monitor: para
+     * tocar Swing hay que pasar por SwingUtilities.invokeLater.
+     */
+    @FunctionalInterface
+    public interface Oyente {
+        void estadoCambiado(Estado estado, MonitorSalud monitor);
+    }
+
+    private static final Logger REGISTRO = Logger.getLogger(MonitorSalud.class.getName());
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // Peso de la última sonda en la latencia promedio
+    private static final double PESO_LATENCIA = 0.2;
+
+    private final String url;
+    private final String usuario;
+    private final String password;
+    private final String motor;
+    private final long intervaloMs;
+    private final long timeoutMs;
+    private final int fallosParaCaer;
+    private final int exitosParaSubir;
+    private final List<Oyente> oyentes = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sondas = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService programador;
+    private Future<Long> sondaEnCurso;
+    // Solo la usa la sonda en curso (no se lanza otra mientras siga activa)
+    private Connection conexion;
+
+    // Estado (protegido por this; los volatile se leen sin bloqueo)
+    private volatile Estado estado = Estado.DESCONOCIDO;
+    private volatile long ultimaLatenciaMs = -1;
+    private volatile double latenciaPromedioMs = -1;
+    private volatile String ultimoError;
+    private volatile LocalTime caidaDesde;
+    private int fallosSeguidos;
+    private int exitosSeguidos;
+
+    /**
+     * Constructor
+     * @param url URL JDBC
+     * @param usuario Usuario de la base de datos
+     * @param password Contraseña
+     * @param motor Nombre del motor para los mensajes
+     * @param intervaloMs Tiempo entre sondas
+     * @param timeoutMs Tiempo máximo de una sonda
+     * @param fallosParaCaer Fallos seguidos para pasar a NO_DISPONIBLE
+     * @param exitosParaSubir Éxitos seguidos para volver a DISPONIBLE
+     */
+    public MonitorSalud(String url, String usuario, String password, String motor,
+                        long intervaloMs, long timeoutMs, int fallosParaCaer, int exitosParaSubir) {
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.motor = motor;
+        this.intervaloMs = Math.max(100, intervaloMs);
+        this.timeoutMs = Math.max(100, timeoutMs);
+        this.fallosParaCaer = Math.max(1, fallosParaCaer);
+        this.exitosParaSubir = Math.max(1, exitosParaSubir);
+    }
+
+    /**
+     * Inicia las sondas periódicas (hilo daemon). No hace nada si ya se inició.
+     */
+    public synchronized void iniciar() {
+        if (programador != null) {
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "monitor-salud");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::sondear, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene las sondas periódicas y cierra la conexión de la sonda
+     */
+    public synchronized void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador = null;
+        }
+        if (sondaEnCurso == null || sondaEnCurso.isDone()) {
+            descartarConexion();
+        }
+    }
+
+    /**
+     * Ejecuta una sonda ahora, esperando como máximo el tiempo de sonda
+     * @return true si la base de datos queda DISPONIBLE
+     */
+    public boolean sondear() {
+        long latencia;
+        try {
+            latencia = ejecutarSonda();
+        } catch (SQLException e) {
+            registrarFallo(e.getMessage());
+            return estado == Estado.DISPONIBLE;
+        }
+        registrarExito(latencia);
+        return estado == Estado.DISPONIBLE;
+    }
+
+    public void agregarOyente(Oyente oyente) {
+        oyentes.add(oyente);
+    }
+
+    public void quitarOyente(Oyente oyente) {
+        oyentes.remove(oyente);
+    }
+
+    /**
+     * Estado actual sin esperar a la base de datos
+     */
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * true si las sondas declararon la base de datos caída
+     */
+    public boolean estaCaida() {
+        return estado == Estado.NO_DISPONIBLE;
+    }
+
+    /**
+     * Latencia de la última sonda exitosa en ms (-1 si no hubo ninguna)
+     */
+    public long getUltimaLatenciaMs() {
+        return ultimaLatenciaMs;
+    }
+
+    /**
+     * Latencia promedio móvil de las sondas exitosas en ms (-1 si no hubo ninguna)
+     */
+    public double getLatenciaPromedioMs() {
+        return latenciaPromedioMs;
+    }
+
+    /**
+     * Mensaje del último fallo de sonda, o null
+     */
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Mensaje para las operaciones rechazadas mientras la base de datos está caída
+     */
+    public String describirCaida() {
+        LocalTime desde = caidaDesde;
+        return "Sin conexión con " + motor
+                + (desde != null ? " desde las " + desde.format(FORMATO_HORA) : "")
+                + (ultimoError != null ? " (" + ultimoError + ")" : "")
+                + ". Se reintenta automáticamente cada " + Math.max(1, intervaloMs / 1_000) + " s.";
+    }
+
+    /**
+     * Valida una conexión en un hilo aparte con tiempo máximo
+     * @return Latencia de la validación en ms
+     */
+    private long ejecutarSonda() throws SQLException {
+        Future<Long> sonda;
+        synchronized (this) {
+            if (sondaEnCurso != null && !sondaEnCurso.isDone()) {
+                throw new SQLException("la sonda anterior sigue sin respuesta");
+            }
+            sonda = sondas.submit(this::validar);
+            sondaEnCurso = sonda;
+        }
+
+        try {
+            return sonda.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SQLException("sin respuesta en " + timeoutMs + " ms");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw causa instanceof SQLException ? (SQLException) causa : new SQLException(causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("sonda interrumpida", e);
+        }
+    }
+
+    private long validar() throws SQLException {
+        int segundos = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs));
+        try {
+            if (conexion == null) {
+                conexion = DriverManager.getConnection(url, usuario, password);
+            }
+            long inicio = System.nanoTime();
+            if (!conexion.isValid(segundos)) {
+                throw new SQLException("la conexión no respondió a la validación");
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        } catch (SQLException | RuntimeException e) {
+            descartarConexion();
+            throw e;
+        }
+    }
+
+    private void descartarConexion() {
+        if (conexion != null) {
+            try {
+                conexion.close();
+            } catch (SQLException e) {
+                // La conexión ya estaba rota
+            }
+            conexion = null;
+        }
+    }
+
+    private void registrarExito(long latenciaMs) {
+        Estado nuevo = null;
+        synchronized (this) {
+            ultimaLatenciaMs = latenciaMs;
+            latenciaPromedioMs = latenciaPromedioMs < 0 ? latenciaMs
+                    : latenciaPromedioMs + PESO_LATENCIA * (latenciaMs - latenciaPromedioMs);
+            fallosSeguidos = 0;
+            exitosSeguidos++;
+            if (estado != Estado.DISPONIBLE
+                    && (estado == Estado.DESCONOCIDO || exitosSeguidos >= exitosParaSubir)) {
+                nuevo = cambiarEstado(Estado.DISPONIBLE);
+                caidaDesde = null;
+                ultimoError = null;
+            }
+        }
+        if (nuevo != null) {
+            REGISTRO.info("Conexión con " + motor + " disponible (" + latenciaMs + " ms)");
+            avisar(nuevo);
+        }
+    }
+
+    private void registrarFallo(String mensaje) {
+        Estado nuevo = null;
+        synchronized (this) {
+            ultimoError = mensaje;
+            exitosSeguidos = 0;
+            fallosSeguidos++;
+            if (estado != Estado.NO_DISPONIBLE
+                    && (estado == Estado.DESCONOCIDO || fallosSeguidos >= fallosParaCaer)) {
+                nuevo = cambiarEstado(Estado.NO_DISPONIBLE);
+                caidaDesde = LocalTime.now();
+            }
+        }
+        if (nuevo != null) {
+            REGISTRO.warning("Base de datos " + motor + " no disponible: " + mensaje);
+            avisar(nuevo);
+        }
+    }
+
+    private Estado cambiarEstado(Estado nuevo) {
+        estado = nuevo;
+        return nuevo;
+    }
+
+    private void avisar(Estado nuevo) {
+        for (Oyente oyente : oyentes) {
+            try {
+                oyente.estadoCambiado(nuevo, this);
+            } catch (RuntimeException e) {
+                REGISTRO.log(Level.WARNING, "Error en oyente del monitor de salud: " + e.getMessage(), e);
+            }
+        }
+    }
+}
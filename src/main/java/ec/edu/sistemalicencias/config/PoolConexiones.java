@@ -0,0 +1,437 @@
+package ec.edu.sistemalicencias.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Reutiliza conexiones físicas para evitar el handshake TCP + TLS + autenticación
+ * en cada consulta de los DAOs.
+ *
+ * Características:
+ * - Tamaño mínimo y máximo de conexiones físicas
+ * - Tiempo máximo de espera al solicitar una conexión
+ * - Desalojo de conexiones inactivas por encima del mínimo
+ * - Validación al prestar si la conexión estuvo inactiva
+ * - Detección de fugas con la traza de quien tomó la conexión
+ * - Caché de sentencias preparadas por conexión física
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class PoolConexiones {
+
+    // Parámetros de conexión
+    private final String url;
+    private final String usuario;
+    private final String password;
+
+    // Parámetros del pool
+    private final int tamanoMinimo;
+    private final int tamanoMaximo;
+    private final long tiempoEsperaMs;
+    private final long tiempoInactividadMs;
+    private final long validacionTrasMs;
+    private final long umbralFugaMs;
+    private final int capacidadCacheSentencias;
+
+    // Estado del pool (protegido por candado)
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition disponible = candado.newCondition();
+    private final Deque<ConexionAgrupada> libres = new ArrayDeque<>();
+    private final Set<ConexionAgrupada> prestadas = new LinkedHashSet<>();
+    private int total;
+    private boolean cerrado;
+    private ScheduledExecutorService mantenimiento;
+
+    /**
+     * Constructor del pool. No abre conexiones hasta el primer préstamo
+     * o hasta llamar a {@link #precalentar()}, ni desaloja conexiones
+     * hasta llamar a {@link #iniciar()}.
+     * @param url URL JDBC
+     * @param usuario Usuario de la base de datos
+     * @param password Contraseña
+     * @param tamanoMinimo Conexiones físicas que se mantienen abiertas
+     * @param tamanoMaximo Máximo de conexiones físicas simultáneas
+     * @param tiempoEsperaMs Espera máxima para obtener una conexión
+     * @param tiempoInactividadMs Inactividad tras la cual se cierra una conexión sobrante
+     * @param validacionTrasMs Inactividad a partir de la cual se valida al prestar (0 = siempre)
+     * @param umbralFugaMs Tiempo prestada tras el cual se reporta una posible fuga (0 = desactivado)
+     * @param capacidadCacheSentencias Sentencias preparadas cacheadas por conexión (0 = desactivado)
+     */
+    public PoolConexiones(String url, String usuario, String password,
+                          int tamanoMinimo, int tamanoMaximo,
+                          long tiempoEsperaMs, long tiempoInactividadMs,
+                          long validacionTrasMs, long umbralFugaMs,
+                          int capacidadCacheSentencias) {
+        if (tamanoMaximo < 1 || tamanoMinimo < 0 || tamanoMinimo > tamanoMaximo) {
+            throw new IllegalArgumentException(
+                    "Tamaños de pool inválidos: mínimo=" + tamanoMinimo + ", máximo=" + tamanoMaximo);
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.tamanoMinimo = tamanoMinimo;
+        this.tamanoMaximo = tamanoMaximo;
+        this.tiempoEsperaMs = tiempoEsperaMs;
+        this.tiempoInactividadMs = tiempoInactividadMs;
+        this.validacionTrasMs = validacionTrasMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.capacidadCacheSentencias = capacidadCacheSentencias;
+    }
+
+    /**
+     * Inicia el mantenimiento periódico (hilo daemon): desalojo de inactivas,
+     * reposición del mínimo y aviso de fugas. No hace nada si ya se inició
+     * o si el pool está cerrado.
+     */
+    public void iniciar() {
+        candado.lock();
+        try {
+            if (cerrado || mantenimiento != null) {
+                return;
+            }
+            mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "pool-conexiones-mantenimiento");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            long referencia = umbralFugaMs > 0 ? Math.min(tiempoInactividadMs, umbralFugaMs) : tiempoInactividadMs;
+            long periodo = Math.max(1000, Math.min(referencia, 30_000) / 2);
+            mantenimiento.scheduleWithFixedDelay(this::ejecutarMantenimiento, periodo, periodo, TimeUnit.MILLISECONDS);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Presta una conexión del pool. Al cerrarla se devuelve al pool.
+     * @return Conexión lógica lista para usar
+     * @throws SQLException Si se agota el tiempo de espera o no se puede conectar
+     */
+    public Connection obtener() throws SQLException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoEsperaMs);
+
+        while (true) {
+            ConexionAgrupada candidata = null;
+            boolean crearNueva = false;
+
+            candado.lock();
+            try {
+                while (candidata == null && !crearNueva) {
+                    if (cerrado) {
+                        throw new SQLException("El pool de conexiones está cerrado");
+                    }
+                    candidata = libres.pollFirst();
+                    if (candidata == null) {
+                        if (total < tamanoMaximo) {
+                            total++;
+                            crearNueva = true;
+                        } else {
+                            long restante = limite - System.nanoTime();
+                            if (restante <= 0) {
+                                throw new SQLException(
+                                        "Tiempo de espera agotado (" + tiempoEsperaMs + " ms) para obtener una conexión. " +
+                                                "Conexiones en uso: " + prestadas.size() + "/" + tamanoMaximo, "08001");
+                            }
+                            disponible.awaitNanos(restante);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido mientras esperaba una conexión", e);
+            } finally {
+                candado.unlock();
+            }
+
+            if (crearNueva) {
+                try {
+                    candidata = new ConexionAgrupada(this, crearConexionFisica(), capacidadCacheSentencias);
+                } catch (SQLException e) {
+                    descontar();
+                    throw e;
+                }
+            } else if (!validarAlPrestar(candidata)) {
+                descartar(candidata);
+                continue;
+            }
+
+            candado.lock();
+            try {
+                prestadas.add(candidata);
+            } finally {
+                candado.unlock();
+            }
+            return candidata.prestar(umbralFugaMs > 0);
+        }
+    }
+
+    /**
+     * Abre las conexiones mínimas por adelantado para que el primer
+     * préstamo no pague el costo del handshake.
+     */
+    public void precalentar() {
+        rellenarMinimo();
+    }
+
+    /**
+     * Cierra todas las conexiones libres y marca el pool como cerrado.
+     * Las conexiones prestadas se cierran al ser devueltas.
+     */
+    public void cerrar() {
+        List<ConexionAgrupada> aCerrar;
+        ScheduledExecutorService programado;
+        candado.lock();
+        try {
+            cerrado = true;
+            aCerrar = new ArrayList<>(libres);
+            total -= libres.size();
+            libres.clear();
+            disponible.signalAll();
+            programado = mantenimiento;
+            mantenimiento = null;
+        } finally {
+            candado.unlock();
+        }
+        if (programado != null) {
+            programado.shutdownNow();
+        }
+        aCerrar.forEach(ConexionAgrupada::cerrarFisica);
+    }
+
+    /**
+     * Recibe una conexión devuelta por su conexión lógica
+     * @param conexion Conexión agrupada que vuelve al pool
+     */
+    void devolver(ConexionAgrupada conexion) {
+        boolean reutilizable = conexion.restablecer();
+
+        candado.lock();
+        try {
+            prestadas.remove(conexion);
+            if (reutilizable && !cerrado) {
+                libres.addFirst(conexion);
+                disponible.signal();
+                return;
+            }
+            total--;
+            disponible.signal();
+        } finally {
+            candado.unlock();
+        }
+        conexion.cerrarFisica();
+    }
+
+    /**
+     * Crea una nueva conexión física con el driver
+     */
+    private Connection crearConexionFisica() throws SQLException {
+        Connection fisica = DriverManager.getConnection(url, usuario, password);
+        fisica.setAutoCommit(true);
+        return fisica;
+    }
+
+    /**
+     * Valida la conexión solo si estuvo inactiva más del umbral configurado
+     */
+    private boolean validarAlPrestar(ConexionAgrupada conexion) {
+        if (System.currentTimeMillis() - conexion.getUltimoUso() < validacionTrasMs) {
+            return true;
+        }
+        try {
+            return conexion.getFisica().isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void descartar(ConexionAgrupada conexion) {
+        descontar();
+        conexion.cerrarFisica();
+    }
+
+    private void descontar() {
+        candado.lock();
+        try {
+            total--;
+            disponible.signal();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Tarea periódica: desaloja inactivas, repone el mínimo y reporta fugas
+     */
+    private void ejecutarMantenimiento() {
+        try {
+            desalojarInactivas();
+            rellenarMinimo();
+            detectarFugas();
+        } catch (RuntimeException e) {
+            System.err.println("Error en mantenimiento del pool: " + e.getMessage());
+        }
+    }
+
+    private void desalojarInactivas() {
+        List<ConexionAgrupada> desalojadas = new ArrayList<>();
+        long ahora = System.currentTimeMillis();
+
+        candado.lock();
+        try {
+            // Las menos usadas recientemente están al final de la cola
+            Iterator<ConexionAgrupada> it = libres.descendingIterator();
+            while (it.hasNext() && total > tamanoMinimo) {
+                ConexionAgrupada conexion = it.next();
+                if (ahora - conexion.getUltimoUso() >= tiempoInactividadMs) {
+                    it.remove();
+                    total--;
+                    desalojadas.add(conexion);
+                }
+            }
+        } finally {
+            candado.unlock();
+        }
+        desalojadas.forEach(ConexionAgrupada::cerrarFisica);
+    }
+
+    private void rellenarMinimo() {
+        int faltantes;
+        candado.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            faltantes = Math.max(0, tamanoMinimo - total);
+            total += faltantes;
+        } finally {
+            candado.unlock();
+        }
+
+        for (int i = 0; i < faltantes; i++) {
+            try {
+                ConexionAgrupada nueva = new ConexionAgrupada(this, crearConexionFisica(), capacidadCacheSentencias);
+                candado.lock();
+                try {
+                    if (cerrado) {
+                        total--;
+                        nueva.cerrarFisica();
+                    } else {
+                        libres.addLast(nueva);
+                        disponible.signal();
+                    }
+                } finally {
+                    candado.unlock();
+                }
+            } catch (SQLException e) {
+                // Se reintenta en el siguiente ciclo de mantenimiento
+                for (int j = i; j < faltantes; j++) {
+                    descontar();
+                }
+                System.err.println("No se pudo abrir conexión para el pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectarFugas() {
+        if (umbralFugaMs <= 0) {
+            return;
+        }
+        List<ConexionAgrupada> sospechosas = new ArrayList<>();
+        long ahora = System.currentTimeMillis();
+
+        candado.lock();
+        try {
+            for (ConexionAgrupada conexion : prestadas) {
+                if (ahora - conexion.getInicioPrestamo() >= umbralFugaMs && conexion.marcarFugaReportada()) {
+                    sospechosas.add(conexion);
+                }
+            }
+        } finally {
+            candado.unlock();
+        }
+
+        for (ConexionAgrupada conexion : sospechosas) {
+            Throwable origen = conexion.getOrigenPrestamo();
+            System.err.println("Posible fuga de conexión: prestada hace " +
+                    (ahora - conexion.getInicioPrestamo()) + " ms y no devuelta. Tomada en:");
+            if (origen != null) {
+                origen.printStackTrace();
+            }
+        }
+    }
+
+    // Estadísticas
+
+    public int getConexionesTotales() {
+        candado.lock();
+        try {
+            return total;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public int getConexionesLibres() {
+        candado.lock();
+        try {
+            return libres.size();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public int getConexionesPrestadas() {
+        candado.lock();
+        try {
+            return prestadas.size();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long getAciertosCacheSentencias() {
+        return CacheSentencias.getAciertos();
+    }
+
+    public long getFallosCacheSentencias() {
+        return CacheSentencias.getFallos();
+    }
+
+    public long getDesalojosCacheSentencias() {
+        return CacheSentencias.getDesalojos();
+    }
+
+    /**
+     * Proporción de sentencias servidas desde la caché
+     * @return Valor entre 0 y 1
+     */
+    public double getTasaAciertosCacheSentencias() {
+        long aciertos = CacheSentencias.getAciertos();
+        long totalSolicitudes = aciertos + CacheSentencias.getFallos();
+        return totalSolicitudes == 0 ? 0.0 : (double) aciertos / totalSolicitudes;
+    }
+
+    public int getTamanoMinimo() {
+        return tamanoMinimo;
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+}
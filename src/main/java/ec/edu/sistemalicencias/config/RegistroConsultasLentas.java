@@ -0,0 +1,273 @@
+package ec.edu.sistemalicencias.config;
+
+import ec.edu.sistemalicencias.util.ValidadorCedula;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de consultas lentas.
+ *
+ * Las sentencias medidas por {@link SentenciaMedida} que tardan al menos el
+ * umbral se escriben en un archivo rotativo con la hora, el tiempo, el método
+ * de servicio que las originó y el método de DAO, el SQL y los parámetros
+ * asignados. Las cédulas (10 dígitos seguidos) se enmascaran tanto en los
+ * parámetros como en el SQL.
+ *
+ * En modo depuración (-Dlicencias.depuracion=true) y con PostgreSQL, para
+ * cada SELECT lento se obtiene además el plan con EXPLAIN (ANALYZE, BUFFERS)
+ * en un hilo aparte y se escribe en el mismo archivo con el número de la
+ * entrada. El EXPLAIN vuelve a ejecutar la consulta, así que se hace solo con
+ * SELECT sin bloqueo de filas, dentro de una transacción que se revierte y con
+ * statement_timeout; si llegan más consultas lentas de las que alcanza a
+ * analizar, las sobrantes se quedan sin plan.
+ *
+ * Propiedades del sistema:
+ * - licencias.consultasLentas.umbralMs (1000; 0 desactiva el registro)
+ * - licencias.consultasLentas.archivo (consultas-lentas.%g.log, patrón de FileHandler)
+ * - licencias.consultasLentas.limiteBytes (10 MB por archivo)
+ * - licencias.consultasLentas.archivos (5 archivos en la rotación)
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+final class RegistroConsultasLentas {
+
+    private static final String PAQUETE_APLICACION = "ec.edu.sistemalicencias.";
+    private static final String PAQUETE_CONFIG = "ec.edu.sistemalicencias.config.";
+    private static final String PAQUETE_DAO = "ec.edu.sistemalicencias.dao.";
+
+    private static final Pattern BLOQUEO_FILAS = Pattern.compile(
+            "\\bFOR\\s+(UPDATE|SHARE|NO\\s+KEY\\s+UPDATE|KEY\\s+SHARE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final int LARGO_MAXIMO_VALOR = 200;
+    private static final int PLANES_EN_ESPERA = 16;
+    private static final String TIEMPO_MAXIMO_PLAN = "60s";
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final RegistroConsultasLentas INSTANCIA = new RegistroConsultasLentas(
+            Long.getLong("licencias.consultasLentas.umbralMs", 1_000L),
+            Boolean.getBoolean("licencias.depuracion"));
+
+    private final long umbralNanos;
+    private final boolean capturarPlanes;
+    private final AtomicLong secuencia = new AtomicLong();
+    private final StackWalker pila = StackWalker.getInstance();
+
+    private Logger registro;
+    private boolean registroFallido;
+    private ExecutorService planes;
+    private volatile Thread hiloPlanes;
+
+    private RegistroConsultasLentas(long umbralMs, boolean capturarPlanes) {
+        this.umbralNanos = umbralMs > 0 ? TimeUnit.MILLISECONDS.toNanos(umbralMs) : Long.MAX_VALUE;
+        this.capturarPlanes = capturarPlanes;
+    }
+
+    static RegistroConsultasLentas getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * true si el registro está activo (las sentencias deben guardar sus parámetros)
+     */
+    boolean estaHabilitado() {
+        return umbralNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * true si una ejecución con esta duración debe registrarse
+     */
+    boolean esLenta(long nanos) {
+        return nanos >= umbralNanos;
+    }
+
+    /**
+     * Escribe una sentencia lenta. Se llama desde el hilo que la ejecutó para
+     * poder atribuirla al método de servicio.
+     * @param sql Texto SQL
+     * @param parametros Parámetros asignados por índice (el 0 no se usa), o null
+     * @param filasLote Filas del lote si fue executeBatch (los parámetros son los de la última), o 0
+     * @param nanos Tiempo de ejecución
+     * @param operacion Método de DAO al que se atribuyó la sentencia
+     * @param error Excepción lanzada, o null
+     */
+    void registrar(String sql, List<Object> parametros, int filasLote, long nanos,
+                   String operacion, Throwable error) {
+        // Las sentencias del propio EXPLAIN no se registran
+        if (sql == null || Thread.currentThread() == hiloPlanes) {
+            return;
+        }
+        Logger destino = obtenerRegistro();
+        if (destino == null) {
+            return;
+        }
+
+        long numero = secuencia.incrementAndGet();
+        StringBuilder entrada = new StringBuilder();
+        entrada.append('#').append(numero).append(' ')
+                .append(LocalDateTime.now().format(FORMATO_HORA)).append(" | ")
+                .append(String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0)).append(" | ")
+                .append(metodoServicio()).append(" -> ").append(operacion).append(System.lineSeparator());
+        entrada.append("  SQL: ").append(ValidadorCedula.enmascarar(sql.trim())).append(System.lineSeparator());
+        if (parametros != null && parametros.size() > 1) {
+            entrada.append("  Parámetros:");
+            for (int i = 1; i < parametros.size(); i++) {
+                entrada.append(" [").append(i).append("] ").append(formatearValor(parametros.get(i)));
+            }
+            entrada.append(System.lineSeparator());
+        }
+        if (filasLote > 0) {
+            entrada.append("  Lote: ").append(filasLote).append(" filas (parámetros de la última)")
+                    .append(System.lineSeparator());
+        }
+        if (error != null) {
+            entrada.append("  Error: ").append(ValidadorCedula.enmascarar(String.valueOf(error.getMessage())))
+                    .append(System.lineSeparator());
+        }
+        destino.info(entrada.toString());
+
+        if (capturarPlanes && error == null && filasLote == 0 && admitePlan(sql)) {
+            solicitarPlan(numero, sql, parametros);
+        }
+    }
+
+    private synchronized Logger obtenerRegistro() {
+        if (registro != null || registroFallido) {
+            return registro;
+        }
+        String patron = System.getProperty("licencias.consultasLentas.archivo", "consultas-lentas.%g.log");
+        try {
+            FileHandler archivo = new FileHandler(patron,
+                    Integer.getInteger("licencias.consultasLentas.limiteBytes", 10 * 1024 * 1024),
+                    Integer.getInteger("licencias.consultasLentas.archivos", 5), true);
+            archivo.setEncoding("UTF-8");
+            archivo.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord entrada) {
+                    return entrada.getMessage();
+                }
+            });
+            Logger nuevo = Logger.getLogger("ec.edu.sistemalicencias.consultasLentas");
+            nuevo.setUseParentHandlers(false);
+            nuevo.setLevel(Level.INFO);
+            nuevo.addHandler(archivo);
+            registro = nuevo;
+        } catch (IOException | RuntimeException e) {
+            registroFallido = true;
+            System.err.println("No se pudo abrir el registro de consultas lentas " + patron + ": " + e.getMessage());
+        }
+        return registro;
+    }
+
+    /**
+     * Primer método de la aplicación fuera de la capa DAO y de config
+     * (servicio, controlador o vista) en la pila actual
+     */
+    private String metodoServicio() {
+        return pila.walk(marcos -> marcos
+                .filter(marco -> {
+                    String clase = marco.getClassName();
+                    return clase.startsWith(PAQUETE_APLICACION) && !clase.startsWith(PAQUETE_CONFIG)
+                            && !clase.startsWith(PAQUETE_DAO);
+                })
+                .findFirst()
+                .map(MetricasJdbc::nombreOperacion)
+                .orElse("-"));
+    }
+
+    private static String formatearValor(Object valor) {
+        if (valor == null) {
+            return "null";
+        }
+        String texto = valor instanceof Array ? valor.toString() : String.valueOf(valor);
+        if (texto.length() > LARGO_MAXIMO_VALOR) {
+            texto = texto.substring(0, LARGO_MAXIMO_VALOR) + "...(" + texto.length() + ")";
+        }
+        texto = ValidadorCedula.enmascarar(texto);
+        return valor instanceof CharSequence ? "'" + texto.replace("'", "''") + "'" : texto;
+    }
+
+    private boolean admitePlan(String sql) {
+        String inicio = sql.trim();
+        return inicio.regionMatches(true, 0, "SELECT", 0, 6)
+                && !BLOQUEO_FILAS.matcher(sql).find()
+                && DatabaseConfig.getInstance().getDialecto() == Dialecto.POSTGRESQL;
+    }
+
+    private synchronized void solicitarPlan(long numero, String sql, List<Object> parametros) {
+        if (planes == null) {
+            planes = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(PLANES_EN_ESPERA),
+                    tarea -> {
+                        Thread hilo = new Thread(tarea, "consultas-lentas-planes");
+                        hilo.setDaemon(true);
+                        hiloPlanes = hilo;
+                        return hilo;
+                    },
+                    new ThreadPoolExecutor.DiscardPolicy());
+        }
+        planes.execute(() -> capturarPlan(numero, sql, parametros));
+    }
+
+    /**
+     * Ejecuta EXPLAIN (ANALYZE, BUFFERS) con los mismos parámetros en una
+     * transacción de solo lectura que se revierte
+     */
+    private void capturarPlan(long numero, String sql, List<Object> parametros) {
+        StringBuilder plan = new StringBuilder("#").append(numero).append(" Plan:").append(System.lineSeparator());
+        Connection conn = null;
+        try {
+            conn = DatabaseConfig.getInstance().prestarConexion();
+            conn.setAutoCommit(false);
+            try (Statement ajuste = conn.createStatement()) {
+                ajuste.execute("SET TRANSACTION READ ONLY");
+                ajuste.execute("SET LOCAL statement_timeout = '" + TIEMPO_MAXIMO_PLAN + "'");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                if (parametros != null) {
+                    for (int i = 1; i < parametros.size(); i++) {
+                        stmt.setObject(i, parametros.get(i));
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append("    ").append(ValidadorCedula.enmascarar(rs.getString(1)))
+                                .append(System.lineSeparator());
+                    }
+                }
+            }
+            conn.rollback();
+        } catch (Exception e) {
+            plan.append("    No se pudo obtener el plan: ")
+                    .append(ValidadorCedula.enmascarar(String.valueOf(e.getMessage())))
+                    .append(System.lineSeparator());
+        } finally {
+            DatabaseConfig.getInstance().cerrarConexion(conn);
+        }
+
+        Logger destino = obtenerRegistro();
+        if (destino != null) {
+            destino.info(plan.toString());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package ec.edu.sistemalicencias.config;
+
+import ec.edu.sistemalicencias.util.ValidadorCedula;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proxy de una sentencia que registra en {@link MetricaOperacion} la duración
+ * y el resultado de cada execute*, y las filas leídas de sus ResultSet.
+ * Si el {@link RegistroConsultasLentas} está activo guarda también los
+ * parámetros asignados, para escribirlos junto al SQL cuando una ejecución
+ * supera el umbral. Cada ejecución cuenta como una ida a la base de datos del
+ * hilo y, si Java Flight Recorder está grabando, emite un {@link EventoSentenciaJdbc}.
+ * Todo lo demás se delega sin cambios en la sentencia envuelta.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+final class SentenciaMedida implements InvocationHandler {
+
+    private final Statement sentencia;
+    private final String sql;
+    private final MetricaOperacion operacion;
+    private final RegistroConsultasLentas consultasLentas = RegistroConsultasLentas.getInstance();
+
+    // Parámetros por índice (solo con el registro de consultas lentas activo)
+    private List<Object> parametros;
+    private int filasLote;
+
+    private SentenciaMedida(Statement sentencia, String sql, MetricaOperacion operacion) {
+        this.sentencia = sentencia;
+        this.sql = sql;
+        this.operacion = operacion;
+    }
+
+    /**
+     * Envuelve la sentencia conservando su interfaz JDBC más específica
+     */
+    static Statement envolver(Statement sentencia, String sql, MetricaOperacion operacion) {
+        Class<?> interfaz = sentencia instanceof CallableStatement ? CallableStatement.class
+                : sentencia instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                interfaz.getClassLoader(),
+                new Class<?>[]{interfaz},
+                new SentenciaMedida(sentencia, sql, operacion)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+        String nombre = metodo.getName();
+        switch (nombre) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return sentencia.toString();
+            default:
+                break;
+        }
+
+        if (!nombre.startsWith("execute")) {
+            if (consultasLentas.estaHabilitado()) {
+                recordarParametro(nombre, args);
+            }
+            Object resultado = delegar(metodo, args);
+            return "getResultSet".equals(nombre) && resultado != null
+                    ? contarFilas((ResultSet) resultado) : resultado;
+        }
+
+        EventoSentenciaJdbc evento = new EventoSentenciaJdbc();
+        evento.begin();
+        MetricasJdbc.contarIdaBaseDatos();
+        long inicio = System.nanoTime();
+        long filas = 0;
+        Throwable error = null;
+        try {
+            Object resultado = delegar(metodo, args);
+            if (resultado instanceof ResultSet) {
+                return contarFilas((ResultSet) resultado);
+            }
+            filas = filasAfectadas(resultado);
+            operacion.sumarFilas(filas);
+            return resultado;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - inicio;
+            operacion.registrarEjecucion(nanos, error != null);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.operacion = operacion.getNombre();
+                evento.metodo = nombre;
+                evento.sql = ValidadorCedula.enmascarar(
+                        String.valueOf(args != null && args.length > 0 && args[0] instanceof String ? args[0] : sql));
+                evento.filas = filas;
+                evento.error = error != null;
+                evento.commit();
+            }
+            if (consultasLentas.esLenta(nanos)) {
+                // execute(sql) de un Statement simple trae el SQL como argumento
+                String texto = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                // Copia: la sentencia puede reutilizarse mientras se captura el plan
+                consultasLentas.registrar(texto, parametros != null ? new ArrayList<>(parametros) : null,
+                        nombre.equals("executeBatch") ? filasLote : 0, nanos, operacion.getNombre(), error);
+            }
+            if (nombre.equals("executeBatch")) {
+                filasLote = 0;
+            }
+        }
+    }
+
+    /**
+     * Guarda el valor de un setXxx(índice, valor, ...) de PreparedStatement y
+     * sigue los lotes. Los setters por nombre de CallableStatement no se guardan.
+     */
+    private void recordarParametro(String nombre, Object[] args) {
+        if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            int indice = (Integer) args[0];
+            if (parametros == null) {
+                parametros = new ArrayList<>();
+            }
+            while (parametros.size() <= indice) {
+                parametros.add(null);
+            }
+            parametros.set(indice, nombre.equals("setNull") ? null : args[1]);
+        } else if (nombre.equals("clearParameters") && parametros != null) {
+            parametros.clear();
+        } else if (nombre.equals("addBatch")) {
+            filasLote++;
+        } else if (nombre.equals("clearBatch")) {
+            filasLote = 0;
+        }
+    }
+
+    private Object delegar(Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(sentencia, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Filas de executeUpdate / executeBatch (los lotes reescritos informan
+     * SUCCESS_NO_INFO, que no se cuenta)
+     */
+    private static long filasAfectadas(Object resultado) {
+        if (resultado instanceof Integer || resultado instanceof Long) {
+            return ((Number) resultado).longValue();
+        }
+        long total = 0;
+        if (resultado instanceof int[]) {
+            for (int filas : (int[]) resultado) {
+                total += Math.max(0, filas);
+            }
+        } else if (resultado instanceof long[]) {
+            for (long filas : (long[]) resultado) {
+                total += Math.max(0, filas);
+            }
+        }
+        return total;
+    }
+
+    private ResultSet contarFilas(ResultSet resultado) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                new ResultadoContado(resultado)
+        );
+    }
+
+    /**
+     * Proxy de ResultSet que suma a la operación cada next() exitoso
+     */
+    private final class ResultadoContado implements InvocationHandler {
+
+        private final ResultSet resultado;
+
+        ResultadoContado(ResultSet resultado) {
+            this.resultado = resultado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "next":
+                    if (resultado.next()) {
+                        operacion.sumarFilas(1);
+                        return true;
+                    }
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return resultado.toString();
+                default:
+                    break;
+            }
+            try {
+                return metodo.invoke(resultado, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ec.edu.sistemalicencias.config;
+
+import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unidad de trabajo: ejecuta varias llamadas a DAOs sobre una sola conexión
+ * y en una sola transacción.
+ *
+ * Mientras la unidad está activa en el hilo actual,
+ * {@link DatabaseConfig#obtenerConexion()} entrega la conexión de la
+ * transacción envuelta de modo que close(), commit(), rollback() y
+ * setAutoCommit() no tienen efecto; así los DAOs funcionan sin cambios.
+ * La unidad confirma al terminar el trabajo o revierte si lanza una excepción.
+ * Una unidad anidada se une a la transacción ya abierta.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public final class UnidadTrabajo {
+
+    private static final ThreadLocal<UnidadTrabajo> ACTUAL = new ThreadLocal<>();
+
+    private final Connection conexion;
+    private final Connection conexionCompartida;
+    private final List<Runnable> despuesDeConfirmar = new ArrayList<>();
+
+    /**
+     * Trabajo a ejecutar dentro de la transacción
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Trabajo<T> {
+        T ejecutar() throws LicenciaException;
+    }
+
+    private UnidadTrabajo(Connection conexion) {
+        this.conexion = conexion;
+        this.conexionCompartida = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        // La transacción la administra la unidad, no el DAO
+                        case "close":
+                        case "commit":
+                        case "rollback":
+                        case "setAutoCommit":
+                            return null;
+                        case "getAutoCommit":
+                            return false;
+                        case "isClosed":
+                            return conexion.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "UnidadTrabajo[" + conexion + "]";
+                        default:
+                            try {
+                                return metodo.invoke(conexion, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                }
+        );
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción. Si ya hay una unidad activa en
+     * el hilo, el trabajo se une a ella.
+     * @param trabajo Llamadas a DAOs que deben ser atómicas
+     * @return Resultado del trabajo
+     * @throws LicenciaException La excepción del trabajo (tras revertir) o
+     *                           BaseDatosException si falla la confirmación
+     */
+    public static <T> T ejecutar(Trabajo<T> trabajo) throws LicenciaException {
+        if (ACTUAL.get() != null) {
+            return trabajo.ejecutar();
+        }
+
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+        Connection conn = dbConfig.prestarConexion();
+        UnidadTrabajo unidad = new UnidadTrabajo(conn);
+        T resultado;
+
+        try {
+            conn.setAutoCommit(false);
+            ACTUAL.set(unidad);
+
+            resultado = trabajo.ejecutar();
+
+            conn.commit();
+
+        } catch (SQLException e) {
+            unidad.revertir();
+            throw new BaseDatosException("Error en la transacción: " + e.getMessage(), e);
+        } catch (LicenciaException | RuntimeException | Error e) {
+            unidad.revertir();
+            throw e;
+        } finally {
+            ACTUAL.remove();
+            dbConfig.cerrarConexion(conn);
+        }
+
+        unidad.ejecutarDespuesDeConfirmar();
+        return resultado;
+    }
+
+    /**
+     * Registra una acción para ejecutar cuando la transacción se confirme
+     * (por ejemplo, actualizar cachés). Si no hay unidad activa la acción
+     * se ejecuta de inmediato. Si la transacción se revierte, se descarta.
+     * @param accion Acción a ejecutar
+     */
+    public static void despuesDeConfirmar(Runnable accion) {
+        UnidadTrabajo unidad = ACTUAL.get();
+        if (unidad == null) {
+            accion.run();
+        } else {
+            unidad.despuesDeConfirmar.add(accion);
+        }
+    }
+
+    /**
+     * Indica si el hilo actual está dentro de una unidad de trabajo
+     * @return true si hay una transacción abierta
+     */
+    public static boolean estaActiva() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Conexión de la unidad activa para DatabaseConfig
+     * @return Conexión compartida o null si no hay unidad activa
+     */
+    static Connection conexionActual() {
+        UnidadTrabajo unidad = ACTUAL.get();
+        return unidad != null ? unidad.conexionCompartida : null;
+    }
+
+    private void revertir() {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error al revertir transacción: " + e.getMessage());
+        }
+    }
+
+    private void ejecutarDespuesDeConfirmar() {
+        for (Runnable accion : despuesDeConfirmar) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error en acción posterior a la transacción: " + e.getMessage());
+            }
+        }
+    }
+}
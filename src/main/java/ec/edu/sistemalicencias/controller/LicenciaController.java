@@ -3,16 +3,22 @@ package ec.edu.sistemalicencias.controller;
 import com.itextpdf.text.DocumentException;
 import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
 import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
 import ec.edu.sistemalicencias.model.entities.Licencia;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
 import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
 import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.service.ExportadorLicencias;
 import ec.edu.sistemalicencias.service.LicenciaService;
+import ec.edu.sistemalicencias.service.LicenciaServiceAsync;
 import ec.edu.sistemalicencias.util.PDFGenerator;
 
 import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador principal del patrón MVC.
@@ -26,12 +32,14 @@ public class LicenciaController {
 
     // Servicio de negocio (capa de modelo)
     private final LicenciaService licenciaService;
+    private final LicenciaServiceAsync licenciaServiceAsync;
 
     /**
      * Constructor que inicializa el servicio
      */
     public LicenciaController() {
         this.licenciaService = new LicenciaService();
+        this.licenciaServiceAsync = new LicenciaServiceAsync(licenciaService);
     }
 
     /**
@@ -133,6 +141,17 @@ public class LicenciaController {
         return licenciaService.buscarConductoresPorNombre(nombre);
     }
 
+    /**
+     * Busca conductores cuyos apellidos o nombres empiezan con el texto,
+     * sin distinguir tildes ni mayúsculas
+     * @param texto Inicio de los apellidos o de los nombres
+     * @return Lista de conductores
+     * @throws LicenciaException Si hay errores
+     */
+    public List<Conductor> buscarConductoresPorPrefijo(String texto) throws LicenciaException {
+        return licenciaService.buscarConductoresPorPrefijo(texto);
+    }
+
     /**
      * Obtiene las pruebas psicométricas de un conductor
      * @param conductorId ID del conductor
@@ -182,6 +201,25 @@ public class LicenciaController {
         return licenciaService.obtenerTodasLicencias();
     }
 
+    /**
+     * Obtiene el listado de licencias con nombre y cédula del conductor
+     * @return Lista de filas de listado
+     * @throws LicenciaException Si hay errores
+     */
+    public List<LicenciaListado> obtenerListadoLicencias() throws LicenciaException {
+        return licenciaService.obtenerListadoLicencias();
+    }
+
+    /**
+     * Busca licencias por número o por cédula del conductor
+     * @param criterio Número de licencia o cédula
+     * @return Lista de filas de listado
+     * @throws LicenciaException Si hay errores
+     */
+    public List<LicenciaListado> buscarListadoLicencias(String criterio) throws LicenciaException {
+        return licenciaService.buscarListadoLicencias(criterio);
+    }
+
     /**
      * Obtiene las licencias vigentes
      * @return Lista de licencias vigentes
@@ -209,14 +247,10 @@ public class LicenciaController {
      */
     public boolean generarDocumentoLicencia(Long licenciaId, String rutaArchivo) {
         try {
-            // Buscar licencia por ID
-            List<Licencia> todasLicencias = licenciaService.obtenerTodasLicencias();
-            Licencia licenciaEncontrada = todasLicencias.stream()
-                    .filter(l -> l.getId().equals(licenciaId))
-                    .findFirst()
-                    .orElse(null);
-
-            if (licenciaEncontrada == null) {
+            // Licencia, conductor y prueba en una sola consulta
+            DocumentoLicencia documento = licenciaService.obtenerDocumentoLicencia(licenciaId);
+
+            if (documento == null) {
                 JOptionPane.showMessageDialog(null,
                         "No se encontró la licencia",
                         "Error",
@@ -224,21 +258,9 @@ public class LicenciaController {
                 return false;
             }
 
-            // Usar variable final para la lambda
-            final Licencia licencia = licenciaEncontrada;
-            Conductor conductor = licenciaService.buscarConductorPorId(licencia.getConductorId());
-
-            PruebaPsicometrica prueba = null;
-            if (licencia.getPruebaPsicometricaId() != null) {
-                prueba = licenciaService.obtenerPruebasConductor(conductor.getId())
-                        .stream()
-                        .filter(p -> p.getId().equals(licencia.getPruebaPsicometricaId()))
-                        .findFirst()
-                        .orElse(null);
-            }
-
             // Generar PDF
-            PDFGenerator.generarLicenciaPDF(licencia, conductor, prueba, rutaArchivo);
+            PDFGenerator.generarLicenciaPDF(documento.getLicencia(), documento.getConductor(),
+                    documento.getPrueba(), rutaArchivo);
 
             JOptionPane.showMessageDialog(null,
                     "Documento generado exitosamente en:\n" + rutaArchivo,
@@ -262,6 +284,16 @@ public class LicenciaController {
      * @return true si se generó correctamente
      */
     public boolean generarDocumentoLicenciaConDialogo(Long licenciaId) {
+        String rutaArchivo = seleccionarRutaPDF(licenciaId);
+        return rutaArchivo != null && generarDocumentoLicencia(licenciaId, rutaArchivo);
+    }
+
+    /**
+     * Pide al usuario la ruta donde guardar el PDF de una licencia
+     * @param licenciaId ID de la licencia (para el nombre sugerido)
+     * @return Ruta con extensión .pdf o null si el usuario canceló
+     */
+    public String seleccionarRutaPDF(Long licenciaId) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Guardar Licencia PDF");
         fileChooser.setSelectedFile(new File("Licencia_" + licenciaId + ".pdf"));
@@ -273,10 +305,98 @@ public class LicenciaController {
             if (!rutaArchivo.toLowerCase().endsWith(".pdf")) {
                 rutaArchivo += ".pdf";
             }
-            return generarDocumentoLicencia(licenciaId, rutaArchivo);
+            return rutaArchivo;
         }
 
-        return false;
+        return null;
+    }
+
+    // ===== Variantes asíncronas (hilos virtuales) para no bloquear el hilo de eventos =====
+
+    /**
+     * Ejecuta una operación arbitraria en un hilo virtual
+     * @param operacion Operación bloqueante (por ejemplo varias llamadas al controlador)
+     * @return Future con el resultado
+     */
+    public <T> CompletableFuture<T> ejecutarAsync(LicenciaServiceAsync.Operacion<T> operacion) {
+        return licenciaServiceAsync.ejecutar(operacion);
+    }
+
+    public CompletableFuture<Long> registrarConductorAsync(Conductor conductor) {
+        return licenciaServiceAsync.registrarConductor(conductor);
+    }
+
+    public CompletableFuture<Void> actualizarConductorAsync(Conductor conductor) {
+        return licenciaServiceAsync.actualizarConductor(conductor);
+    }
+
+    public CompletableFuture<Long> registrarPruebaPsicometricaAsync(PruebaPsicometrica prueba) {
+        return licenciaServiceAsync.registrarPruebaPsicometrica(prueba);
+    }
+
+    public CompletableFuture<Licencia> emitirLicenciaAsync(Long conductorId, String tipoLicencia,
+                                                           Long pruebaPsicometricaId) {
+        return licenciaServiceAsync.emitirLicencia(conductorId, tipoLicencia, pruebaPsicometricaId);
+    }
+
+    public CompletableFuture<Conductor> buscarConductorPorCedulaAsync(String cedula) {
+        return licenciaServiceAsync.buscarConductorPorCedula(cedula);
+    }
+
+    public CompletableFuture<Conductor> buscarConductorPorIdAsync(Long id) {
+        return licenciaServiceAsync.buscarConductorPorId(id);
+    }
+
+    public CompletableFuture<List<Conductor>> obtenerTodosConductoresAsync() {
+        return licenciaServiceAsync.obtenerTodosConductores();
+    }
+
+    public CompletableFuture<PruebaPsicometrica> obtenerUltimaPruebaAprobadaAsync(Long conductorId) {
+        return licenciaServiceAsync.obtenerUltimaPruebaAprobada(conductorId);
+    }
+
+    public CompletableFuture<List<Licencia>> obtenerLicenciasConductorAsync(Long conductorId) {
+        return licenciaServiceAsync.obtenerLicenciasConductor(conductorId);
+    }
+
+    public CompletableFuture<List<LicenciaListado>> obtenerListadoLicenciasAsync() {
+        return licenciaServiceAsync.obtenerListadoLicencias();
+    }
+
+    public CompletableFuture<List<LicenciaListado>> buscarListadoLicenciasAsync(String criterio) {
+        return licenciaServiceAsync.buscarListadoLicencias(criterio);
+    }
+
+    /**
+     * Genera el PDF de una licencia en segundo plano (consulta + escritura del archivo)
+     * @param licenciaId ID de la licencia
+     * @param rutaArchivo Ruta donde guardar el PDF
+     * @return Future que termina cuando el archivo está escrito
+     */
+    public CompletableFuture<Void> generarDocumentoLicenciaAsync(Long licenciaId, String rutaArchivo) {
+        return licenciaServiceAsync.ejecutar(() -> {
+            DocumentoLicencia documento = licenciaService.obtenerDocumentoLicencia(licenciaId);
+            if (documento == null) {
+                throw new LicenciaException("No se encontró la licencia");
+            }
+            PDFGenerator.generarLicenciaPDF(documento.getLicencia(), documento.getConductor(),
+                    documento.getPrueba(), rutaArchivo);
+            return null;
+        });
+    }
+
+    /**
+     * Exporta a PDF en segundo plano las licencias que cumplen el filtro.
+     * Cancelar el future detiene la exportación y elimina lo generado.
+     * @param filtro Licencias a exportar
+     * @param destino Directorio (un PDF por licencia) o archivo (PDF combinado)
+     * @param combinado true para generar un único PDF
+     * @param progreso Avance (se invoca fuera del hilo de eventos)
+     * @return Future con el número de licencias exportadas
+     */
+    public CompletableFuture<Integer> exportarLicenciasAsync(FiltroLicencias filtro, File destino, boolean combinado,
+                                                             ExportadorLicencias.Progreso progreso) {
+        return licenciaServiceAsync.exportarLicencias(filtro, destino, combinado, progreso);
     }
 
     /**
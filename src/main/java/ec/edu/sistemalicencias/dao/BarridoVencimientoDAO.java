@@ -0,0 +1,153 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DAO del registro de barridos de vencimiento (tabla barridos_vencimiento).
+ * Hay una fila por fecha de corte con cuántas licencias marcó como vencidas
+ * su último barrido; la mayor fecha de corte de un barrido terminado es la
+ * marca hasta la que la columna vencida está al día.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class BarridoVencimientoDAO {
+
+    private static final List<String> COLUMNAS = List.of("fecha_corte", "inicio", "fin", "filas_actualizadas");
+
+    private final DatabaseConfig dbConfig;
+
+    /**
+     * Constructor
+     */
+    public BarridoVencimientoDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Obtiene la fecha actual del servidor de base de datos, que es la que
+     * usan las consultas con CURRENT_DATE
+     * @return Fecha actual
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public LocalDate obtenerFechaActual() throws BaseDatosException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement("SELECT " + dbConfig.getDialecto().fechaActual());
+            rs = stmt.executeQuery();
+            rs.next();
+            return rs.getDate(1).toLocalDate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al obtener la fecha actual: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Obtiene la fecha de corte del último barrido terminado
+     * @return Fecha de corte, o null si nunca se completó un barrido
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public LocalDate obtenerUltimoCorte() throws BaseDatosException {
+        String sql = "SELECT MAX(fecha_corte) FROM barridos_vencimiento WHERE fin IS NOT NULL";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            rs = stmt.executeQuery();
+
+            Date fecha = rs.next() ? rs.getDate(1) : null;
+            return fecha != null ? fecha.toLocalDate() : null;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al obtener el último barrido: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Registra el inicio de un barrido. Si ya hubo uno con la misma fecha de
+     * corte (por ejemplo, uno que falló), se reutiliza su fila.
+     * @param fechaCorte Fecha de corte del barrido
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public void registrarInicio(LocalDate fechaCorte) throws BaseDatosException {
+        String sql = dbConfig.getDialecto().insertarOActualizar("barridos_vencimiento", COLUMNAS,
+                List.of("fecha_corte"));
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setDate(1, Date.valueOf(fechaCorte));
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setNull(3, Types.TIMESTAMP);
+            stmt.setInt(4, 0);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al registrar el barrido: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, null);
+        }
+    }
+
+    /**
+     * Marca un barrido como terminado
+     * @param fechaCorte Fecha de corte del barrido
+     * @param filasActualizadas Licencias marcadas como vencidas en el barrido
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public void registrarFin(LocalDate fechaCorte, int filasActualizadas) throws BaseDatosException {
+        String sql = "UPDATE barridos_vencimiento SET fin = CURRENT_TIMESTAMP, filas_actualizadas = ? " +
+                "WHERE fecha_corte = ?";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, filasActualizadas);
+            stmt.setDate(2, Date.valueOf(fechaCorte));
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al registrar el fin del barrido: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, null);
+        }
+    }
+
+    /**
+     * Cierra recursos de base de datos
+     */
+    private void cerrarRecursos(Connection conn, Statement stmt, ResultSet rs) {
+        try {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar recursos: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.model.entities.Conductor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché de lectura de conductores, indexada por ID y por cédula.
+ * Compartida por todas las instancias de {@link ConductorDAO}.
+ *
+ * Características:
+ * - Tamaño máximo con desalojo LRU (licencias.cache.conductores.maximo)
+ * - Expiración por tiempo (licencias.cache.conductores.ttlMs)
+ * - Invalidación al guardar o eliminar, después de confirmar la transacción
+ * - Devuelve copias para que los cambios del llamador no contaminen la caché
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class CacheConductores {
+
+    private static CacheConductores instancia;
+
+    private final int maximo;
+    private final long ttlMs;
+
+    // accessOrder = true: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Long, Entrada> porId = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Long> idPorCedula = new HashMap<>();
+
+    // Aumenta en cada invalidación; una lectura iniciada antes no puede poblar la caché
+    private long generacion;
+
+    // Estadísticas
+    private long aciertos;
+    private long fallos;
+    private long desalojosTamano;
+    private long desalojosExpiracion;
+    private long invalidaciones;
+
+    private CacheConductores(int maximo, long ttlMs) {
+        this.maximo = maximo;
+        this.ttlMs = ttlMs;
+    }
+
+    public static synchronized CacheConductores getInstance() {
+        if (instancia == null) {
+            instancia = new CacheConductores(
+                    Integer.getInteger("licencias.cache.conductores.maximo", 1000),
+                    Long.getLong("licencias.cache.conductores.ttlMs", 300_000L));
+        }
+        return instancia;
+    }
+
+    /**
+     * Busca un conductor por ID
+     * @param id ID del conductor
+     * @return Copia del conductor o null si no está en caché
+     */
+    synchronized Conductor obtenerPorId(Long id) {
+        Entrada entrada = porId.get(id);
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        if (entrada.expirada()) {
+            quitar(id);
+            desalojosExpiracion++;
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return copiar(entrada.conductor);
+    }
+
+    /**
+     * Busca un conductor por cédula
+     * @param cedula Número de cédula
+     * @return Copia del conductor o null si no está en caché
+     */
+    synchronized Conductor obtenerPorCedula(String cedula) {
+        Long id = idPorCedula.get(cedula);
+        if (id == null) {
+            fallos++;
+            return null;
+        }
+        return obtenerPorId(id);
+    }
+
+    /**
+     * Marca el inicio de una lectura en la base de datos
+     * @return Generación actual, para pasar a {@link #guardar(Conductor, long)}
+     */
+    synchronized long marcarLectura() {
+        return generacion;
+    }
+
+    /**
+     * Guarda un conductor leído de la base de datos
+     * @param conductor Conductor leído
+     * @param generacionLectura Valor de {@link #marcarLectura()} antes de la consulta;
+     *                          si hubo una invalidación desde entonces, no se guarda
+     */
+    synchronized void guardar(Conductor conductor, long generacionLectura) {
+        if (maximo <= 0 || conductor == null || conductor.getId() == null || generacionLectura != generacion) {
+            return;
+        }
+
+        quitar(conductor.getId());
+        porId.put(conductor.getId(), new Entrada(copiar(conductor), System.currentTimeMillis() + ttlMs));
+        if (conductor.getCedula() != null) {
+            idPorCedula.put(conductor.getCedula(), conductor.getId());
+        }
+
+        Iterator<Map.Entry<Long, Entrada>> it = porId.entrySet().iterator();
+        while (porId.size() > maximo && it.hasNext()) {
+            Entrada desalojada = it.next().getValue();
+            it.remove();
+            idPorCedula.remove(desalojada.conductor.getCedula());
+            desalojosTamano++;
+        }
+    }
+
+    /**
+     * Invalida un conductor modificado o eliminado
+     * @param id ID del conductor
+     */
+    public synchronized void invalidar(Long id) {
+        generacion++;
+        invalidaciones++;
+        quitar(id);
+    }
+
+    /**
+     * Vacía la caché (las estadísticas se conservan)
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        porId.clear();
+        idPorCedula.clear();
+    }
+
+    private void quitar(Long id) {
+        Entrada entrada = porId.remove(id);
+        if (entrada != null && entrada.conductor.getCedula() != null) {
+            idPorCedula.remove(entrada.conductor.getCedula(), id);
+        }
+    }
+
+    private static Conductor copiar(Conductor original) {
+        Conductor copia = new Conductor();
+        copia.setId(original.getId());
+        copia.setCedula(original.getCedula());
+        copia.setNombres(original.getNombres());
+        copia.setApellidos(original.getApellidos());
+        copia.setFechaNacimiento(original.getFechaNacimiento());
+        copia.setDireccion(original.getDireccion());
+        copia.setTelefono(original.getTelefono());
+        copia.setEmail(original.getEmail());
+        copia.setTipoSangre(original.getTipoSangre());
+        copia.setDocumentosValidados(original.isDocumentosValidados());
+        copia.setObservaciones(original.getObservaciones());
+        return copia;
+    }
+
+    // Estadísticas
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Proporción de búsquedas resueltas sin ir a la base de datos
+     * @return Valor entre 0 y 1
+     */
+    public synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+
+    public synchronized long getDesalojosTamano() {
+        return desalojosTamano;
+    }
+
+    public synchronized long getDesalojosExpiracion() {
+        return desalojosExpiracion;
+    }
+
+    public synchronized long getInvalidaciones() {
+        return invalidaciones;
+    }
+
+    public synchronized int getTamano() {
+        return porId.size();
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Conductor cacheado y su instante de expiración
+     */
+    private static class Entrada {
+
+        private final Conductor conductor;
+        private final long expiraEn;
+
+        Entrada(Conductor conductor, long expiraEn) {
+            this.conductor = conductor;
+            this.expiraEn = expiraEn;
+        }
+
+        boolean expirada() {
+            return System.currentTimeMillis() >= expiraEn;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.config.Dialecto;
+import ec.edu.sistemalicencias.config.UnidadTrabajo;
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
+import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.util.EscritorCSV;
+import ec.edu.sistemalicencias.util.NormalizadorTexto;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Carga masiva de conductores y pruebas psicométricas con COPY de PostgreSQL.
+ *
+ * Los registros se envían como CSV por el protocolo COPY a una tabla temporal
+ * y luego se pasan a la tabla real con un solo INSERT ... SELECT que resuelve
+ * los conflictos; todo en una transacción, así que un error o una cancelación
+ * (interrumpiendo el hilo) no deja filas a medias. Cada registro se identifica
+ * por su posición en la entrada (desde 0) para informar los omitidos.
+ *
+ * Solo funciona con PostgreSQL; en otros motores se usan los lotes JDBC de
+ * los DAOs.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class CargaMasivaDAO {
+
+    /**
+     * Qué hacer con un conductor cuya cédula ya está registrada
+     */
+    public enum Conflicto { OMITIR, ACTUALIZAR }
+
+    /**
+     * Totales de una carga
+     */
+    public static class Resultado {
+
+        private int leidas;
+        private int insertadas;
+        private int actualizadas;
+        private long nanos;
+
+        public int getLeidas() {
+            return leidas;
+        }
+
+        public int getInsertadas() {
+            return insertadas;
+        }
+
+        public int getActualizadas() {
+            return actualizadas;
+        }
+
+        /**
+         * Registros descartados: repetidos en la entrada o en conflicto con la tabla
+         */
+        public int getOmitidas() {
+            return leidas - insertadas - actualizadas;
+        }
+
+        public double getFilasPorSegundo() {
+            return nanos > 0 ? leidas * 1_000_000_000.0 / nanos : 0;
+        }
+    }
+
+    private static final String TABLA_CONDUCTORES = "carga_conductores";
+    private static final String TABLA_PRUEBAS = "carga_pruebas";
+
+    private static final String COLUMNAS_CONDUCTORES = "cedula, nombres, apellidos, fecha_nacimiento, " +
+            "direccion, telefono, email, tipo_sangre, documentos_validados, observaciones, " +
+            "nombres_busqueda, apellidos_busqueda";
+
+    private static final String COLUMNAS_PRUEBAS = "conductor_id, fecha_realizacion, nota_reaccion, " +
+            "nota_atencion, nota_coordinacion, nota_percepcion, nota_psicologica, observaciones";
+
+    private static final String SQL_TEMPORAL_CONDUCTORES = "CREATE TEMP TABLE " + TABLA_CONDUCTORES + " (" +
+            "posicion INTEGER, cedula VARCHAR(10), nombres VARCHAR(100), apellidos VARCHAR(100), " +
+            "fecha_nacimiento DATE, direccion VARCHAR(200), telefono VARCHAR(10), email VARCHAR(100), " +
+            "tipo_sangre VARCHAR(5), documentos_validados BOOLEAN, observaciones TEXT, " +
+            "nombres_busqueda VARCHAR(100), apellidos_busqueda VARCHAR(100)) ON COMMIT DROP";
+
+    private static final String SQL_TEMPORAL_PRUEBAS = "CREATE TEMP TABLE " + TABLA_PRUEBAS + " (" +
+            "posicion INTEGER, conductor_id INTEGER, fecha_realizacion TIMESTAMP, " +
+            "nota_reaccion DECIMAL(5,2), nota_atencion DECIMAL(5,2), nota_coordinacion DECIMAL(5,2), " +
+            "nota_percepcion DECIMAL(5,2), nota_psicologica DECIMAL(5,2), observaciones TEXT) ON COMMIT DROP";
+
+    // Sin FORCE_NOT_NULL un campo vacío llega como NULL; estas columnas nunca son nulas
+    private static final String SQL_COPIA_CONDUCTORES = "COPY " + TABLA_CONDUCTORES + " (posicion, " +
+            COLUMNAS_CONDUCTORES + ") FROM STDIN WITH (FORMAT csv, " +
+            "FORCE_NOT_NULL (cedula, nombres, apellidos, nombres_busqueda, apellidos_busqueda))";
+
+    private static final String SQL_COPIA_PRUEBAS = "COPY " + TABLA_PRUEBAS + " (posicion, " +
+            COLUMNAS_PRUEBAS + ") FROM STDIN WITH (FORMAT csv)";
+
+    // De cada cédula repetida en la entrada queda la primera; devuelve la posición de cada fila guardada
+    private static final String SQL_MEZCLA_CONDUCTORES = "WITH elegidas AS (" +
+            "SELECT DISTINCT ON (cedula) * FROM " + TABLA_CONDUCTORES + " ORDER BY cedula, posicion), " +
+            "guardadas AS (INSERT INTO conductores (" + COLUMNAS_CONDUCTORES + ") " +
+            "SELECT " + COLUMNAS_CONDUCTORES + " FROM elegidas ON CONFLICT (cedula) %s " +
+            "RETURNING id, cedula, nombres, apellidos, xmax = 0 AS nueva) " +
+            "SELECT e.posicion, g.nueva, g.id, g.nombres, g.apellidos " +
+            "FROM guardadas g JOIN elegidas e ON e.cedula = g.cedula";
+
+    private static final String SQL_ACTUALIZAR_EXISTENTES = "DO UPDATE SET nombres = EXCLUDED.nombres, " +
+            "apellidos = EXCLUDED.apellidos, fecha_nacimiento = EXCLUDED.fecha_nacimiento, " +
+            "direccion = EXCLUDED.direccion, telefono = EXCLUDED.telefono, email = EXCLUDED.email, " +
+            "tipo_sangre = EXCLUDED.tipo_sangre, documentos_validados = EXCLUDED.documentos_validados, " +
+            "observaciones = EXCLUDED.observaciones, nombres_busqueda = EXCLUDED.nombres_busqueda, " +
+            "apellidos_busqueda = EXCLUDED.apellidos_busqueda";
+
+    // Se omiten las pruebas de conductores inexistentes y las ya registradas
+    // (mismo conductor y fecha de realización), para poder repetir una carga
+    private static final String SQL_MEZCLA_PRUEBAS = "WITH elegidas AS (" +
+            "SELECT DISTINCT ON (conductor_id, fecha_realizacion) * FROM " + TABLA_PRUEBAS + " s " +
+            "WHERE EXISTS (SELECT 1 FROM conductores c WHERE c.id = s.conductor_id) " +
+            "ORDER BY conductor_id, fecha_realizacion, posicion), " +
+            "guardadas AS (INSERT INTO pruebas_psicometricas (" + COLUMNAS_PRUEBAS + ") " +
+            "SELECT " + COLUMNAS_PRUEBAS + " FROM elegidas e WHERE NOT EXISTS (" +
+            "SELECT 1 FROM pruebas_psicometricas p " +
+            "WHERE p.conductor_id = e.conductor_id AND p.fecha_realizacion = e.fecha_realizacion) " +
+            "RETURNING conductor_id, fecha_realizacion) " +
+            "SELECT e.posicion FROM guardadas g JOIN elegidas e " +
+            "ON e.conductor_id = g.conductor_id AND e.fecha_realizacion = g.fecha_realizacion";
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int INTERVALO_CANCELACION = 10_000;
+
+    // Por encima de estas filas se recarga el índice de nombres completo en lugar de actualizarlo fila a fila
+    private static final int MAXIMO_INDEXACION = 100_000;
+
+    /**
+     * Convierte un registro en los campos CSV de la tabla temporal
+     */
+    @FunctionalInterface
+    private interface Conversor<T> {
+        String[] campos(int posicion, T registro);
+    }
+
+    /**
+     * Lee una fila del resultado de la mezcla y devuelve su posición
+     */
+    @FunctionalInterface
+    private interface LectorGuardada {
+        int leer(ResultSet rs, Resultado resultado) throws SQLException;
+    }
+
+    /**
+     * Nombre de un conductor guardado, para el índice de nombres
+     */
+    private static class Guardado {
+        final long id;
+        final String nombres;
+        final String apellidos;
+
+        Guardado(long id, String nombres, String apellidos) {
+            this.id = id;
+            this.nombres = nombres;
+            this.apellidos = apellidos;
+        }
+    }
+
+    private final DatabaseConfig dbConfig;
+    private final CacheConductores cache;
+    private final IndiceTrigramas indiceNombres;
+
+    /**
+     * Constructor
+     */
+    public CargaMasivaDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+        this.cache = CacheConductores.getInstance();
+        this.indiceNombres = IndiceTrigramas.getInstance();
+    }
+
+    /**
+     * Indica si la base de datos admite la carga con COPY
+     * @return true con PostgreSQL
+     */
+    public boolean estaDisponible() {
+        return dbConfig.getDialecto() == Dialecto.POSTGRESQL;
+    }
+
+    /**
+     * Carga conductores. Los registros deben venir validados. No se asignan
+     * los IDs generados a los objetos.
+     * @param conductores Conductores a cargar (se recorren una sola vez)
+     * @param conflicto Qué hacer con las cédulas ya registradas
+     * @param omitidas Recibe la posición de cada registro descartado, o null
+     * @return Totales de la carga
+     * @throws BaseDatosException Si falla la carga (no se guarda ningún registro)
+     */
+    public Resultado cargarConductores(Iterator<Conductor> conductores, Conflicto conflicto, IntConsumer omitidas)
+            throws BaseDatosException {
+        List<Guardado> indexar = new ArrayList<>();
+        List<Long> actualizados = new ArrayList<>();
+
+        String sqlMezcla = String.format(SQL_MEZCLA_CONDUCTORES,
+                conflicto == Conflicto.ACTUALIZAR ? SQL_ACTUALIZAR_EXISTENTES : "DO NOTHING");
+
+        Resultado resultado = cargar("conductores", SQL_TEMPORAL_CONDUCTORES, TABLA_CONDUCTORES,
+                SQL_COPIA_CONDUCTORES, conductores, CargaMasivaDAO::camposConductor, sqlMezcla,
+                (rs, parcial) -> {
+                    long id = rs.getLong(3);
+                    if (rs.getBoolean(2)) {
+                        parcial.insertadas++;
+                    } else {
+                        parcial.actualizadas++;
+                        actualizados.add(id);
+                    }
+                    if (indexar.size() < MAXIMO_INDEXACION && indiceNombres.estaHabilitado()) {
+                        indexar.add(new Guardado(id, rs.getString(4), rs.getString(5)));
+                    }
+                    return rs.getInt(1);
+                }, omitidas);
+
+        int guardadas = resultado.insertadas + resultado.actualizadas;
+        if (guardadas > 0) {
+            UnidadTrabajo.despuesDeConfirmar(() -> {
+                if (guardadas > MAXIMO_INDEXACION) {
+                    cache.limpiar();
+                    recargarIndiceNombres();
+                } else {
+                    actualizados.forEach(cache::invalidar);
+                    for (Guardado guardado : indexar) {
+                        indiceNombres.actualizar(guardado.id, guardado.nombres, guardado.apellidos);
+                    }
+                }
+            });
+        }
+        return resultado;
+    }
+
+    /**
+     * Carga pruebas psicométricas. Se omiten las de conductores inexistentes y
+     * las que ya están registradas con el mismo conductor y fecha de realización.
+     * @param pruebas Pruebas a cargar (se recorren una sola vez)
+     * @param omitidas Recibe la posición de cada registro descartado, o null
+     * @return Totales de la carga
+     * @throws BaseDatosException Si falla la carga (no se guarda ningún registro)
+     */
+    public Resultado cargarPruebas(Iterator<PruebaPsicometrica> pruebas, IntConsumer omitidas)
+            throws BaseDatosException {
+        return cargar("pruebas psicométricas", SQL_TEMPORAL_PRUEBAS, TABLA_PRUEBAS, SQL_COPIA_PRUEBAS,
+                pruebas, CargaMasivaDAO::camposPrueba, SQL_MEZCLA_PRUEBAS,
+                (rs, parcial) -> {
+                    parcial.insertadas++;
+                    return rs.getInt(1);
+                }, omitidas);
+    }
+
+    /**
+     * Crea la tabla temporal, copia los registros, mezcla y confirma
+     */
+    private <T> Resultado cargar(String descripcion, String sqlTemporal, String tabla, String sqlCopia,
+                                 Iterator<T> registros, Conversor<T> conversor, String sqlMezcla,
+                                 LectorGuardada lector, IntConsumer omitidas) throws BaseDatosException {
+        if (!estaDisponible()) {
+            throw new BaseDatosException("La carga masiva con COPY requiere PostgreSQL");
+        }
+
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado();
+        BitSet guardadas = new BitSet();
+        Connection conn = null;
+        Statement stmt = null;
+        PreparedStatement stmtMezcla = null;
+        ResultSet rs = null;
+        PGCopyOutputStream copia = null;
+        boolean confirmada = false;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            conn.setAutoCommit(false);
+            stmt = conn.createStatement();
+            stmt.execute(sqlTemporal);
+
+            copia = new PGCopyOutputStream(conn.unwrap(PGConnection.class), sqlCopia, TAMANO_BUFFER);
+            EscritorCSV csv = new EscritorCSV(new BufferedWriter(
+                    new OutputStreamWriter(copia, StandardCharsets.UTF_8), TAMANO_BUFFER), ',');
+            while (registros.hasNext()) {
+                csv.escribir(conversor.campos(resultado.leidas, registros.next()));
+                if (++resultado.leidas % INTERVALO_CANCELACION == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new BaseDatosException("Carga masiva de " + descripcion + " cancelada");
+                }
+            }
+            // Cerrar el escritor termina el COPY
+            csv.close();
+            copia = null;
+
+            // Las tablas temporales no tienen estadísticas automáticas
+            stmt.execute("ANALYZE " + tabla);
+
+            stmtMezcla = conn.prepareStatement(sqlMezcla);
+            stmtMezcla.setFetchSize(dbConfig.getTamanoFetch());
+            rs = stmtMezcla.executeQuery();
+            while (rs.next()) {
+                guardadas.set(lector.leer(rs, resultado));
+            }
+            rs.close();
+            rs = null;
+
+            stmt.execute("DROP TABLE " + tabla);
+            conn.commit();
+            confirmada = true;
+            resultado.nanos = System.nanoTime() - inicio;
+
+        } catch (SQLException | IOException e) {
+            throw new BaseDatosException("Error en la carga masiva de " + descripcion + ": " + e.getMessage(), e);
+        } finally {
+            cancelarCopia(copia);
+            if (!confirmada) {
+                revertir(conn);
+            }
+            cerrarRecursos(null, stmtMezcla, rs);
+            cerrarRecursos(null, stmt, null);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+
+        if (omitidas != null) {
+            for (int posicion = guardadas.nextClearBit(0); posicion < resultado.leidas;
+                 posicion = guardadas.nextClearBit(posicion + 1)) {
+                omitidas.accept(posicion);
+            }
+        }
+        return resultado;
+    }
+
+    private static String[] camposConductor(int posicion, Conductor conductor) {
+        return new String[]{
+                String.valueOf(posicion),
+                conductor.getCedula(),
+                conductor.getNombres(),
+                conductor.getApellidos(),
+                String.valueOf(conductor.getFechaNacimiento()),
+                conductor.getDireccion(),
+                conductor.getTelefono(),
+                conductor.getEmail(),
+                conductor.getTipoSangre(),
+                String.valueOf(conductor.isDocumentosValidados()),
+                conductor.getObservaciones(),
+                NormalizadorTexto.normalizar(conductor.getNombres()),
+                NormalizadorTexto.normalizar(conductor.getApellidos())
+        };
+    }
+
+    private static String[] camposPrueba(int posicion, PruebaPsicometrica prueba) {
+        return new String[]{
+                String.valueOf(posicion),
+                String.valueOf(prueba.getConductorId()),
+                String.valueOf(prueba.getFechaRealizacion()),
+                String.valueOf(prueba.getNotaReaccion()),
+                String.valueOf(prueba.getNotaAtencion()),
+                String.valueOf(prueba.getNotaCoordinacion()),
+                String.valueOf(prueba.getNotaPercepcion()),
+                String.valueOf(prueba.getNotaPsicologica()),
+                prueba.getObservaciones()
+        };
+    }
+
+    /**
+     * Recarga el índice de nombres en segundo plano después de una carga grande
+     */
+    private void recargarIndiceNombres() {
+        if (!indiceNombres.estaCargado()) {
+            return;
+        }
+        Thread.ofVirtual().name("indice-nombres").start(() -> {
+            try {
+                new ConductorDAO().cargarIndiceNombres();
+            } catch (Exception e) {
+                System.err.println("No se pudo recargar el índice de nombres: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Aborta un COPY que quedó abierto por un error
+     */
+    private void cancelarCopia(PGCopyOutputStream copia) {
+        if (copia != null && copia.isActive()) {
+            try {
+                copia.cancelCopy();
+            } catch (SQLException e) {
+                System.err.println("Error al cancelar COPY: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Revierte la transacción en curso ignorando errores secundarios
+     */
+    private void revertir(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error al revertir transacción: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Devuelve la conexión a modo auto-commit
+     */
+    private void restaurarAutoCommit(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error al restaurar auto-commit: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cierra recursos de base de datos
+     */
+    private void cerrarRecursos(Connection conn, Statement stmt, ResultSet rs) {
+        try {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar recursos: " + e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package ec.edu.sistemalicencias.dao;
 
 import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.config.Dialecto;
+import ec.edu.sistemalicencias.config.UnidadTrabajo;
 import ec.edu.sistemalicencias.model.entities.Conductor;
 import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 import ec.edu.sistemalicencias.model.interfaces.Persistible;
+import ec.edu.sistemalicencias.model.interfaces.ProcesadorFilas;
+import ec.edu.sistemalicencias.util.NormalizadorTexto;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * DAO (Data Access Object) para la entidad Conductor.
@@ -20,13 +29,31 @@ import java.util.List;
  */
 public class ConductorDAO implements Persistible<Conductor> {
 
+    private static final String SQL_INSERTAR = "INSERT INTO conductores (cedula, nombres, apellidos, fecha_nacimiento, " +
+            "direccion, telefono, email, tipo_sangre, documentos_validados, observaciones, " +
+            "nombres_busqueda, apellidos_busqueda) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_ACTUALIZAR = "UPDATE conductores SET cedula = ?, nombres = ?, apellidos = ?, " +
+            "fecha_nacimiento = ?, direccion = ?, telefono = ?, email = ?, " +
+            "tipo_sangre = ?, documentos_validados = ?, observaciones = ?, " +
+            "nombres_busqueda = ?, apellidos_busqueda = ? " +
+            "WHERE id = ?";
+
+    // Orden de buscarPorNombre, con LIKE o con el índice: lo decide la collation de la base de datos
+    private static final String ORDEN_APELLIDOS = " ORDER BY apellidos, nombres, id";
+
     private final DatabaseConfig dbConfig;
+    private final CacheConductores cache;
+    private final IndiceTrigramas indiceNombres;
 
     /**
      * Constructor que inicializa la configuración de base de datos
      */
     public ConductorDAO() {
         this.dbConfig = DatabaseConfig.getInstance();
+        this.cache = CacheConductores.getInstance();
+        this.indiceNombres = IndiceTrigramas.getInstance();
     }
 
     /**
@@ -38,9 +65,13 @@ public class ConductorDAO implements Persistible<Conductor> {
     @Override
     public Long guardar(Conductor conductor) throws BaseDatosException {
         if (conductor.getId() == null) {
-            return insertar(conductor);
+            Long id = insertar(conductor);
+            indexarAlConfirmar(id, conductor);
+            return id;
         } else {
             actualizar(conductor);
+            invalidarAlConfirmar(conductor.getId());
+            indexarAlConfirmar(conductor.getId(), conductor);
             return conductor.getId();
         }
     }
@@ -52,28 +83,15 @@ public class ConductorDAO implements Persistible<Conductor> {
      * @throws BaseDatosException Si ocurre un error en la inserción
      */
     private Long insertar(Conductor conductor) throws BaseDatosException {
-        String sql = "INSERT INTO conductores (cedula, nombres, apellidos, fecha_nacimiento, " +
-                "direccion, telefono, email, tipo_sangre, documentos_validados, observaciones) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-
-            stmt.setString(1, conductor.getCedula());
-            stmt.setString(2, conductor.getNombres());
-            stmt.setString(3, conductor.getApellidos());
-            stmt.setDate(4, Date.valueOf(conductor.getFechaNacimiento()));
-            stmt.setString(5, conductor.getDireccion());
-            stmt.setString(6, conductor.getTelefono());
-            stmt.setString(7, conductor.getEmail());
-            stmt.setString(8, conductor.getTipoSangre());
-            stmt.setBoolean(9, conductor.isDocumentosValidados());
-            stmt.setString(10, conductor.getObservaciones());
+            stmt = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
+
+            asignarParametrosInsercion(stmt, conductor);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -102,29 +120,14 @@ public class ConductorDAO implements Persistible<Conductor> {
      * @throws BaseDatosException Si ocurre un error en la actualización
      */
     private void actualizar(Conductor conductor) throws BaseDatosException {
-        String sql = "UPDATE conductores SET cedula = ?, nombres = ?, apellidos = ?, " +
-                "fecha_nacimiento = ?, direccion = ?, telefono = ?, email = ?, " +
-                "tipo_sangre = ?, documentos_validados = ?, observaciones = ? " +
-                "WHERE id = ?";
-
         Connection conn = null;
         PreparedStatement stmt = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql);
+            stmt = conn.prepareStatement(SQL_ACTUALIZAR);
 
-            stmt.setString(1, conductor.getCedula());
-            stmt.setString(2, conductor.getNombres());
-            stmt.setString(3, conductor.getApellidos());
-            stmt.setDate(4, Date.valueOf(conductor.getFechaNacimiento()));
-            stmt.setString(5, conductor.getDireccion());
-            stmt.setString(6, conductor.getTelefono());
-            stmt.setString(7, conductor.getEmail());
-            stmt.setString(8, conductor.getTipoSangre());
-            stmt.setBoolean(9, conductor.isDocumentosValidados());
-            stmt.setString(10, conductor.getObservaciones());
-            stmt.setLong(11, conductor.getId());
+            asignarParametrosActualizacion(stmt, conductor);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -139,6 +142,142 @@ public class ConductorDAO implements Persistible<Conductor> {
         }
     }
 
+    /**
+     * Guarda varios conductores en lotes JDBC usando el tamaño de lote configurado
+     * @param conductores Conductores a persistir
+     * @return IDs en el mismo orden de la lista
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    @Override
+    public List<Long> guardarTodos(List<Conductor> conductores) throws BaseDatosException {
+        return guardarTodos(conductores, dbConfig.getTamanoLote());
+    }
+
+    /**
+     * Guarda varios conductores en lotes JDBC. Cada lote es una transacción.
+     * @param conductores Conductores a persistir
+     * @param tamanoLote Número de filas por lote
+     * @return IDs en el mismo orden de la lista
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    public List<Long> guardarTodos(List<Conductor> conductores, int tamanoLote) throws BaseDatosException {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+
+        for (int inicio = 0; inicio < conductores.size(); inicio += tamanoLote) {
+            guardarLote(conductores.subList(inicio, Math.min(inicio + tamanoLote, conductores.size())));
+        }
+
+        List<Long> ids = new ArrayList<>(conductores.size());
+        for (Conductor conductor : conductores) {
+            ids.add(conductor.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserta y actualiza un lote en una sola transacción
+     * @param lote Elementos del lote
+     * @throws BaseDatosException Si ocurre un error (el lote se revierte)
+     */
+    private void guardarLote(List<Conductor> lote) throws BaseDatosException {
+        Connection conn = null;
+        PreparedStatement stmtInsertar = null;
+        PreparedStatement stmtActualizar = null;
+        ResultSet rs = null;
+        List<Conductor> nuevos = new ArrayList<>();
+        List<Long> idsGenerados = new ArrayList<>();
+        List<Long> actualizados = new ArrayList<>();
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            conn.setAutoCommit(false);
+
+            for (Conductor conductor : lote) {
+                if (conductor.getId() == null) {
+                    if (stmtInsertar == null) {
+                        stmtInsertar = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
+                    }
+                    asignarParametrosInsercion(stmtInsertar, conductor);
+                    stmtInsertar.addBatch();
+                    nuevos.add(conductor);
+                } else {
+                    if (stmtActualizar == null) {
+                        stmtActualizar = conn.prepareStatement(SQL_ACTUALIZAR);
+                    }
+                    asignarParametrosActualizacion(stmtActualizar, conductor);
+                    stmtActualizar.addBatch();
+                    actualizados.add(conductor.getId());
+                }
+            }
+
+            if (stmtInsertar != null) {
+                stmtInsertar.executeBatch();
+                rs = stmtInsertar.getGeneratedKeys();
+                while (rs.next()) {
+                    idsGenerados.add(rs.getLong(1));
+                }
+                if (idsGenerados.size() != nuevos.size()) {
+                    throw new SQLException("Se esperaban " + nuevos.size() + " IDs generados y se obtuvieron " +
+                            idsGenerados.size());
+                }
+            }
+
+            if (stmtActualizar != null) {
+                stmtActualizar.executeBatch();
+            }
+
+            conn.commit();
+
+            // Los IDs solo se asignan cuando el lote quedó confirmado
+            for (int i = 0; i < nuevos.size(); i++) {
+                nuevos.get(i).setId(idsGenerados.get(i));
+            }
+
+            for (Long id : actualizados) {
+                invalidarAlConfirmar(id);
+            }
+            for (Conductor conductor : lote) {
+                indexarAlConfirmar(conductor.getId(), conductor);
+            }
+
+        } catch (SQLException e) {
+            revertir(conn);
+            throw new BaseDatosException("Error al guardar lote de conductores: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmtActualizar, null);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, stmtInsertar, rs);
+        }
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción
+     */
+    private void asignarParametrosInsercion(PreparedStatement stmt, Conductor conductor) throws SQLException {
+        stmt.setString(1, conductor.getCedula());
+        stmt.setString(2, conductor.getNombres());
+        stmt.setString(3, conductor.getApellidos());
+        stmt.setDate(4, Date.valueOf(conductor.getFechaNacimiento()));
+        stmt.setString(5, conductor.getDireccion());
+        stmt.setString(6, conductor.getTelefono());
+        stmt.setString(7, conductor.getEmail());
+        stmt.setString(8, conductor.getTipoSangre());
+        stmt.setBoolean(9, conductor.isDocumentosValidados());
+        stmt.setString(10, conductor.getObservaciones());
+        stmt.setString(11, NormalizadorTexto.normalizar(conductor.getNombres()));
+        stmt.setString(12, NormalizadorTexto.normalizar(conductor.getApellidos()));
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización
+     */
+    private void asignarParametrosActualizacion(PreparedStatement stmt, Conductor conductor) throws SQLException {
+        asignarParametrosInsercion(stmt, conductor);
+        stmt.setLong(13, conductor.getId());
+    }
+
     /**
      * Busca un conductor por su ID
      * @param id ID del conductor
@@ -147,6 +286,24 @@ public class ConductorDAO implements Persistible<Conductor> {
      */
     @Override
     public Conductor buscarPorId(Long id) throws BaseDatosException {
+        // Dentro de una transacción se lee siempre de la base de datos
+        if (UnidadTrabajo.estaActiva()) {
+            return consultarPorId(id);
+        }
+
+        Conductor conductor = cache.obtenerPorId(id);
+        if (conductor == null) {
+            long generacion = cache.marcarLectura();
+            conductor = consultarPorId(id);
+            cache.guardar(conductor, generacion);
+        }
+        return conductor;
+    }
+
+    /**
+     * Consulta un conductor por ID sin pasar por la caché
+     */
+    private Conductor consultarPorId(Long id) throws BaseDatosException {
         String sql = "SELECT * FROM conductores WHERE id = ?";
 
         Connection conn = null;
@@ -173,6 +330,44 @@ public class ConductorDAO implements Persistible<Conductor> {
         }
     }
 
+    /**
+     * Busca un conductor por su ID y bloquea su fila hasta el fin de la transacción
+     * (SELECT ... FOR UPDATE). Solo tiene sentido dentro de una UnidadTrabajo.
+     * @param id ID del conductor
+     * @return Conductor encontrado o null
+     * @throws BaseDatosException Si ocurre un error en la búsqueda
+     */
+    public Conductor bloquearPorId(Long id) throws BaseDatosException {
+        if (!UnidadTrabajo.estaActiva()) {
+            throw new IllegalStateException("bloquearPorId requiere una UnidadTrabajo activa");
+        }
+
+        String sql = "SELECT * FROM conductores WHERE id = ? FOR UPDATE";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, id);
+
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapearResultSet(rs);
+            }
+
+            return null;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al bloquear conductor: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
     /**
      * Busca un conductor por su cédula
      * @param cedula Número de cédula
@@ -180,6 +375,23 @@ public class ConductorDAO implements Persistible<Conductor> {
      * @throws BaseDatosException Si ocurre un error en la búsqueda
      */
     public Conductor buscarPorCedula(String cedula) throws BaseDatosException {
+        if (UnidadTrabajo.estaActiva()) {
+            return consultarPorCedula(cedula);
+        }
+
+        Conductor conductor = cache.obtenerPorCedula(cedula);
+        if (conductor == null) {
+            long generacion = cache.marcarLectura();
+            conductor = consultarPorCedula(cedula);
+            cache.guardar(conductor, generacion);
+        }
+        return conductor;
+    }
+
+    /**
+     * Consulta un conductor por cédula sin pasar por la caché
+     */
+    private Conductor consultarPorCedula(String cedula) throws BaseDatosException {
         String sql = "SELECT * FROM conductores WHERE cedula = ?";
 
         Connection conn = null;
@@ -238,14 +450,70 @@ public class ConductorDAO implements Persistible<Conductor> {
     }
 
     /**
-     * Busca conductores por nombre (búsqueda parcial)
+     * Recorre todos los conductores con un cursor del servidor, sin cargarlos en memoria.
+     * La conexión se libera al terminar o cuando el procesador devuelve false.
+     * @param procesador Recibe cada conductor en el mismo orden que obtenerTodos()
+     * @return Número de filas entregadas al procesador
+     * @throws LicenciaException Si falla la consulta o el procesador
+     */
+    public int recorrerTodos(ProcesadorFilas<Conductor> procesador) throws LicenciaException {
+        String sql = "SELECT * FROM conductores ORDER BY apellidos, nombres";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        int procesadas = 0;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            // PostgreSQL solo usa cursor (fetchSize) fuera de auto-commit
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConfig.getTamanoFetch());
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                procesadas++;
+                if (!procesador.procesar(mapearResultSet(rs))) {
+                    break;
+                }
+            }
+
+            return procesadas;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al recorrer conductores: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmt, rs);
+            revertir(conn);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+    }
+
+    /**
+     * Busca conductores por nombre (búsqueda parcial).
+     * Con el índice de trigramas cargado, los IDs se resuelven en memoria y se
+     * leen en una consulta por ID; si no, se usa LIKE sobre la tabla. Ambos
+     * caminos ordenan en la base de datos por apellidos y nombres.
      * @param nombre Nombre o apellido a buscar
      * @return Lista de conductores que coinciden
      * @throws BaseDatosException Si ocurre un error en la búsqueda
      */
     public List<Conductor> buscarPorNombre(String nombre) throws BaseDatosException {
-        String sql = "SELECT * FROM conductores WHERE nombres LIKE ? OR apellidos LIKE ? " +
-                "ORDER BY apellidos, nombres";
+        if (IndiceTrigramas.admite(nombre) && indiceNombres.estaCargado()) {
+            // El índice solo se habilita en PostgreSQL: una sola consulta = ANY(?), orden global
+            return buscarPorIds(indiceNombres.buscar(nombre), ORDEN_APELLIDOS);
+        }
+        return buscarPorNombreLike(nombre);
+    }
+
+    /**
+     * Busca conductores por nombre con LIKE (recorre la tabla completa)
+     */
+    private List<Conductor> buscarPorNombreLike(String nombre) throws BaseDatosException {
+        String sql = "SELECT * FROM conductores WHERE nombres LIKE ? OR apellidos LIKE ?" + ORDEN_APELLIDOS;
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -274,6 +542,271 @@ public class ConductorDAO implements Persistible<Conductor> {
         }
     }
 
+    /**
+     * Busca conductores cuyos apellidos o nombres empiezan con el texto,
+     * sin distinguir tildes ni mayúsculas ("nunez" encuentra "Núñez").
+     * Usa los índices de apellidos_busqueda y nombres_busqueda.
+     * @param texto Inicio de los apellidos o de los nombres
+     * @return Lista de conductores que coinciden
+     * @throws BaseDatosException Si ocurre un error en la búsqueda
+     */
+    public List<Conductor> buscarPorPrefijo(String texto) throws BaseDatosException {
+        String sql = "SELECT * FROM conductores " +
+                "WHERE apellidos_busqueda LIKE ? ESCAPE '!' OR nombres_busqueda LIKE ? ESCAPE '!' " +
+                "ORDER BY apellidos, nombres";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Conductor> conductores = new ArrayList<>();
+
+        String clave = NormalizadorTexto.normalizar(texto);
+        if (clave == null || clave.isEmpty()) {
+            return conductores;
+        }
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            // Los comodines que escriba el usuario se buscan como texto
+            String patron = clave.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+            stmt.setString(1, patron);
+            stmt.setString(2, patron);
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                conductores.add(mapearResultSet(rs));
+            }
+
+            return conductores;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al buscar conductores por prefijo: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Completa las claves de búsqueda de los conductores que no las tienen
+     * (filas anteriores a las columnas *_busqueda o cargadas por fuera del DAO).
+     * Procesa en lotes de tamanoLote filas, cada uno en su propia transacción.
+     * @return Número de conductores actualizados
+     * @throws BaseDatosException Si ocurre un error (el lote en curso se revierte)
+     */
+    public int completarClavesBusqueda() throws BaseDatosException {
+        String sqlPendientes = dbConfig.getDialecto().limitar("SELECT id, nombres, apellidos FROM conductores " +
+                "WHERE nombres_busqueda IS NULL OR apellidos_busqueda IS NULL ORDER BY id", dbConfig.getTamanoLote());
+        String sqlActualizar = "UPDATE conductores SET nombres_busqueda = ?, apellidos_busqueda = ? WHERE id = ?";
+
+        Connection conn = null;
+        PreparedStatement stmtPendientes = null;
+        PreparedStatement stmtActualizar = null;
+        ResultSet rs = null;
+        int actualizados = 0;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            conn.setAutoCommit(false);
+            stmtPendientes = conn.prepareStatement(sqlPendientes);
+            stmtActualizar = conn.prepareStatement(sqlActualizar);
+
+            int enLote;
+            do {
+                enLote = 0;
+                rs = stmtPendientes.executeQuery();
+                while (rs.next()) {
+                    // Nunca null: una fila sin clave volvería a seleccionarse en cada vuelta
+                    stmtActualizar.setString(1, Objects.toString(NormalizadorTexto.normalizar(rs.getString("nombres")), ""));
+                    stmtActualizar.setString(2, Objects.toString(NormalizadorTexto.normalizar(rs.getString("apellidos")), ""));
+                    stmtActualizar.setLong(3, rs.getLong("id"));
+                    stmtActualizar.addBatch();
+                    enLote++;
+                }
+                rs.close();
+                rs = null;
+
+                if (enLote > 0) {
+                    stmtActualizar.executeBatch();
+                    conn.commit();
+                    actualizados += enLote;
+                }
+            } while (enLote > 0);
+
+            return actualizados;
+
+        } catch (SQLException e) {
+            revertir(conn);
+            throw new BaseDatosException("Error al completar claves de búsqueda: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmtActualizar, null);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, stmtPendientes, rs);
+        }
+    }
+
+    /**
+     * Obtiene varios conductores por ID: en PostgreSQL con una sola consulta
+     * = ANY(?), en otros motores con consultas IN de hasta tamanoLote IDs
+     * @param ids IDs a buscar
+     * @return Conductores encontrados, sin orden garantizado
+     * @throws BaseDatosException Si ocurre un error en la consulta
+     */
+    public List<Conductor> buscarPorIds(long[] ids) throws BaseDatosException {
+        return buscarPorIds(ids, "");
+    }
+
+    /**
+     * Obtiene varios conductores por ID con un ORDER BY, que solo es global
+     * si los IDs caben en una consulta (siempre en PostgreSQL)
+     */
+    private List<Conductor> buscarPorIds(long[] ids, String orden) throws BaseDatosException {
+        List<Conductor> conductores = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return conductores;
+        }
+
+        Dialecto dialecto = dbConfig.getDialecto();
+        int tamanoLote = dialecto.maximoLista(dbConfig.getTamanoLote());
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+
+            int cantidad;
+            for (int inicio = 0; inicio < ids.length; inicio += cantidad) {
+                cantidad = Math.min(tamanoLote, ids.length - inicio);
+                // Reutiliza la sentencia mientras el tamaño del lote no cambia
+                if (stmt == null || cantidad != tamanoLote) {
+                    cerrarRecursos(null, stmt, null);
+                    stmt = conn.prepareStatement("SELECT * FROM conductores WHERE " +
+                            dialecto.enLista("id", cantidad) + orden);
+                }
+                dialecto.asignarLista(stmt, 1, "bigint",
+                        Arrays.stream(ids, inicio, inicio + cantidad).boxed().toList());
+
+                rs = stmt.executeQuery();
+                while (rs.next()) {
+                    conductores.add(mapearResultSet(rs));
+                }
+                rs.close();
+                rs = null;
+            }
+
+            return conductores;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al buscar conductores por ID: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Indica cuáles de las cédulas ya están registradas (para importaciones
+     * masivas): en PostgreSQL con una sola consulta = ANY(?), en otros motores
+     * con consultas IN de hasta tamanoLote cédulas
+     * @param cedulas Cédulas a verificar
+     * @return Subconjunto de las cédulas que ya existen
+     * @throws BaseDatosException Si ocurre un error en la consulta
+     */
+    public Set<String> buscarCedulasExistentes(List<String> cedulas) throws BaseDatosException {
+        Set<String> existentes = new HashSet<>();
+        if (cedulas.isEmpty()) {
+            return existentes;
+        }
+
+        Dialecto dialecto = dbConfig.getDialecto();
+        int tamanoLote = dialecto.maximoLista(dbConfig.getTamanoLote());
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+
+            int cantidad;
+            for (int inicio = 0; inicio < cedulas.size(); inicio += cantidad) {
+                cantidad = Math.min(tamanoLote, cedulas.size() - inicio);
+                if (stmt == null || cantidad != tamanoLote) {
+                    cerrarRecursos(null, stmt, null);
+                    stmt = conn.prepareStatement("SELECT cedula FROM conductores WHERE " +
+                            dialecto.enLista("cedula", cantidad));
+                }
+                dialecto.asignarLista(stmt, 1, "varchar", cedulas.subList(inicio, inicio + cantidad));
+
+                rs = stmt.executeQuery();
+                while (rs.next()) {
+                    existentes.add(rs.getString(1));
+                }
+                rs.close();
+                rs = null;
+            }
+
+            return existentes;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al verificar cédulas existentes: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Carga el índice de trigramas de nombres recorriendo la tabla con un cursor.
+     * Mientras carga, las búsquedas por nombre siguen usando LIKE.
+     * @return Número de conductores indexados (0 si el índice está deshabilitado)
+     * @throws LicenciaException Si falla la consulta (el índice queda sin cargar)
+     */
+    public int cargarIndiceNombres() throws LicenciaException {
+        if (!indiceNombres.estaHabilitado()) {
+            return 0;
+        }
+
+        String sql = "SELECT id, nombres, apellidos FROM conductores ORDER BY id";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        int cargados = 0;
+        boolean completo = false;
+
+        indiceNombres.iniciarCarga();
+        try {
+            conn = dbConfig.obtenerConexion();
+            // PostgreSQL solo usa cursor (fetchSize) fuera de auto-commit
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConfig.getTamanoFetch());
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                indiceNombres.agregarCarga(rs.getLong("id"), rs.getString("nombres"), rs.getString("apellidos"));
+                cargados++;
+            }
+
+            completo = true;
+            return cargados;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al cargar índice de nombres: " + e.getMessage(), e);
+        } finally {
+            if (completo) {
+                indiceNombres.terminarCarga();
+            } else {
+                indiceNombres.cancelarCarga();
+            }
+            cerrarRecursos(null, stmt, rs);
+            revertir(conn);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+    }
+
     /**
      * Elimina un conductor
      * @param id ID del conductor a eliminar
@@ -293,6 +826,10 @@ public class ConductorDAO implements Persistible<Conductor> {
             stmt.setLong(1, id);
 
             int filasAfectadas = stmt.executeUpdate();
+            invalidarAlConfirmar(id);
+            if (filasAfectadas > 0) {
+                UnidadTrabajo.despuesDeConfirmar(() -> indiceNombres.quitar(id));
+            }
             return filasAfectadas > 0;
 
         } catch (SQLException e) {
@@ -309,31 +846,89 @@ public class ConductorDAO implements Persistible<Conductor> {
      * @throws SQLException Si ocurre un error al leer los datos
      */
     private Conductor mapearResultSet(ResultSet rs) throws SQLException {
+        return mapearConductor(rs, "");
+    }
+
+    /**
+     * Mapea columnas de conductor con prefijo (consultas con JOIN de otros DAO)
+     * @param rs ResultSet con los datos
+     * @param prefijo Prefijo de los alias de columna, por ejemplo "c_"
+     * @return Objeto Conductor
+     * @throws SQLException Si ocurre un error al leer los datos
+     */
+    static Conductor mapearConductor(ResultSet rs, String prefijo) throws SQLException {
         Conductor conductor = new Conductor();
 
-        conductor.setId(rs.getLong("id"));
-        conductor.setCedula(rs.getString("cedula"));
-        conductor.setNombres(rs.getString("nombres"));
-        conductor.setApellidos(rs.getString("apellidos"));
+        conductor.setId(rs.getLong(prefijo + "id"));
+        conductor.setCedula(rs.getString(prefijo + "cedula"));
+        conductor.setNombres(rs.getString(prefijo + "nombres"));
+        conductor.setApellidos(rs.getString(prefijo + "apellidos"));
 
-        Date fechaNac = rs.getDate("fecha_nacimiento");
+        Date fechaNac = rs.getDate(prefijo + "fecha_nacimiento");
         if (fechaNac != null) {
             conductor.setFechaNacimiento(fechaNac.toLocalDate());
         }
 
-        conductor.setDireccion(rs.getString("direccion"));
-        conductor.setTelefono(rs.getString("telefono"));
-        conductor.setEmail(rs.getString("email"));
+        conductor.setDireccion(rs.getString(prefijo + "direccion"));
+        conductor.setTelefono(rs.getString(prefijo + "telefono"));
+        conductor.setEmail(rs.getString(prefijo + "email"));
 
-        String tipoSangreStr = rs.getString("tipo_sangre");
+        String tipoSangreStr = rs.getString(prefijo + "tipo_sangre");
         conductor.setTipoSangre(tipoSangreStr);
 
-        conductor.setDocumentosValidados(rs.getBoolean("documentos_validados"));
-        conductor.setObservaciones(rs.getString("observaciones"));
+        conductor.setDocumentosValidados(rs.getBoolean(prefijo + "documentos_validados"));
+        conductor.setObservaciones(rs.getString(prefijo + "observaciones"));
 
         return conductor;
     }
 
+    /**
+     * Invalida el conductor en caché cuando la transacción actual se confirme
+     * (de inmediato si no hay UnidadTrabajo activa)
+     */
+    private void invalidarAlConfirmar(Long id) {
+        cache.invalidar(id);
+        if (UnidadTrabajo.estaActiva()) {
+            UnidadTrabajo.despuesDeConfirmar(() -> cache.invalidar(id));
+        }
+    }
+
+    /**
+     * Actualiza el índice de nombres cuando la transacción actual se confirme
+     * (de inmediato si no hay UnidadTrabajo activa)
+     */
+    private void indexarAlConfirmar(Long id, Conductor conductor) {
+        String nombres = conductor.getNombres();
+        String apellidos = conductor.getApellidos();
+        UnidadTrabajo.despuesDeConfirmar(() -> indiceNombres.actualizar(id, nombres, apellidos));
+    }
+
+    /**
+     * Revierte la transacción en curso ignorando errores secundarios
+     */
+    private void revertir(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error al revertir transacción: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Devuelve la conexión a modo auto-commit
+     */
+    private void restaurarAutoCommit(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error al restaurar auto-commit: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Cierra los recursos de base de datos de forma segura
      * @param conn Conexión
@@ -0,0 +1,197 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DAO de los puntos de control de las importaciones de conductores
+ * (tabla importaciones_conductores). Hay una fila por archivo mientras su
+ * importación no termina.
+ *
+ * El punto de control se guarda con la conexión de la {@link
+ * ec.edu.sistemalicencias.config.UnidadTrabajo} activa, en la misma
+ * transacción que los conductores del bloque: o se confirman los dos o
+ * ninguno, así que al reanudar nunca se vuelve a procesar un bloque ya
+ * guardado.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class ImportacionDAO {
+
+    /**
+     * Avance confirmado de la importación de un archivo
+     */
+    public static class Avance {
+
+        private final long tamanoArchivo;
+        private final long modificado;
+        private final long registros;
+        private final long importados;
+        private final long rechazados;
+        private final long bytesRechazos;
+
+        /**
+         * Constructor
+         * @param tamanoArchivo Tamaño del CSV al empezar la importación
+         * @param modificado Fecha de modificación del CSV (milisegundos)
+         * @param registros Registros procesados
+         * @param importados Conductores insertados
+         * @param rechazados Filas escritas en el informe de rechazos
+         * @param bytesRechazos Tamaño del informe de rechazos hasta este punto
+         */
+        public Avance(long tamanoArchivo, long modificado, long registros,
+                      long importados, long rechazados, long bytesRechazos) {
+            this.tamanoArchivo = tamanoArchivo;
+            this.modificado = modificado;
+            this.registros = registros;
+            this.importados = importados;
+            this.rechazados = rechazados;
+            this.bytesRechazos = bytesRechazos;
+        }
+
+        public long getTamanoArchivo() {
+            return tamanoArchivo;
+        }
+
+        public long getModificado() {
+            return modificado;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public long getImportados() {
+            return importados;
+        }
+
+        public long getRechazados() {
+            return rechazados;
+        }
+
+        public long getBytesRechazos() {
+            return bytesRechazos;
+        }
+    }
+
+    private static final List<String> COLUMNAS = List.of("archivo", "tamano_archivo", "modificado",
+            "registros", "importados", "rechazados", "bytes_rechazos", "actualizado");
+
+    private final DatabaseConfig dbConfig;
+
+    /**
+     * Constructor
+     */
+    public ImportacionDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Busca el punto de control de un archivo
+     * @param archivo Ruta absoluta del CSV
+     * @return Avance confirmado, o null si no hay una importación pendiente
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public Avance buscar(String archivo) throws BaseDatosException {
+        String sql = "SELECT tamano_archivo, modificado, registros, importados, rechazados, bytes_rechazos " +
+                "FROM importaciones_conductores WHERE archivo = ?";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setString(1, archivo);
+            rs = stmt.executeQuery();
+
+            if (!rs.next()) {
+                return null;
+            }
+            return new Avance(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6));
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al buscar el punto de control de la importación: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Guarda el punto de control de un archivo. Debe llamarse dentro de la
+     * UnidadTrabajo que guarda el bloque.
+     * @param archivo Ruta absoluta del CSV
+     * @param avance Avance incluyendo el bloque que se está guardando
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public void guardar(String archivo, Avance avance) throws BaseDatosException {
+        String sql = dbConfig.getDialecto().insertarOActualizar("importaciones_conductores", COLUMNAS,
+                List.of("archivo"));
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setString(1, archivo);
+            stmt.setLong(2, avance.getTamanoArchivo());
+            stmt.setLong(3, avance.getModificado());
+            stmt.setLong(4, avance.getRegistros());
+            stmt.setLong(5, avance.getImportados());
+            stmt.setLong(6, avance.getRechazados());
+            stmt.setLong(7, avance.getBytesRechazos());
+            stmt.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al guardar el punto de control de la importación: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, null);
+        }
+    }
+
+    /**
+     * Elimina el punto de control de un archivo (importación terminada o descartada)
+     * @param archivo Ruta absoluta del CSV
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public void eliminar(String archivo) throws BaseDatosException {
+        String sql = "DELETE FROM importaciones_conductores WHERE archivo = ?";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setString(1, archivo);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al eliminar el punto de control de la importación: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, null);
+        }
+    }
+
+    /**
+     * Cierra recursos de base de datos
+     */
+    private void cerrarRecursos(Connection conn, Statement stmt, ResultSet rs) {
+        try {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar recursos: " + e.getMessage());
+        }
+    }
+}
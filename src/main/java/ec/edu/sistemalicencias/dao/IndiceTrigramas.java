@@ -0,0 +1,411 @@
+package ec.edu.sistemalicencias.dao;
+
+import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.config.Dialecto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre nombres y apellidos de conductores.
+ * Resuelve en memoria los IDs que contienen un texto, equivalente a
+ * {@code nombres LIKE '%x%' OR apellidos LIKE '%x%'} de PostgreSQL (sensible
+ * a mayúsculas y tildes), sin recorrer la tabla completa.
+ *
+ * Solo se habilita con PostgreSQL: en MySQL, con las collations _ci por
+ * defecto, LIKE no distingue mayúsculas ni tildes y la misma búsqueda daría
+ * otras filas antes y después de cargar el índice.
+ *
+ * Ciclo de vida:
+ * - Se carga recorriendo la tabla con un cursor ({@link ConductorDAO#cargarIndiceNombres()})
+ * - Mientras no está cargado, {@link ConductorDAO#buscarPorNombre(String)} usa LIKE
+ * - ConductorDAO lo actualiza al confirmar cada guardar o eliminar; los cambios
+ *   que llegan durante la carga prevalecen sobre las filas leídas por el cursor
+ *
+ * Memoria: los IDs se guardan como int (la columna id es SERIAL) y se
+ * conserva el texto de cada conductor para verificar candidatos y poder
+ * quitar sus trigramas al actualizarlo. Se desactiva con
+ * -Dlicencias.indice.nombres=false.
+ *
+ * Los IDs del índice se leen ordenados por la base de datos con el mismo
+ * ORDER BY que la búsqueda con LIKE, así que el orden no depende de cuál de
+ * los dos caminos respondió.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class IndiceTrigramas {
+
+    // Longitud mínima de búsqueda que el índice puede resolver
+    public static final int LONGITUD_MINIMA = 3;
+
+    // Separa nombres y apellidos en el texto guardado; un trigrama nunca lo cruza
+    private static final char SEPARADOR = '\u0000';
+
+    private enum Estado { NO_CARGADO, CARGANDO, CARGADO }
+
+    private static IndiceTrigramas instancia;
+
+    private final boolean habilitado;
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Integer, String> textos = new HashMap<>();
+    private final Set<Integer> modificadosDuranteCarga = new HashSet<>();
+    private Estado estado = Estado.NO_CARGADO;
+
+    private IndiceTrigramas(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public static synchronized IndiceTrigramas getInstance() {
+        if (instancia == null) {
+            instancia = new IndiceTrigramas(
+                    Boolean.parseBoolean(System.getProperty("licencias.indice.nombres", "true"))
+                            && DatabaseConfig.getInstance().getDialecto() == Dialecto.POSTGRESQL);
+        }
+        return instancia;
+    }
+
+    /**
+     * Indica si el texto se puede resolver con el índice.
+     * Textos cortos, con comodines de LIKE (% y _) o con su carácter de escape
+     * por defecto (\) se buscan en la base de datos.
+     * @param texto Texto a buscar
+     * @return true si el índice da el mismo resultado que LIKE
+     */
+    public static boolean admite(String texto) {
+        return texto != null && texto.length() >= LONGITUD_MINIMA
+                && texto.indexOf('%') < 0 && texto.indexOf('_') < 0 && texto.indexOf('\\') < 0
+                && texto.indexOf(SEPARADOR) < 0;
+    }
+
+    /**
+     * Indica si el índice está habilitado (por configuración y con PostgreSQL)
+     * @return true si se debe cargar
+     */
+    public boolean estaHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Indica si el índice terminó de cargarse y puede responder búsquedas
+     * @return true si está cargado
+     */
+    public boolean estaCargado() {
+        candado.readLock().lock();
+        try {
+            return estado == Estado.CARGADO;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los conductores cuyo nombre o apellido contiene el texto
+     * @param texto Texto a buscar; debe cumplir {@link #admite(String)}
+     * @return IDs ordenados de forma ascendente
+     */
+    public long[] buscar(String texto) {
+        if (!admite(texto)) {
+            throw new IllegalArgumentException("El texto no se puede buscar con el índice: " + texto);
+        }
+
+        candado.readLock().lock();
+        try {
+            if (estado != Estado.CARGADO) {
+                throw new IllegalStateException("El índice de nombres no está cargado");
+            }
+
+            // Listas de cada trigrama, de la más corta a la más larga
+            List<Postings> listas = new ArrayList<>();
+            for (long trigrama : trigramas(texto)) {
+                Postings lista = postings.get(trigrama);
+                if (lista == null) {
+                    return new long[0];
+                }
+                listas.add(lista);
+            }
+            listas.sort((a, b) -> Integer.compare(a.tamano, b.tamano));
+
+            int[] candidatos = Arrays.copyOf(listas.get(0).ids, listas.get(0).tamano);
+            int cantidad = candidatos.length;
+            for (int i = 1; i < listas.size() && cantidad > 0; i++) {
+                cantidad = intersectar(candidatos, cantidad, listas.get(i));
+            }
+
+            // Los trigramas pueden coincidir sin que el texto sea contiguo: verificar
+            long[] encontrados = new long[cantidad];
+            int total = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (contiene(textos.get(candidatos[i]), texto)) {
+                    encontrados[total++] = candidatos[i];
+                }
+            }
+            return Arrays.copyOf(encontrados, total);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice y lo prepara para recibir las filas del cursor
+     */
+    void iniciarCarga() {
+        candado.writeLock().lock();
+        try {
+            vaciar();
+            estado = Estado.CARGANDO;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega una fila leída por el cursor de carga
+     */
+    void agregarCarga(long id, String nombres, String apellidos) {
+        candado.writeLock().lock();
+        try {
+            // Un cambio confirmado durante la carga es más reciente que la fila leída
+            if (estado == Estado.CARGANDO && !modificadosDuranteCarga.contains(aEntero(id))) {
+                indexar(aEntero(id), nombres, apellidos);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca la carga como terminada; desde aquí el índice responde búsquedas
+     */
+    void terminarCarga() {
+        candado.writeLock().lock();
+        try {
+            if (estado == Estado.CARGANDO) {
+                estado = Estado.CARGADO;
+                modificadosDuranteCarga.clear();
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta una carga fallida; las búsquedas vuelven a usar LIKE
+     */
+    void cancelarCarga() {
+        candado.writeLock().lock();
+        try {
+            vaciar();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registra un conductor insertado o actualizado (después de confirmar)
+     */
+    void actualizar(long id, String nombres, String apellidos) {
+        candado.writeLock().lock();
+        try {
+            if (estado == Estado.NO_CARGADO) {
+                return;
+            }
+            desindexar(aEntero(id));
+            indexar(aEntero(id), nombres, apellidos);
+            if (estado == Estado.CARGANDO) {
+                modificadosDuranteCarga.add(aEntero(id));
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un conductor eliminado (después de confirmar)
+     */
+    void quitar(long id) {
+        candado.writeLock().lock();
+        try {
+            if (estado == Estado.NO_CARGADO) {
+                return;
+            }
+            desindexar(aEntero(id));
+            if (estado == Estado.CARGANDO) {
+                modificadosDuranteCarga.add(aEntero(id));
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de conductores indexados
+     */
+    public int getTamano() {
+        candado.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de trigramas distintos
+     */
+    public int getTrigramas() {
+        candado.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void vaciar() {
+        postings.clear();
+        textos.clear();
+        modificadosDuranteCarga.clear();
+        estado = Estado.NO_CARGADO;
+    }
+
+    private static int aEntero(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private void indexar(int id, String nombres, String apellidos) {
+        String texto = (nombres != null ? nombres : "") + SEPARADOR + (apellidos != null ? apellidos : "");
+        textos.put(id, texto);
+        for (long trigrama : trigramas(texto)) {
+            postings.computeIfAbsent(trigrama, t -> new Postings()).agregar(id);
+        }
+    }
+
+    private void desindexar(int id) {
+        String texto = textos.remove(id);
+        if (texto == null) {
+            return;
+        }
+        for (long trigrama : trigramas(texto)) {
+            Postings lista = postings.get(trigrama);
+            if (lista != null && lista.quitar(id) && lista.tamano == 0) {
+                postings.remove(trigrama);
+            }
+        }
+    }
+
+    /**
+     * Trigramas distintos del texto, sin cruzar el separador de campos
+     */
+    private static Set<Long> trigramas(String texto) {
+        Set<Long> resultado = new HashSet<>();
+        for (int i = 0; i + LONGITUD_MINIMA <= texto.length(); i++) {
+            char a = texto.charAt(i);
+            char b = texto.charAt(i + 1);
+            char c = texto.charAt(i + 2);
+            if (a != SEPARADOR && b != SEPARADOR && c != SEPARADOR) {
+                resultado.add(((long) a << 32) | ((long) b << 16) | c);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Verifica la coincidencia dentro de nombres o de apellidos (no entre ambos)
+     */
+    private static boolean contiene(String texto, String buscado) {
+        int separador = texto.indexOf(SEPARADOR);
+        int posicion = texto.indexOf(buscado);
+        while (posicion >= 0) {
+            if (posicion + buscado.length() <= separador || posicion > separador) {
+                return true;
+            }
+            posicion = texto.indexOf(buscado, posicion + 1);
+        }
+        return false;
+    }
+
+    /**
+     * Deja en candidatos solo los IDs presentes en la lista
+     * @return Nueva cantidad de candidatos
+     */
+    private static int intersectar(int[] candidatos, int cantidad, Postings lista) {
+        int resultado = 0;
+
+        // Listas de tamaño parecido: recorrido en paralelo
+        if (lista.tamano < (long) cantidad * 16) {
+            int j = 0;
+            for (int i = 0; i < cantidad && j < lista.tamano; i++) {
+                while (j < lista.tamano && lista.ids[j] < candidatos[i]) {
+                    j++;
+                }
+                if (j < lista.tamano && lista.ids[j] == candidatos[i]) {
+                    candidatos[resultado++] = candidatos[i];
+                }
+            }
+            return resultado;
+        }
+
+        // Lista mucho más larga: búsqueda binaria desde la última posición
+        int desde = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int posicion = Arrays.binarySearch(lista.ids, desde, lista.tamano, candidatos[i]);
+            if (posicion >= 0) {
+                candidatos[resultado++] = candidatos[i];
+                desde = posicion + 1;
+            } else {
+                desde = -posicion - 1;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * IDs que contienen un trigrama, ordenados de forma ascendente
+     */
+    private static class Postings {
+
+        private int[] ids = new int[4];
+        private int tamano;
+
+        void agregar(int id) {
+            // La carga recorre por ID y las inserciones reciben IDs crecientes: casi siempre se agrega al final
+            if (tamano > 0 && ids[tamano - 1] >= id) {
+                int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+                if (posicion >= 0) {
+                    return;
+                }
+                insertar(-posicion - 1, id);
+                return;
+            }
+            insertar(tamano, id);
+        }
+
+        boolean quitar(int id) {
+            int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicion + 1, ids, posicion, tamano - posicion - 1);
+            tamano--;
+            return true;
+        }
+
+        private void insertar(int posicion, int id) {
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano + (tamano >> 1) + 1);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+            ids[posicion] = id;
+            tamano++;
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package ec.edu.sistemalicencias.dao;
 
 import ec.edu.sistemalicencias.config.DatabaseConfig;
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
 import ec.edu.sistemalicencias.model.entities.Licencia;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
+import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
 import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 import ec.edu.sistemalicencias.model.interfaces.Persistible;
+import ec.edu.sistemalicencias.model.interfaces.ProcesadorFilas;
 
 import java.sql.*;
 import java.time.LocalDate;
@@ -19,6 +26,33 @@ import java.util.List;
  */
 public class LicenciaDAO implements Persistible<Licencia> {
 
+    private static final String SQL_INSERTAR = "INSERT INTO licencias (numero_licencia, conductor_id, tipo_licencia, " +
+            "fecha_emision, fecha_vencimiento, activa, prueba_psicometrica_id, observaciones) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_ACTUALIZAR = "UPDATE licencias SET numero_licencia = ?, conductor_id = ?, " +
+            "tipo_licencia = ?, fecha_emision = ?, fecha_vencimiento = ?, " +
+            "activa = ?, prueba_psicometrica_id = ?, observaciones = ? WHERE id = ?";
+
+    private static final String SQL_LISTADO = "SELECT l.*, c.nombres AS conductor_nombres, " +
+            "c.apellidos AS conductor_apellidos, c.cedula AS conductor_cedula " +
+            "FROM licencias l LEFT JOIN conductores c ON c.id = l.conductor_id ";
+
+    private static final String SQL_DOCUMENTOS = "SELECT l.*, " +
+            "c.id AS c_id, c.cedula AS c_cedula, c.nombres AS c_nombres, c.apellidos AS c_apellidos, " +
+            "c.fecha_nacimiento AS c_fecha_nacimiento, c.direccion AS c_direccion, c.telefono AS c_telefono, " +
+            "c.email AS c_email, c.tipo_sangre AS c_tipo_sangre, c.documentos_validados AS c_documentos_validados, " +
+            "c.observaciones AS c_observaciones, " +
+            "p.id AS p_id, p.conductor_id AS p_conductor_id, p.nota_reaccion AS p_nota_reaccion, " +
+            "p.nota_atencion AS p_nota_atencion, p.nota_coordinacion AS p_nota_coordinacion, " +
+            "p.nota_percepcion AS p_nota_percepcion, p.nota_psicologica AS p_nota_psicologica, " +
+            "p.observaciones AS p_observaciones, p.fecha_realizacion AS p_fecha_realizacion " +
+            "FROM licencias l " +
+            "JOIN conductores c ON c.id = l.conductor_id " +
+            "LEFT JOIN pruebas_psicometricas p ON p.id = l.prueba_psicometrica_id";
+
+    private static final String SQL_DOCUMENTO = SQL_DOCUMENTOS + " WHERE l.id = ?";
+
     private final DatabaseConfig dbConfig;
 
     /**
@@ -51,38 +85,15 @@ public class LicenciaDAO implements Persistible<Licencia> {
      * @throws BaseDatosException Si ocurre un error
      */
     private Long insertar(Licencia licencia) throws BaseDatosException {
-        String sql = "INSERT INTO licencias (numero_licencia, conductor_id, tipo_licencia, " +
-                "fecha_emision, fecha_vencimiento, activa, prueba_psicometrica_id, observaciones) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-
-            stmt.setString(1, licencia.getNumeroLicencia());
-            stmt.setLong(2, licencia.getConductorId());
-
-            String tipoCorto = licencia.getTipoLicencia();
-            if (tipoCorto.length() > 5) {
-                tipoCorto = tipoCorto.substring(0, 5);
-            }
-            stmt.setString(3, tipoCorto);
-
-            stmt.setDate(4, Date.valueOf(licencia.getFechaEmision()));
-            stmt.setDate(5, Date.valueOf(licencia.getFechaVencimiento()));
-            stmt.setBoolean(6, licencia.isActiva());
-
-            if (licencia.getPruebaPsicometricaId() != null) {
-                stmt.setLong(7, licencia.getPruebaPsicometricaId());
-            } else {
-                stmt.setNull(7, Types.BIGINT);
-            }
+            stmt = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
 
-            stmt.setString(8, licencia.getObservaciones());
+            asignarParametrosInsercion(stmt, licencia);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -111,32 +122,14 @@ public class LicenciaDAO implements Persistible<Licencia> {
      * @throws BaseDatosException Si ocurre un error
      */
     private void actualizar(Licencia licencia) throws BaseDatosException {
-        String sql = "UPDATE licencias SET numero_licencia = ?, conductor_id = ?, " +
-                "tipo_licencia = ?, fecha_emision = ?, fecha_vencimiento = ?, " +
-                "activa = ?, prueba_psicometrica_id = ?, observaciones = ? WHERE id = ?";
-
         Connection conn = null;
         PreparedStatement stmt = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql);
-
-            stmt.setString(1, licencia.getNumeroLicencia());
-            stmt.setLong(2, licencia.getConductorId());
-            stmt.setString(3, licencia.getTipoLicencia());
-            stmt.setDate(4, Date.valueOf(licencia.getFechaEmision()));
-            stmt.setDate(5, Date.valueOf(licencia.getFechaVencimiento()));
-            stmt.setBoolean(6, licencia.isActiva());
+            stmt = conn.prepareStatement(SQL_ACTUALIZAR);
 
-            if (licencia.getPruebaPsicometricaId() != null) {
-                stmt.setLong(7, licencia.getPruebaPsicometricaId());
-            } else {
-                stmt.setNull(7, Types.BIGINT);
-            }
-
-            stmt.setString(8, licencia.getObservaciones());
-            stmt.setLong(9, licencia.getId());
+            asignarParametrosActualizacion(stmt, licencia);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -151,6 +144,151 @@ public class LicenciaDAO implements Persistible<Licencia> {
         }
     }
 
+    /**
+     * Guarda varias licencias en lotes JDBC usando el tamaño de lote configurado
+     * @param licencias Licencias a persistir
+     * @return IDs en el mismo orden de la lista
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    @Override
+    public List<Long> guardarTodos(List<Licencia> licencias) throws BaseDatosException {
+        return guardarTodos(licencias, dbConfig.getTamanoLote());
+    }
+
+    /**
+     * Guarda varias licencias en lotes JDBC. Cada lote es una transacción.
+     * @param licencias Licencias a persistir
+     * @param tamanoLote Número de filas por lote
+     * @return IDs en el mismo orden de la lista
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    public List<Long> guardarTodos(List<Licencia> licencias, int tamanoLote) throws BaseDatosException {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+
+        for (int inicio = 0; inicio < licencias.size(); inicio += tamanoLote) {
+            guardarLote(licencias.subList(inicio, Math.min(inicio + tamanoLote, licencias.size())));
+        }
+
+        List<Long> ids = new ArrayList<>(licencias.size());
+        for (Licencia licencia : licencias) {
+            ids.add(licencia.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserta y actualiza un lote en una sola transacción
+     * @param lote Elementos del lote
+     * @throws BaseDatosException Si ocurre un error (el lote se revierte)
+     */
+    private void guardarLote(List<Licencia> lote) throws BaseDatosException {
+        Connection conn = null;
+        PreparedStatement stmtInsertar = null;
+        PreparedStatement stmtActualizar = null;
+        ResultSet rs = null;
+        List<Licencia> nuevas = new ArrayList<>();
+        List<Long> idsGenerados = new ArrayList<>();
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            conn.setAutoCommit(false);
+
+            for (Licencia licencia : lote) {
+                if (licencia.getId() == null) {
+                    if (stmtInsertar == null) {
+                        stmtInsertar = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
+                    }
+                    asignarParametrosInsercion(stmtInsertar, licencia);
+                    stmtInsertar.addBatch();
+                    nuevas.add(licencia);
+                } else {
+                    if (stmtActualizar == null) {
+                        stmtActualizar = conn.prepareStatement(SQL_ACTUALIZAR);
+                    }
+                    asignarParametrosActualizacion(stmtActualizar, licencia);
+                    stmtActualizar.addBatch();
+                }
+            }
+
+            if (stmtInsertar != null) {
+                stmtInsertar.executeBatch();
+                rs = stmtInsertar.getGeneratedKeys();
+                while (rs.next()) {
+                    idsGenerados.add(rs.getLong(1));
+                }
+                if (idsGenerados.size() != nuevas.size()) {
+                    throw new SQLException("Se esperaban " + nuevas.size() + " IDs generados y se obtuvieron " +
+                            idsGenerados.size());
+                }
+            }
+
+            if (stmtActualizar != null) {
+                stmtActualizar.executeBatch();
+            }
+
+            conn.commit();
+
+            // Los IDs solo se asignan cuando el lote quedó confirmado
+            for (int i = 0; i < nuevas.size(); i++) {
+                nuevas.get(i).setId(idsGenerados.get(i));
+            }
+
+        } catch (SQLException e) {
+            revertir(conn);
+            throw new BaseDatosException("Error al guardar lote de licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmtActualizar, null);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, stmtInsertar, rs);
+        }
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción
+     */
+    private void asignarParametrosInsercion(PreparedStatement stmt, Licencia licencia) throws SQLException {
+        stmt.setString(1, licencia.getNumeroLicencia());
+        stmt.setLong(2, licencia.getConductorId());
+
+        String tipoCorto = licencia.getTipoLicencia();
+        if (tipoCorto.length() > 5) {
+            tipoCorto = tipoCorto.substring(0, 5);
+        }
+        stmt.setString(3, tipoCorto);
+
+        asignarParametrosComunes(stmt, licencia);
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización
+     */
+    private void asignarParametrosActualizacion(PreparedStatement stmt, Licencia licencia) throws SQLException {
+        stmt.setString(1, licencia.getNumeroLicencia());
+        stmt.setLong(2, licencia.getConductorId());
+        stmt.setString(3, licencia.getTipoLicencia());
+        asignarParametrosComunes(stmt, licencia);
+        stmt.setLong(9, licencia.getId());
+    }
+
+    /**
+     * Asigna los parámetros 4 a 8, iguales en inserción y actualización
+     */
+    private void asignarParametrosComunes(PreparedStatement stmt, Licencia licencia) throws SQLException {
+        stmt.setDate(4, Date.valueOf(licencia.getFechaEmision()));
+        stmt.setDate(5, Date.valueOf(licencia.getFechaVencimiento()));
+        stmt.setBoolean(6, licencia.isActiva());
+
+        if (licencia.getPruebaPsicometricaId() != null) {
+            stmt.setLong(7, licencia.getPruebaPsicometricaId());
+        } else {
+            stmt.setNull(7, Types.BIGINT);
+        }
+
+        stmt.setString(8, licencia.getObservaciones());
+    }
+
     /**
      * Busca una licencia por ID
      * @param id ID de la licencia
@@ -185,6 +323,156 @@ public class LicenciaDAO implements Persistible<Licencia> {
         }
     }
 
+    /**
+     * Obtiene la licencia, su conductor y la prueba vinculada en una sola consulta
+     * @param id ID de la licencia
+     * @return Documento con los tres datos o null si la licencia no existe
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public DocumentoLicencia buscarDocumento(Long id) throws BaseDatosException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(SQL_DOCUMENTO);
+            stmt.setLong(1, id);
+
+            rs = stmt.executeQuery();
+
+            if (!rs.next()) {
+                return null;
+            }
+
+            return mapearDocumento(rs);
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al buscar documento de licencia: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Recorre los documentos (licencia, conductor y prueba) de las licencias
+     * que cumplen el filtro con un cursor del servidor, ordenados por fecha de
+     * emisión e ID, sin cargarlos en memoria
+     * @param filtro Criterios de selección; un filtro vacío recorre todas
+     * @param procesador Recibe cada documento
+     * @return Número de documentos entregados al procesador
+     * @throws LicenciaException Si falla la consulta o el procesador
+     */
+    public int recorrerDocumentos(FiltroLicencias filtro, ProcesadorFilas<DocumentoLicencia> procesador)
+            throws LicenciaException {
+        List<Object> parametros = new ArrayList<>();
+        String sql = SQL_DOCUMENTOS + condicionFiltro(filtro, parametros) + " ORDER BY l.fecha_emision, l.id";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        int procesadas = 0;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            // PostgreSQL solo usa cursor (fetchSize) fuera de auto-commit
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConfig.getTamanoFetch());
+            asignarFiltro(stmt, filtro, parametros);
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                procesadas++;
+                if (!procesador.procesar(mapearDocumento(rs))) {
+                    break;
+                }
+            }
+
+            return procesadas;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al recorrer documentos de licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmt, rs);
+            revertir(conn);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+    }
+
+    /**
+     * Cuenta las licencias que cumplen el filtro
+     * @param filtro Criterios de selección; un filtro vacío cuenta todas
+     * @return Número de licencias
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public int contarDocumentos(FiltroLicencias filtro) throws BaseDatosException {
+        List<Object> parametros = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM licencias l" + condicionFiltro(filtro, parametros);
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            asignarFiltro(stmt, filtro, parametros);
+
+            rs = stmt.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al contar licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Condición WHERE del filtro de documentos
+     * @param filtro Criterios de selección
+     * @param parametros Recibe los valores de los parámetros, salvo la lista de IDs
+     * @return Condición que empieza con " WHERE"
+     */
+    private String condicionFiltro(FiltroLicencias filtro, List<Object> parametros) {
+        StringBuilder sql = new StringBuilder(" WHERE 1 = 1");
+
+        if (filtro.getEmitidaDesde() != null) {
+            sql.append(" AND l.fecha_emision >= ?");
+            parametros.add(Date.valueOf(filtro.getEmitidaDesde()));
+        }
+        if (filtro.getEmitidaHasta() != null) {
+            sql.append(" AND l.fecha_emision <= ?");
+            parametros.add(Date.valueOf(filtro.getEmitidaHasta()));
+        }
+        if (filtro.getTipoLicencia() != null && !filtro.getTipoLicencia().isEmpty()) {
+            sql.append(" AND l.tipo_licencia = ?");
+            parametros.add(filtro.getTipoLicencia());
+        }
+        // La lista de IDs va al final: sus parámetros se asignan según el dialecto
+        if (!filtro.getIds().isEmpty()) {
+            sql.append(" AND ").append(dbConfig.getDialecto().enLista("l.id", filtro.getIds().size()));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Asigna los parámetros de {@link #condicionFiltro}
+     */
+    private void asignarFiltro(PreparedStatement stmt, FiltroLicencias filtro, List<Object> parametros)
+            throws SQLException {
+        for (int i = 0; i < parametros.size(); i++) {
+            stmt.setObject(i + 1, parametros.get(i));
+        }
+        if (!filtro.getIds().isEmpty()) {
+            dbConfig.getDialecto().asignarLista(stmt, parametros.size() + 1, "bigint", filtro.getIds());
+        }
+    }
+
     /**
      * Busca una licencia por número
      * @param numeroLicencia Número de licencia
@@ -284,13 +572,178 @@ public class LicenciaDAO implements Persistible<Licencia> {
     }
 
     /**
-     * Obtiene licencias vigentes
+     * Recorre todas las licencias con un cursor del servidor, sin cargarlos en memoria.
+     * La conexión se libera al terminar o cuando el procesador devuelve false.
+     * @param procesador Recibe cada licencia en el mismo orden que obtenerTodas()
+     * @return Número de filas entregadas al procesador
+     * @throws LicenciaException Si falla la consulta o el procesador
+     */
+    public int recorrerTodas(ProcesadorFilas<Licencia> procesador) throws LicenciaException {
+        String sql = "SELECT * FROM licencias ORDER BY fecha_emision DESC";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        int procesadas = 0;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            // PostgreSQL solo usa cursor (fetchSize) fuera de auto-commit
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConfig.getTamanoFetch());
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                procesadas++;
+                if (!procesador.procesar(mapearResultSet(rs))) {
+                    break;
+                }
+            }
+
+            return procesadas;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al recorrer licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmt, rs);
+            revertir(conn);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+    }
+
+    /**
+     * Recorre el listado de licencias (con cédula y nombre del conductor) con
+     * un cursor del servidor, en orden de ID, sin cargarlo en memoria.
+     * @param procesador Recibe cada fila del listado
+     * @return Número de filas entregadas al procesador
+     * @throws LicenciaException Si falla la consulta o el procesador
+     */
+    public long recorrerListado(ProcesadorFilas<LicenciaListado> procesador) throws LicenciaException {
+        String sql = SQL_LISTADO + "ORDER BY l.id";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        long procesadas = 0;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            // PostgreSQL solo usa cursor (fetchSize) fuera de auto-commit
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConfig.getTamanoFetch());
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                procesadas++;
+                if (!procesador.procesar(mapearListado(rs))) {
+                    break;
+                }
+            }
+
+            return procesadas;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al recorrer listado de licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmt, rs);
+            revertir(conn);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, null, null);
+        }
+    }
+
+    /**
+     * Obtiene el listado de todas las licencias con los datos del conductor
+     * @return Lista de filas de listado
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public List<LicenciaListado> obtenerListado() throws BaseDatosException {
+        String sql = SQL_LISTADO + "ORDER BY l.fecha_emision DESC";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<LicenciaListado> listado = new ArrayList<>();
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                listado.add(mapearListado(rs));
+            }
+
+            return listado;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al obtener listado de licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Busca en el listado por número de licencia o, si no hay coincidencia,
+     * por cédula del conductor. Son dos consultas separadas para que cada una
+     * use su índice único (un OR entre las dos tablas del JOIN no puede).
+     * @param criterio Número de licencia o cédula
+     * @return Lista de filas de listado
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public List<LicenciaListado> buscarListado(String criterio) throws BaseDatosException {
+        String sqlNumero = SQL_LISTADO + "WHERE l.numero_licencia = ? ORDER BY l.fecha_emision DESC";
+        String sqlCedula = SQL_LISTADO + "WHERE c.cedula = ? ORDER BY l.fecha_emision DESC";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<LicenciaListado> listado = new ArrayList<>();
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sqlNumero);
+            stmt.setString(1, criterio);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                listado.add(mapearListado(rs));
+            }
+
+            // El número de licencia tiene prioridad sobre la cédula
+            if (listado.isEmpty()) {
+                cerrarRecursos(null, stmt, rs);
+                stmt = conn.prepareStatement(sqlCedula);
+                stmt.setString(1, criterio);
+                rs = stmt.executeQuery();
+                while (rs.next()) {
+                    listado.add(mapearListado(rs));
+                }
+            }
+
+            return listado;
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al buscar listado de licencias: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, rs);
+        }
+    }
+
+    /**
+     * Obtiene licencias vigentes. El barrido de vencimientos marca las
+     * vencidas, así que la consulta usa el índice parcial de licencias no
+     * vencidas; la condición de fecha cubre las que vencieron desde el último barrido.
      * @return Lista de licencias vigentes
      * @throws BaseDatosException Si ocurre un error
      */
     public List<Licencia> obtenerLicenciasVigentes() throws BaseDatosException {
-        String sql = "SELECT * FROM licencias WHERE activa = TRUE AND fecha_vencimiento > CURDATE() " +
-                "ORDER BY fecha_vencimiento";
+        String sql = "SELECT * FROM licencias WHERE vencida = FALSE AND activa = TRUE AND fecha_vencimiento >= " +
+                dbConfig.getDialecto().fechaActual() + " ORDER BY fecha_vencimiento";
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -315,6 +768,36 @@ public class LicenciaDAO implements Persistible<Licencia> {
         }
     }
 
+    /**
+     * Marca como vencido un tramo de licencias que vencieron antes de la fecha
+     * de corte. No toca activa, que sigue indicando solo la desactivación manual.
+     * Cada llamada es un UPDATE corto en auto-commit; se repite hasta que devuelva 0.
+     * @param fechaCorte Se marcan las licencias con vencimiento anterior a esta fecha
+     * @param limite Máximo de filas a actualizar en este tramo
+     * @return Número de licencias marcadas
+     * @throws BaseDatosException Si ocurre un error
+     */
+    public int marcarVencidas(LocalDate fechaCorte, int limite) throws BaseDatosException {
+        String sql = dbConfig.getDialecto().actualizarConLimite("licencias", "vencida = TRUE",
+                "vencida = FALSE AND fecha_vencimiento < ?", limite);
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            stmt = conn.prepareStatement(sql);
+            stmt.setDate(1, Date.valueOf(fechaCorte));
+
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new BaseDatosException("Error al marcar licencias vencidas: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(conn, stmt, null);
+        }
+    }
+
     /**
      * Elimina una licencia
      * @param id ID de la licencia a eliminar
@@ -343,6 +826,22 @@ public class LicenciaDAO implements Persistible<Licencia> {
         }
     }
 
+    /**
+     * Mapea una fila de SQL_DOCUMENTOS (licencia, conductor con prefijo c_ y prueba con prefijo p_)
+     */
+    private DocumentoLicencia mapearDocumento(ResultSet rs) throws SQLException {
+        Licencia licencia = mapearResultSet(rs);
+        Conductor conductor = ConductorDAO.mapearConductor(rs, "c_");
+
+        PruebaPsicometrica prueba = null;
+        rs.getLong("p_id");
+        if (!rs.wasNull()) {
+            prueba = PruebaPsicometricaDAO.mapearPrueba(rs, "p_");
+        }
+
+        return new DocumentoLicencia(licencia, conductor, prueba);
+    }
+
     /**
      * Mapea un ResultSet a un objeto Licencia
      * @param rs ResultSet
@@ -374,6 +873,7 @@ public class LicenciaDAO implements Persistible<Licencia> {
         if (fVencimiento != null) licencia.setFechaVencimiento(fVencimiento.toLocalDate());
 
         licencia.setActiva(rs.getBoolean("activa"));
+        licencia.setVencida(rs.getBoolean("vencida"));
         licencia.setObservaciones(rs.getString("observaciones"));
 
         long pId = rs.getLong("prueba_psicometrica_id");
@@ -383,6 +883,47 @@ public class LicenciaDAO implements Persistible<Licencia> {
 
         return licencia;
     }
+
+    /**
+     * Mapea una fila de la consulta con JOIN a un LicenciaListado
+     * @param rs ResultSet
+     * @return Fila de listado
+     * @throws SQLException Si ocurre un error
+     */
+    private LicenciaListado mapearListado(ResultSet rs) throws SQLException {
+        Licencia licencia = mapearResultSet(rs);
+        String cedula = rs.getString("conductor_cedula");
+        String nombre = cedula != null
+                ? rs.getString("conductor_nombres") + " " + rs.getString("conductor_apellidos")
+                : null;
+        return new LicenciaListado(licencia, nombre, cedula);
+    }
+    /**
+     * Revierte la transacción en curso ignorando errores secundarios
+     */
+    private void revertir(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error al revertir transacción: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Devuelve la conexión a modo auto-commit
+     */
+    private void restaurarAutoCommit(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error al restaurar auto-commit: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Cierra recursos de base de datos
      */
@@ -19,6 +19,14 @@ import java.util.List;
  */
 public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
 
+    private static final String SQL_INSERTAR = "INSERT INTO pruebas_psicometricas (conductor_id, nota_reaccion, " +
+            "nota_atencion, nota_coordinacion, nota_percepcion, nota_psicologica, " +
+            "observaciones, fecha_realizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_ACTUALIZAR = "UPDATE pruebas_psicometricas SET nota_reaccion = ?, nota_atencion = ?, " +
+            "nota_coordinacion = ?, nota_percepcion = ?, nota_psicologica = ?, " +
+            "observaciones = ? WHERE id = ?";
+
     private final DatabaseConfig dbConfig;
 
     /**
@@ -51,26 +59,15 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
      * @throws BaseDatosException Si ocurre un error
      */
     private Long insertar(PruebaPsicometrica prueba) throws BaseDatosException {
-        String sql = "INSERT INTO pruebas_psicometricas (conductor_id, nota_reaccion, " +
-                "nota_atencion, nota_coordinacion, nota_percepcion, nota_psicologica, " +
-                "observaciones, fecha_realizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            stmt = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
 
-            stmt.setLong(1, prueba.getConductorId());
-            stmt.setDouble(2, prueba.getNotaReaccion());
-            stmt.setDouble(3, prueba.getNotaAtencion());
-            stmt.setDouble(4, prueba.getNotaCoordinacion());
-            stmt.setDouble(5, prueba.getNotaPercepcion());
-            stmt.setDouble(6, prueba.getNotaPsicologica());
-            stmt.setString(7, prueba.getObservaciones());
-            stmt.setTimestamp(8, Timestamp.valueOf(prueba.getFechaRealizacion()));
+            asignarParametrosInsercion(stmt, prueba);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -98,24 +95,14 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
      * @throws BaseDatosException Si ocurre un error
      */
     private void actualizar(PruebaPsicometrica prueba) throws BaseDatosException {
-        String sql = "UPDATE pruebas_psicometricas SET nota_reaccion = ?, nota_atencion = ?, " +
-                "nota_coordinacion = ?, nota_percepcion = ?, nota_psicologica = ?, " +
-                "observaciones = ? WHERE id = ?";
-
         Connection conn = null;
         PreparedStatement stmt = null;
 
         try {
             conn = dbConfig.obtenerConexion();
-            stmt = conn.prepareStatement(sql);
+            stmt = conn.prepareStatement(SQL_ACTUALIZAR);
 
-            stmt.setDouble(1, prueba.getNotaReaccion());
-            stmt.setDouble(2, prueba.getNotaAtencion());
-            stmt.setDouble(3, prueba.getNotaCoordinacion());
-            stmt.setDouble(4, prueba.getNotaPercepcion());
-            stmt.setDouble(5, prueba.getNotaPsicologica());
-            stmt.setString(6, prueba.getObservaciones());
-            stmt.setLong(7, prueba.getId());
+            asignarParametrosActualizacion(stmt, prueba);
 
             int filasAfectadas = stmt.executeUpdate();
 
@@ -130,6 +117,134 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
         }
     }
 
+    /**
+     * Guarda varias pruebas en lotes JDBC usando el tamaño de lote configurado
+     * @param pruebas Pruebas a persistir
+     * @return IDs de las pruebas en el mismo orden
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    @Override
+    public List<Long> guardarTodos(List<PruebaPsicometrica> pruebas) throws BaseDatosException {
+        return guardarTodos(pruebas, dbConfig.getTamanoLote());
+    }
+
+    /**
+     * Guarda varias pruebas en lotes JDBC. Cada lote es una transacción.
+     * @param pruebas Pruebas a persistir
+     * @param tamanoLote Número de filas por lote
+     * @return IDs de las pruebas en el mismo orden
+     * @throws BaseDatosException Si ocurre un error en algún lote
+     */
+    public List<Long> guardarTodos(List<PruebaPsicometrica> pruebas, int tamanoLote) throws BaseDatosException {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+
+        for (int inicio = 0; inicio < pruebas.size(); inicio += tamanoLote) {
+            guardarLote(pruebas.subList(inicio, Math.min(inicio + tamanoLote, pruebas.size())));
+        }
+
+        List<Long> ids = new ArrayList<>(pruebas.size());
+        for (PruebaPsicometrica prueba : pruebas) {
+            ids.add(prueba.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserta y actualiza un lote de pruebas en una sola transacción
+     * @param lote Pruebas del lote
+     * @throws BaseDatosException Si ocurre un error (el lote se revierte)
+     */
+    private void guardarLote(List<PruebaPsicometrica> lote) throws BaseDatosException {
+        Connection conn = null;
+        PreparedStatement stmtInsertar = null;
+        PreparedStatement stmtActualizar = null;
+        ResultSet rs = null;
+        List<PruebaPsicometrica> nuevas = new ArrayList<>();
+        List<Long> idsGenerados = new ArrayList<>();
+
+        try {
+            conn = dbConfig.obtenerConexion();
+            conn.setAutoCommit(false);
+
+            for (PruebaPsicometrica prueba : lote) {
+                if (prueba.getId() == null) {
+                    if (stmtInsertar == null) {
+                        stmtInsertar = conn.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS);
+                    }
+                    asignarParametrosInsercion(stmtInsertar, prueba);
+                    stmtInsertar.addBatch();
+                    nuevas.add(prueba);
+                } else {
+                    if (stmtActualizar == null) {
+                        stmtActualizar = conn.prepareStatement(SQL_ACTUALIZAR);
+                    }
+                    asignarParametrosActualizacion(stmtActualizar, prueba);
+                    stmtActualizar.addBatch();
+                }
+            }
+
+            if (stmtInsertar != null) {
+                stmtInsertar.executeBatch();
+                rs = stmtInsertar.getGeneratedKeys();
+                while (rs.next()) {
+                    idsGenerados.add(rs.getLong(1));
+                }
+                if (idsGenerados.size() != nuevas.size()) {
+                    throw new SQLException("Se esperaban " + nuevas.size() + " IDs generados y se obtuvieron " +
+                            idsGenerados.size());
+                }
+            }
+
+            if (stmtActualizar != null) {
+                stmtActualizar.executeBatch();
+            }
+
+            conn.commit();
+
+            // Los IDs solo se asignan cuando el lote quedó confirmado
+            for (int i = 0; i < nuevas.size(); i++) {
+                nuevas.get(i).setId(idsGenerados.get(i));
+            }
+
+        } catch (SQLException e) {
+            revertir(conn);
+            throw new BaseDatosException("Error al guardar lote de pruebas psicométricas: " + e.getMessage(), e);
+        } finally {
+            cerrarRecursos(null, stmtActualizar, null);
+            restaurarAutoCommit(conn);
+            cerrarRecursos(conn, stmtInsertar, rs);
+        }
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción
+     */
+    private void asignarParametrosInsercion(PreparedStatement stmt, PruebaPsicometrica prueba) throws SQLException {
+        stmt.setLong(1, prueba.getConductorId());
+        stmt.setDouble(2, prueba.getNotaReaccion());
+        stmt.setDouble(3, prueba.getNotaAtencion());
+        stmt.setDouble(4, prueba.getNotaCoordinacion());
+        stmt.setDouble(5, prueba.getNotaPercepcion());
+        stmt.setDouble(6, prueba.getNotaPsicologica());
+        stmt.setString(7, prueba.getObservaciones());
+        stmt.setTimestamp(8, Timestamp.valueOf(prueba.getFechaRealizacion()));
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización
+     */
+    private void asignarParametrosActualizacion(PreparedStatement stmt, PruebaPsicometrica prueba) throws SQLException {
+        stmt.setDouble(1, prueba.getNotaReaccion());
+        stmt.setDouble(2, prueba.getNotaAtencion());
+        stmt.setDouble(3, prueba.getNotaCoordinacion());
+        stmt.setDouble(4, prueba.getNotaPercepcion());
+        stmt.setDouble(5, prueba.getNotaPsicologica());
+        stmt.setString(6, prueba.getObservaciones());
+        stmt.setLong(7, prueba.getId());
+    }
+
     /**
      * Busca una prueba por ID
      * @param id ID de la prueba
@@ -206,10 +321,10 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
      * @throws BaseDatosException Si ocurre un error
      */
     public PruebaPsicometrica obtenerUltimaPruebaAprobada(Long conductorId) throws BaseDatosException {
-        String sql = "SELECT * FROM pruebas_psicometricas " +
+        String sql = dbConfig.getDialecto().limitar("SELECT * FROM pruebas_psicometricas " +
                 "WHERE conductor_id = ? " +
                 "AND ((nota_reaccion + nota_atencion + nota_coordinacion + nota_percepcion + nota_psicologica) / 5) >= 70.0 " +
-                "ORDER BY fecha_realizacion DESC LIMIT 1";
+                "ORDER BY fecha_realizacion DESC", 1);
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -236,18 +351,29 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
     }
 
     private PruebaPsicometrica mapearResultSet(ResultSet rs) throws SQLException {
+        return mapearPrueba(rs, "");
+    }
+
+    /**
+     * Mapea columnas de prueba psicométrica con prefijo (consultas con JOIN de otros DAO)
+     * @param rs ResultSet
+     * @param prefijo Prefijo de los alias de columna, por ejemplo "p_"
+     * @return Objeto PruebaPsicometrica
+     * @throws SQLException Si ocurre un error
+     */
+    static PruebaPsicometrica mapearPrueba(ResultSet rs, String prefijo) throws SQLException {
         PruebaPsicometrica prueba = new PruebaPsicometrica();
 
-        prueba.setId(rs.getLong("id"));
-        prueba.setConductorId(rs.getLong("conductor_id"));
-        prueba.setNotaReaccion(rs.getDouble("nota_reaccion"));
-        prueba.setNotaAtencion(rs.getDouble("nota_atencion"));
-        prueba.setNotaCoordinacion(rs.getDouble("nota_coordinacion"));
-        prueba.setNotaPercepcion(rs.getDouble("nota_percepcion"));
-        prueba.setNotaPsicologica(rs.getDouble("nota_psicologica"));
-        prueba.setObservaciones(rs.getString("observaciones"));
+        prueba.setId(rs.getLong(prefijo + "id"));
+        prueba.setConductorId(rs.getLong(prefijo + "conductor_id"));
+        prueba.setNotaReaccion(rs.getDouble(prefijo + "nota_reaccion"));
+        prueba.setNotaAtencion(rs.getDouble(prefijo + "nota_atencion"));
+        prueba.setNotaCoordinacion(rs.getDouble(prefijo + "nota_coordinacion"));
+        prueba.setNotaPercepcion(rs.getDouble(prefijo + "nota_percepcion"));
+        prueba.setNotaPsicologica(rs.getDouble(prefijo + "nota_psicologica"));
+        prueba.setObservaciones(rs.getString(prefijo + "observaciones"));
 
-        Timestamp fechaPrueba = rs.getTimestamp("fecha_realizacion");
+        Timestamp fechaPrueba = rs.getTimestamp(prefijo + "fecha_realizacion");
         if (fechaPrueba != null) {
             prueba.setFechaRealizacion(fechaPrueba.toLocalDateTime());
         }
@@ -282,6 +408,32 @@ public class PruebaPsicometricaDAO implements Persistible<PruebaPsicometrica> {
      * @return Objeto PruebaPsicometrica
      * @throws SQLException Si ocurre un error
 
+    /**
+     * Revierte la transacción en curso ignorando errores secundarios
+     */
+    private void revertir(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error al revertir transacción: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Devuelve la conexión a modo auto-commit
+     */
+    private void restaurarAutoCommit(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error al restaurar auto-commit: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Cierra recursos de base de datos
      */
@@ -4,9 +4,11 @@ import ec.edu.sistemalicencias.model.TipoSangreConstantes;
 import ec.edu.sistemalicencias.model.exceptions.DatosInvalidosException;
 import ec.edu.sistemalicencias.model.exceptions.DocumentoInvalidoException;
 import ec.edu.sistemalicencias.model.interfaces.Validable;
+import ec.edu.sistemalicencias.util.ValidadorCedula;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.regex.Pattern;
 
 /**
  * Entidad que representa a un conductor que solicita una licencia.
@@ -17,6 +19,10 @@ import java.time.Period;
  */
 public class Conductor implements Validable {
 
+    // Compilados una vez: la importación masiva valida miles de conductores por segundo
+    private static final Pattern FORMATO_TELEFONO = Pattern.compile("\\d{9,10}");
+    private static final Pattern FORMATO_EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
     // Atributos privados (Encapsulamiento)
     private Long id;
     private String cedula;
@@ -72,7 +78,7 @@ public class Conductor implements Validable {
      * @throws DatosInvalidosException Si la cédula no tiene el formato correcto
      */
     public void setCedula(String cedula) {
-        if (cedula == null || !cedula.matches("\\d{10}")) {
+        if (!ValidadorCedula.tieneFormato(cedula)) {
             throw new DatosInvalidosException("La cédula debe contener exactamente 10 dígitos");
         }
         this.cedula = cedula;
@@ -135,7 +141,7 @@ public class Conductor implements Validable {
      * @param telefono Número de teléfono (10 dígitos)
      */
     public void setTelefono(String telefono) {
-        if (telefono != null && !telefono.matches("\\d{9,10}")) {
+        if (telefono != null && !FORMATO_TELEFONO.matcher(telefono).matches()) {
             throw new DatosInvalidosException("El teléfono debe contener 9 o 10 dígitos");
         }
         this.telefono = telefono;
@@ -150,7 +156,7 @@ public class Conductor implements Validable {
      * @param email Correo electrónico
      */
     public void setEmail(String email) {
-        if (email != null && !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (email != null && !FORMATO_EMAIL.matcher(email).matches()) {
             throw new DatosInvalidosException("El formato del email no es válido");
         }
         this.email = email;
@@ -206,51 +212,6 @@ public class Conductor implements Validable {
         return nombres + " " + apellidos;
     }
 
-    /**
-     * Valida la cédula ecuatoriana usando el algoritmo del módulo 10
-     * @param cedula Número de cédula a validar
-     * @return true si la cédula es válida, false en caso contrario
-     */
-    private boolean validarCedulaEcuatoriana(String cedula) {
-        if (cedula == null || cedula.length() != 10) {
-            return false;
-        }
-
-        try {
-            // Validar que los dos primeros dígitos correspondan a una provincia válida (01-24)
-            int provincia = Integer.parseInt(cedula.substring(0, 2));
-            if (provincia < 1 || provincia > 24) {
-                return false;
-            }
-
-            // Validar el tercer dígito (debe ser menor a 6 para cédulas de personas naturales)
-            int tercerDigito = Integer.parseInt(cedula.substring(2, 3));
-            if (tercerDigito > 5) {
-                return false;
-            }
-
-            // Algoritmo de validación del dígito verificador
-            int[] coeficientes = {2, 1, 2, 1, 2, 1, 2, 1, 2};
-            int suma = 0;
-
-            for (int i = 0; i < 9; i++) {
-                int valor = Integer.parseInt(cedula.substring(i, i + 1)) * coeficientes[i];
-                if (valor >= 10) {
-                    valor -= 9;
-                }
-                suma += valor;
-            }
-
-            int digitoVerificador = Integer.parseInt(cedula.substring(9, 10));
-            int residuo = suma % 10;
-            int resultado = residuo == 0 ? 0 : 10 - residuo;
-
-            return resultado == digitoVerificador;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
     /**
      * Implementación del método validar de la interface Validable
      * @return true si todos los datos son válidos
@@ -261,7 +222,7 @@ public class Conductor implements Validable {
         StringBuilder errores = new StringBuilder();
 
         // Validar cédula
-        if (!validarCedulaEcuatoriana(cedula)) {
+        if (!ValidadorCedula.esValida(cedula)) {
             errores.append("- Cédula ecuatoriana inválida\n");
         }
 
@@ -0,0 +1,39 @@
+package ec.edu.sistemalicencias.model.entities;
+
+/**
+ * Datos necesarios para imprimir una licencia: la licencia, su conductor
+ * y la prueba psicométrica vinculada, leídos en una sola consulta.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class DocumentoLicencia {
+
+    private final Licencia licencia;
+    private final Conductor conductor;
+    private final PruebaPsicometrica prueba;
+
+    /**
+     * Constructor
+     * @param licencia Licencia a imprimir
+     * @param conductor Titular de la licencia
+     * @param prueba Prueba psicométrica vinculada o null si no tiene
+     */
+    public DocumentoLicencia(Licencia licencia, Conductor conductor, PruebaPsicometrica prueba) {
+        this.licencia = licencia;
+        this.conductor = conductor;
+        this.prueba = prueba;
+    }
+
+    public Licencia getLicencia() {
+        return licencia;
+    }
+
+    public Conductor getConductor() {
+        return conductor;
+    }
+
+    public PruebaPsicometrica getPrueba() {
+        return prueba;
+    }
+}
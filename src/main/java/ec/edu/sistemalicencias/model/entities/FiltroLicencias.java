@@ -0,0 +1,74 @@
+package ec.edu.sistemalicencias.model.entities;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criterios para seleccionar licencias en operaciones masivas
+ * (por ejemplo la exportación de PDFs). Los criterios vacíos no filtran;
+ * los indicados se combinan con AND.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class FiltroLicencias {
+
+    private LocalDate emitidaDesde;
+    private LocalDate emitidaHasta;
+    private String tipoLicencia;
+    private List<Long> ids = new ArrayList<>();
+
+    /**
+     * Indica si no hay ningún criterio (seleccionaría todas las licencias)
+     * @return true si el filtro está vacío
+     */
+    public boolean estaVacio() {
+        return emitidaDesde == null && emitidaHasta == null
+                && (tipoLicencia == null || tipoLicencia.isEmpty()) && ids.isEmpty();
+    }
+
+    public LocalDate getEmitidaDesde() {
+        return emitidaDesde;
+    }
+
+    /**
+     * @param emitidaDesde Fecha de emisión mínima (inclusive) o null
+     */
+    public void setEmitidaDesde(LocalDate emitidaDesde) {
+        this.emitidaDesde = emitidaDesde;
+    }
+
+    public LocalDate getEmitidaHasta() {
+        return emitidaHasta;
+    }
+
+    /**
+     * @param emitidaHasta Fecha de emisión máxima (inclusive) o null
+     */
+    public void setEmitidaHasta(LocalDate emitidaHasta) {
+        this.emitidaHasta = emitidaHasta;
+    }
+
+    public String getTipoLicencia() {
+        return tipoLicencia;
+    }
+
+    /**
+     * @param tipoLicencia Tipo de licencia (A, B, C...) o null para todos
+     */
+    public void setTipoLicencia(String tipoLicencia) {
+        this.tipoLicencia = tipoLicencia;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * @param ids IDs de licencias a incluir; vacía para no filtrar por ID
+     */
+    public void setIds(List<Long> ids) {
+        this.ids = ids != null ? new ArrayList<>(ids) : new ArrayList<>();
+    }
+}
@@ -25,6 +25,7 @@ public class Licencia implements Validable {
     private LocalDate fechaEmision;
     private LocalDate fechaVencimiento;
     private boolean activa;
+    private boolean vencida; // Marcada por el barrido de vencimientos
     private String observaciones;
     private Long pruebaPsicometricaId;
 
@@ -115,6 +116,14 @@ public class Licencia implements Validable {
         this.activa = activa;
     }
 
+    public boolean isVencida() {
+        return vencida;
+    }
+
+    public void setVencida(boolean vencida) {
+        this.vencida = vencida;
+    }
+
     public String getObservaciones() {
         return observaciones;
     }
@@ -154,10 +163,11 @@ public class Licencia implements Validable {
 
     /**
      * Verifica si la licencia está vencida
-     * @return true si la fecha actual es posterior a la fecha de vencimiento
+     * @return true si el barrido la marcó como vencida o si la fecha actual
+     * es posterior a la fecha de vencimiento
      */
     public boolean estaVencida() {
-        return LocalDate.now().isAfter(fechaVencimiento);
+        return vencida || LocalDate.now().isAfter(fechaVencimiento);
     }
 
     /**
@@ -0,0 +1,84 @@
+package ec.edu.sistemalicencias.model.entities;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de solo lectura para listados de licencias.
+ * Reúne los datos de la licencia con el nombre y la cédula del conductor,
+ * obtenidos en una sola consulta con JOIN.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class LicenciaListado {
+
+    private final Licencia licencia;
+    private final String nombreConductor;
+    private final String cedulaConductor;
+
+    /**
+     * Constructor
+     * @param licencia Licencia leída de la base de datos (no se expone)
+     * @param nombreConductor Nombre completo del conductor o null si no existe
+     * @param cedulaConductor Cédula del conductor o null si no existe
+     */
+    public LicenciaListado(Licencia licencia, String nombreConductor, String cedulaConductor) {
+        this.licencia = licencia;
+        this.nombreConductor = nombreConductor;
+        this.cedulaConductor = cedulaConductor;
+    }
+
+    public Long getId() {
+        return licencia.getId();
+    }
+
+    public String getNumeroLicencia() {
+        return licencia.getNumeroLicencia();
+    }
+
+    public Long getConductorId() {
+        return licencia.getConductorId();
+    }
+
+    public String getTipoLicencia() {
+        return licencia.getTipoLicencia();
+    }
+
+    public LocalDate getFechaEmision() {
+        return licencia.getFechaEmision();
+    }
+
+    public LocalDate getFechaVencimiento() {
+        return licencia.getFechaVencimiento();
+    }
+
+    public boolean isActiva() {
+        return licencia.isActiva();
+    }
+
+    public String getNombreConductor() {
+        return nombreConductor;
+    }
+
+    public String getCedulaConductor() {
+        return cedulaConductor;
+    }
+
+    /**
+     * Obtiene el estado descriptivo de la licencia
+     * @return Estado (VIGENTE, VENCIDA, INACTIVA, POR VENCER)
+     */
+    public String obtenerEstado() {
+        return licencia.obtenerEstado();
+    }
+
+    @Override
+    public String toString() {
+        return "LicenciaListado{" +
+                "numeroLicencia='" + getNumeroLicencia() + '\'' +
+                ", conductor='" + nombreConductor + '\'' +
+                ", cedula='" + cedulaConductor + '\'' +
+                ", estado=" + obtenerEstado() +
+                '}';
+    }
+}
@@ -2,6 +2,8 @@ package ec.edu.sistemalicencias.model.interfaces;
 
 import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
 
+import java.util.List;
+
 /**
  * Interface que define el contrato para entidades persistibles en base de datos.
  * Abstrae las operaciones CRUD básicas.
@@ -20,6 +22,16 @@ public interface Persistible<T> {
      */
     Long guardar(T entidad) throws BaseDatosException;
 
+    /**
+     * Guarda o actualiza varias entidades usando lotes JDBC.
+     * Cada lote se confirma en su propia transacción y los IDs generados
+     * se asignan a las entidades en el mismo orden de la lista.
+     * @param entidades Objetos a persistir
+     * @return IDs de las entidades, en el mismo orden de la lista
+     * @throws BaseDatosException Si falla algún lote (ese lote se revierte)
+     */
+    List<Long> guardarTodos(List<T> entidades) throws BaseDatosException;
+
     /**
      * Busca una entidad por su ID.
      * @param id Identificador único de la entidad
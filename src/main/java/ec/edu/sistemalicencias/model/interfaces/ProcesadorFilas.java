@@ -0,0 +1,21 @@
+package ec.edu.sistemalicencias.model.interfaces;
+
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+
+/**
+ * Interface que recibe, una por una, las filas de un recorrido con cursor.
+ * Permite procesar tablas grandes sin cargarlas completas en memoria.
+ *
+ * @param <T> Tipo de entidad recorrida
+ */
+@FunctionalInterface
+public interface ProcesadorFilas<T> {
+
+    /**
+     * Procesa una fila del recorrido
+     * @param fila Entidad leída
+     * @return true para continuar, false para detener el recorrido
+     * @throws LicenciaException Si el procesamiento falla (el recorrido se detiene)
+     */
+    boolean procesar(T fila) throws LicenciaException;
+}
@@ -0,0 +1,164 @@
+package ec.edu.sistemalicencias.service;
+
+import ec.edu.sistemalicencias.dao.BarridoVencimientoDAO;
+import ec.edu.sistemalicencias.dao.LicenciaDAO;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Barrido programado que marca las licencias vencidas.
+ *
+ * Las licencias con vencimiento anterior a la fecha del servidor de base de
+ * datos pasan a vencida = TRUE en tramos de UPDATE acotados, cada uno en su
+ * propia transacción, para no bloquear la tabla ni generar una transacción
+ * larga. Cada barrido queda registrado con su fecha de corte y las filas
+ * actualizadas; si ya hay un barrido terminado con la fecha de hoy no se repite.
+ * La columna activa no se toca: sigue indicando solo la desactivación manual
+ * (LicenciaService.desactivarLicencia).
+ * Se ejecuta al iniciar y luego una vez al día a la hora configurada.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class BarridoVencimientos {
+
+    private static final Logger REGISTRO = Logger.getLogger(BarridoVencimientos.class.getName());
+
+    private final LicenciaDAO licenciaDAO;
+    private final BarridoVencimientoDAO barridoDAO;
+    private final int tamanoTramo;
+    private final LocalTime hora;
+
+    private ScheduledExecutorService programador;
+
+    /**
+     * Constructor con los valores de las propiedades del sistema
+     * licencias.barrido.lote (filas por tramo, 1000) y licencias.barrido.hora (00:05)
+     */
+    public BarridoVencimientos() {
+        this(new LicenciaDAO(), new BarridoVencimientoDAO(),
+                Integer.getInteger("licencias.barrido.lote", 1_000),
+                LocalTime.parse(System.getProperty("licencias.barrido.hora", "00:05")));
+    }
+
+    /**
+     * Constructor
+     * @param licenciaDAO DAO de licencias
+     * @param barridoDAO DAO del registro de barridos
+     * @param tamanoTramo Máximo de licencias por UPDATE
+     * @param hora Hora del día a la que se ejecuta el barrido programado
+     */
+    public BarridoVencimientos(LicenciaDAO licenciaDAO, BarridoVencimientoDAO barridoDAO,
+                               int tamanoTramo, LocalTime hora) {
+        this.licenciaDAO = licenciaDAO;
+        this.barridoDAO = barridoDAO;
+        this.tamanoTramo = Math.max(1, tamanoTramo);
+        this.hora = hora;
+    }
+
+    /**
+     * Ejecuta el barrido ahora si el último terminado no cubre la fecha actual
+     * @return Licencias marcadas como vencidas (0 si no había barrido pendiente)
+     * @throws LicenciaException Si falla la base de datos o se interrumpe el hilo
+     */
+    public int ejecutarSiPendiente() throws LicenciaException {
+        LocalDate hoy = barridoDAO.obtenerFechaActual();
+        LocalDate ultimoCorte = barridoDAO.obtenerUltimoCorte();
+        if (ultimoCorte != null && !ultimoCorte.isBefore(hoy)) {
+            return 0;
+        }
+        return ejecutar(hoy);
+    }
+
+    /**
+     * Marca las licencias con vencimiento anterior a la fecha de corte
+     * @param fechaCorte Fecha de corte
+     * @return Licencias marcadas como vencidas
+     * @throws LicenciaException Si falla la base de datos o se interrumpe el hilo
+     */
+    public int ejecutar(LocalDate fechaCorte) throws LicenciaException {
+        long inicio = System.currentTimeMillis();
+        barridoDAO.registrarInicio(fechaCorte);
+
+        int total = 0;
+        int tramos = 0;
+        int actualizadas;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new LicenciaException("Barrido de vencimientos interrumpido tras " + total + " licencias");
+            }
+            actualizadas = licenciaDAO.marcarVencidas(fechaCorte, tamanoTramo);
+            total += actualizadas;
+            tramos++;
+        } while (actualizadas == tamanoTramo);
+
+        barridoDAO.registrarFin(fechaCorte, total);
+        REGISTRO.info("Barrido de vencimientos al " + fechaCorte + ": " + total
+                + " licencias marcadas como vencidas en " + tramos + " tramos, "
+                + (System.currentTimeMillis() - inicio) + " ms");
+        return total;
+    }
+
+    /**
+     * Programa el barrido: uno inmediato y luego uno diario a la hora configurada.
+     * El hilo es daemon y no impide que termine la aplicación.
+     */
+    public synchronized void iniciar() {
+        if (programador != null) {
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "barrido-vencimientos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.execute(this::ejecutarProgramado);
+    }
+
+    /**
+     * Cancela el barrido programado (interrumpe el que esté en curso entre tramos)
+     */
+    public synchronized void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador = null;
+        }
+    }
+
+    private void ejecutarProgramado() {
+        try {
+            ejecutarSiPendiente();
+        } catch (LicenciaException e) {
+            REGISTRO.warning("Error en el barrido de vencimientos: " + e.getMessage());
+        } catch (RuntimeException e) {
+            REGISTRO.log(Level.SEVERE, "Error inesperado en el barrido de vencimientos: " + e.getMessage(), e);
+        }
+        programarSiguiente();
+    }
+
+    /**
+     * Se reprograma en cada ejecución en lugar de usar un periodo fijo de 24 h
+     * para mantener la hora del día aunque cambie el horario local
+     */
+    private synchronized void programarSiguiente() {
+        if (programador == null || programador.isShutdown()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime siguiente = ahora.toLocalDate().atTime(hora);
+        if (!siguiente.isAfter(ahora)) {
+            siguiente = siguiente.plusDays(1);
+        }
+        programador.schedule(this::ejecutarProgramado,
+                Duration.between(ahora, siguiente).toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,50 @@
+package ec.edu.sistemalicencias.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de Java Flight Recorder de una operación de negocio de
+ * {@link LicenciaService}. Las sentencias JDBC y préstamos de conexión que
+ * hace la operación quedan como eventos anidados en el mismo hilo, así que
+ * en una grabación se ve qué flujo es lento y en qué se le va el tiempo.
+ * Lo emite LicenciaService.registrarEvento; la clase solo declara los campos
+ * porque JFR instrumenta el bytecode de las clases de evento.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+@Name("ec.edu.sistemalicencias.OperacionLicencia")
+@Label("Operación de licencias")
+@Category({"Sistema Licencias", "Servicio"})
+@Description("Operación de negocio de LicenciaService")
+final class EventoOperacionLicencia extends Event {
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("ID del conductor")
+    @Description("0 si no se llegó a conocer")
+    long conductorId;
+
+    @Label("Resultado")
+    @Description("EXITO, RECHAZADA (regla de negocio o validación) o ERROR")
+    String resultado;
+
+    @Label("Idas a la base de datos")
+    @Description("Sentencias ejecutadas por la operación")
+    long idasBaseDatos;
+
+    @Label("Mensaje")
+    @Description("Mensaje de la excepción, con las cédulas enmascaradas")
+    String mensaje;
+
+    void setConductorId(Long conductorId) {
+        if (conductorId != null) {
+            this.conductorId = conductorId;
+        }
+    }
+}
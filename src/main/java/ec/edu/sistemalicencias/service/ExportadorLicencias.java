@@ -0,0 +1,348 @@
+package ec.edu.sistemalicencias.service;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfCopy;
+import com.itextpdf.text.pdf.PdfReader;
+import ec.edu.sistemalicencias.dao.LicenciaDAO;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
+import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.model.interfaces.ProcesadorFilas;
+import ec.edu.sistemalicencias.util.PDFGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exportación masiva de licencias a PDF.
+ * Los documentos se leen con un cursor del servidor y se generan en paralelo
+ * en un pool de tamaño fijo (por defecto un hilo por procesador). La lectura
+ * avanza solo cuando hay lugar en una ventana de 2 × paralelismo documentos,
+ * así que en ningún momento hay más que esos en memoria. En modo directorio
+ * cada PDF se escribe directo a disco; en modo combinado se generan en
+ * memoria y se copian al archivo en orden. En ambos casos la memoria no
+ * crece con la cantidad de licencias.
+ *
+ * Se cancela interrumpiendo el hilo que llama a exportar (por ejemplo
+ * cancelando el future de {@link LicenciaServiceAsync}); los archivos ya
+ * generados en esa ejecución se eliminan.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class ExportadorLicencias {
+
+    /**
+     * Recibe el avance de la exportación (en el hilo que exporta)
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void actualizar(int generadas, int total);
+    }
+
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+
+    private final LicenciaDAO licenciaDAO;
+    private final int paralelismo;
+
+    /**
+     * Constructor con un hilo de generación por procesador
+     * @param licenciaDAO DAO para leer los documentos
+     */
+    public ExportadorLicencias(LicenciaDAO licenciaDAO) {
+        this(licenciaDAO, Integer.getInteger("licencias.exportacion.hilos",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructor
+     * @param licenciaDAO DAO para leer los documentos
+     * @param paralelismo Número máximo de PDFs generándose a la vez
+     */
+    public ExportadorLicencias(LicenciaDAO licenciaDAO, int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor que cero");
+        }
+        this.licenciaDAO = licenciaDAO;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Genera un PDF por licencia en un directorio (Licencia_<número>.pdf).
+     * Si falla uno o se cancela, se eliminan los generados en esta ejecución.
+     * @param filtro Licencias a exportar
+     * @param directorio Directorio de salida (se crea si no existe)
+     * @param progreso Avance, o null
+     * @return Número de PDFs generados
+     * @throws LicenciaException Si falla la consulta, algún PDF o se cancela
+     */
+    public int exportarADirectorio(FiltroLicencias filtro, File directorio, Progreso progreso)
+            throws LicenciaException {
+        int total = contarDocumentos(filtro);
+        if (progreso != null) {
+            progreso.actualizar(0, total);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new LicenciaException("No se pudo crear el directorio: " + directorio);
+        }
+
+        ExecutorService pool = crearPool(total);
+        CompletionService<File> completados = new ExecutorCompletionService<>(pool);
+        Semaphore ventana = new Semaphore(paralelismo * 2);
+        Queue<File> iniciados = new ConcurrentLinkedQueue<>();
+        AtomicInteger enviadas = new AtomicInteger();
+        AtomicInteger generadas = new AtomicInteger();
+        boolean exito = false;
+
+        try {
+            recorrerDocumentos(filtro, documento -> {
+                esperarLugar(ventana);
+                File destino = new File(directorio, nombreArchivo(documento));
+                completados.submit(() -> {
+                    try {
+                        iniciados.add(destino);
+                        generar(documento, destino);
+                        return destino;
+                    } finally {
+                        ventana.release();
+                    }
+                });
+                enviadas.incrementAndGet();
+
+                // Recoger los terminados sin esperar, para informar el avance y cortar ante un error
+                Future<File> terminado;
+                while ((terminado = completados.poll()) != null) {
+                    obtener(terminado);
+                    informar(progreso, generadas.incrementAndGet(), total);
+                }
+                return true;
+            });
+
+            while (generadas.get() < enviadas.get()) {
+                obtener(tomar(completados));
+                informar(progreso, generadas.incrementAndGet(), total);
+            }
+            exito = true;
+            return generadas.get();
+
+        } finally {
+            pool.shutdownNow();
+            if (!exito) {
+                // Solo se borra lo que esta ejecución llegó a escribir
+                esperarTerminacion(pool);
+                for (File destino : iniciados) {
+                    destino.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Genera todas las licencias en un único PDF, en orden de emisión.
+     * Los PDFs individuales se generan en memoria y se copian al archivo en
+     * orden; como máximo 2 × paralelismo esperan su turno a la vez.
+     * @param filtro Licencias a exportar
+     * @param archivo PDF de salida (no se crea si ninguna licencia cumple el filtro)
+     * @param progreso Avance, o null
+     * @return Número de licencias incluidas
+     * @throws LicenciaException Si falla la consulta, algún PDF o se cancela
+     */
+    public int exportarCombinado(FiltroLicencias filtro, File archivo, Progreso progreso)
+            throws LicenciaException {
+        int total = contarDocumentos(filtro);
+        if (progreso != null) {
+            progreso.actualizar(0, total);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        ExecutorService pool = crearPool(total);
+        Deque<Future<byte[]>> pendientes = new ArrayDeque<>();
+        int ventana = paralelismo * 2;
+        AtomicInteger unidas = new AtomicInteger();
+        boolean exito = false;
+
+        Document documento = new Document();
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo))) {
+            PdfCopy copia = new PdfCopy(documento, salida);
+            documento.open();
+
+            recorrerDocumentos(filtro, fila -> {
+                // La lectura espera a que se copie el más antiguo cuando la ventana está llena
+                if (pendientes.size() >= ventana) {
+                    unir(copia, pendientes.poll());
+                    informar(progreso, unidas.incrementAndGet(), total);
+                }
+                pendientes.add(pool.submit(() -> generarEnMemoria(fila)));
+                return true;
+            });
+
+            while (!pendientes.isEmpty()) {
+                unir(copia, pendientes.poll());
+                informar(progreso, unidas.incrementAndGet(), total);
+            }
+
+            documento.close();
+            exito = true;
+            return unidas.get();
+
+        } catch (DocumentException | IOException e) {
+            throw new LicenciaException("Error al escribir el PDF combinado: " + e.getMessage(), e);
+        } finally {
+            pool.shutdownNow();
+            if (!exito) {
+                archivo.delete();
+            }
+        }
+    }
+
+    private int contarDocumentos(FiltroLicencias filtro) throws LicenciaException {
+        try {
+            return licenciaDAO.contarDocumentos(filtro);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al obtener licencias para exportar", e);
+        }
+    }
+
+    /**
+     * Recorre los documentos con el cursor del DAO. Los errores de la consulta
+     * se informan como error de lectura; los del procesador pasan sin cambios.
+     */
+    private void recorrerDocumentos(FiltroLicencias filtro, ProcesadorFilas<DocumentoLicencia> procesador)
+            throws LicenciaException {
+        try {
+            licenciaDAO.recorrerDocumentos(filtro, procesador);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al obtener licencias para exportar", e);
+        }
+    }
+
+    /**
+     * Copia al PDF combinado el PDF generado por la tarea, esperándola si hace falta
+     */
+    private static void unir(PdfCopy copia, Future<byte[]> tarea) throws LicenciaException {
+        byte[] pdf = obtener(tarea);
+        try {
+            PdfReader lector = new PdfReader(pdf);
+            try {
+                copia.addDocument(lector);
+            } finally {
+                lector.close();
+            }
+        } catch (DocumentException | IOException e) {
+            throw new LicenciaException("Error al escribir el PDF combinado: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resultado de una tarea de generación; su error o la interrupción del
+     * hilo se informan como LicenciaException
+     */
+    private static <T> T obtener(Future<T> tarea) throws LicenciaException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LicenciaException("Exportación cancelada");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw new LicenciaException("Error al generar PDF: " + causa.getMessage(), causa);
+        }
+    }
+
+    private static <T> Future<T> tomar(CompletionService<T> completados) throws LicenciaException {
+        try {
+            return completados.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LicenciaException("Exportación cancelada");
+        }
+    }
+
+    private static void esperarLugar(Semaphore ventana) throws LicenciaException {
+        try {
+            ventana.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LicenciaException("Exportación cancelada");
+        }
+    }
+
+    /**
+     * Informa el avance; el total es el conteo previo y puede quedar corto si
+     * se emitieron licencias durante la exportación
+     */
+    private static void informar(Progreso progreso, int generadas, int total) {
+        if (progreso != null) {
+            progreso.actualizar(generadas, Math.max(generadas, total));
+        }
+    }
+
+    private void generar(DocumentoLicencia documento, File destino) throws DocumentException, IOException {
+        PDFGenerator.generarLicenciaPDF(documento.getLicencia(), documento.getConductor(),
+                documento.getPrueba(), destino.getAbsolutePath());
+    }
+
+    private byte[] generarEnMemoria(DocumentoLicencia documento) throws DocumentException, IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(16 * 1024);
+        PDFGenerator.generarLicenciaPDF(documento.getLicencia(), documento.getConductor(),
+                documento.getPrueba(), salida);
+        return salida.toByteArray();
+    }
+
+    private ExecutorService crearPool(int total) {
+        return Executors.newFixedThreadPool(Math.min(paralelismo, total), tarea -> {
+            Thread hilo = new Thread(tarea, "exportacion-pdf-" + CONTADOR_HILOS.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Espera a que los PDFs en curso terminen antes de borrarlos,
+     * aunque el hilo actual venga de una cancelación
+     */
+    private static void esperarTerminacion(ExecutorService pool) {
+        boolean interrumpido = Thread.interrupted();
+        try {
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrumpido = true;
+        } finally {
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String nombreArchivo(DocumentoLicencia documento) {
+        String numero = documento.getLicencia().getNumeroLicencia();
+        if (numero == null || numero.isEmpty()) {
+            numero = String.valueOf(documento.getLicencia().getId());
+        }
+        return "Licencia_" + numero.replaceAll("[^A-Za-z0-9_-]", "_") + ".pdf";
+    }
+}
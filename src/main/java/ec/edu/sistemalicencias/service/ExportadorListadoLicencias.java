@@ -0,0 +1,250 @@
+package ec.edu.sistemalicencias.service;
+
+import ec.edu.sistemalicencias.dao.LicenciaDAO;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.util.EscritorCSV;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Volcado completo de licencias con cédula y nombre del conductor para
+ * auditoría, en CSV o JSON Lines (un objeto por línea), opcionalmente gzip.
+ *
+ * Las filas se leen con un cursor de una sola consulta con JOIN y se escriben
+ * al archivo a medida que llegan, así que la memoria no depende del tamaño
+ * de la tabla. Se escribe primero en {@code <destino>.parcial} y se renombra
+ * al terminar; si falla o se cancela (interrumpiendo el hilo), el destino no
+ * se crea.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class ExportadorListadoLicencias {
+
+    /**
+     * Formato de salida
+     */
+    public enum Formato { CSV, JSONL }
+
+    /**
+     * Recibe el número de filas escritas (cada 10.000 filas y al final)
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void actualizar(long filas);
+    }
+
+    /**
+     * Totales de una exportación
+     */
+    public static class Resultado {
+
+        private final long filas;
+        private final long bytes;
+        private final long nanos;
+
+        Resultado(long filas, long bytes, long nanos) {
+            this.filas = filas;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        /**
+         * Tamaño del archivo generado (comprimido si se usó gzip)
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getFilasPorSegundo() {
+            return nanos > 0 ? filas * 1_000_000_000.0 / nanos : 0;
+        }
+    }
+
+    private static final String[] COLUMNAS = {
+            "id", "numero_licencia", "tipo_licencia", "fecha_emision", "fecha_vencimiento",
+            "activa", "estado", "conductor_id", "cedula_conductor", "nombre_conductor"
+    };
+
+    private static final Set<String> SIN_COMILLAS = Set.of("id", "activa", "conductor_id");
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int INTERVALO_PROGRESO = 10_000;
+
+    private final LicenciaDAO licenciaDAO;
+
+    /**
+     * Constructor
+     * @param licenciaDAO DAO para recorrer el listado
+     */
+    public ExportadorListadoLicencias(LicenciaDAO licenciaDAO) {
+        this.licenciaDAO = licenciaDAO;
+    }
+
+    /**
+     * Exporta todas las licencias
+     * @param destino Archivo de salida
+     * @param formato CSV o JSONL
+     * @param comprimir true para escribir gzip
+     * @param progreso Avance, o null
+     * @return Filas, bytes y velocidad de la exportación
+     * @throws LicenciaException Si falla la consulta, la escritura o se cancela
+     */
+    public Resultado exportar(File destino, Formato formato, boolean comprimir, Progreso progreso)
+            throws LicenciaException {
+        File parcial = new File(destino.getPath() + ".parcial");
+        long inicio = System.nanoTime();
+        boolean exito = false;
+
+        try {
+            long filas;
+            try (Writer salida = abrir(parcial, comprimir)) {
+                EscritorCSV csv = formato == Formato.CSV ? new EscritorCSV(salida, ',') : null;
+                if (csv != null) {
+                    csv.escribir(COLUMNAS);
+                }
+
+                long[] escritas = {0};
+                filas = licenciaDAO.recorrerListado(fila -> {
+                    try {
+                        if (csv != null) {
+                            csv.escribir(valores(fila));
+                        } else {
+                            escribirJSON(salida, valores(fila));
+                        }
+                    } catch (IOException e) {
+                        throw new LicenciaException("Error al escribir " + destino + ": " + e.getMessage(), e);
+                    }
+
+                    if (++escritas[0] % INTERVALO_PROGRESO == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new LicenciaException("Exportación cancelada");
+                        }
+                        if (progreso != null) {
+                            progreso.actualizar(escritas[0]);
+                        }
+                    }
+                    return true;
+                });
+            }
+            Files.move(parcial.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            exito = true;
+
+            if (progreso != null) {
+                progreso.actualizar(filas);
+            }
+            return new Resultado(filas, destino.length(), System.nanoTime() - inicio);
+
+        } catch (IOException e) {
+            throw new LicenciaException("Error al escribir " + destino + ": " + e.getMessage(), e);
+        } finally {
+            if (!exito) {
+                parcial.delete();
+            }
+        }
+    }
+
+    private static Writer abrir(File archivo, boolean comprimir) throws IOException {
+        OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo), TAMANO_BUFFER);
+        if (comprimir) {
+            salida = new GZIPOutputStream(salida, TAMANO_BUFFER);
+        }
+        return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+
+    /**
+     * Valores de la fila en el orden de COLUMNAS
+     */
+    private static String[] valores(LicenciaListado fila) {
+        return new String[]{
+                texto(fila.getId()),
+                fila.getNumeroLicencia(),
+                fila.getTipoLicencia(),
+                texto(fila.getFechaEmision()),
+                texto(fila.getFechaVencimiento()),
+                String.valueOf(fila.isActiva()),
+                fila.obtenerEstado(),
+                texto(fila.getConductorId()),
+                fila.getCedulaConductor(),
+                fila.getNombreConductor()
+        };
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+
+    /**
+     * Escribe una fila como objeto JSON en una línea. Los IDs y "activa" van
+     * como número y booleano; el resto como texto o null.
+     */
+    private static void escribirJSON(Writer salida, String[] valores) throws IOException {
+        salida.write('{');
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            salida.write('"');
+            salida.write(COLUMNAS[i]);
+            salida.write("\":");
+
+            String valor = valores[i];
+            if (valor == null) {
+                salida.write("null");
+            } else if (SIN_COMILLAS.contains(COLUMNAS[i])) {
+                salida.write(valor);
+            } else {
+                escribirCadenaJSON(salida, valor);
+            }
+        }
+        salida.write("}\n");
+    }
+
+    private static void escribirCadenaJSON(Writer salida, String valor) throws IOException {
+        salida.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    salida.write("\\\"");
+                    break;
+                case '\\':
+                    salida.write("\\\\");
+                    break;
+                case '\n':
+                    salida.write("\\n");
+                    break;
+                case '\r':
+                    salida.write("\\r");
+                    break;
+                case '\t':
+                    salida.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        salida.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        salida.write(c);
+                    }
+            }
+        }
+        salida.write('"');
+    }
+}
@@ -0,0 +1,591 @@
+package ec.edu.sistemalicencias.service;
+
+import ec.edu.sistemalicencias.config.UnidadTrabajo;
+import ec.edu.sistemalicencias.dao.CargaMasivaDAO;
+import ec.edu.sistemalicencias.dao.ConductorDAO;
+import ec.edu.sistemalicencias.dao.ImportacionDAO;
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.exceptions.DatosInvalidosException;
+import ec.edu.sistemalicencias.model.exceptions.DocumentoInvalidoException;
+import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.util.EscritorCSV;
+import ec.edu.sistemalicencias.util.LectorCSV;
+import ec.edu.sistemalicencias.util.NormalizadorTexto;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación masiva de conductores desde un CSV (extractos del registro).
+ *
+ * El archivo se lee por bloques de registros, sin cargarlo completo:
+ * - Cada bloque se valida en paralelo con las reglas de {@link Conductor}
+ * - En PostgreSQL cada bloque se carga con COPY ({@link CargaMasivaDAO}) y
+ *   las cédulas ya registradas se descartan al pasarlo a la tabla; en otros
+ *   motores se consultan primero y los nuevos se insertan en lotes JDBC.
+ *   En ambos casos es una transacción por bloque
+ * - Mientras un hilo guarda el bloque anterior, el actual ya se está validando
+ *
+ * Encabezado: cedula, nombres, apellidos, fecha_nacimiento (obligatorias) y
+ * direccion, telefono, email, tipo_sangre, observaciones (opcionales), en
+ * cualquier orden y sin importar tildes ni mayúsculas. Separador ',' o ';'.
+ * Fechas en formato aaaa-mm-dd o dd/mm/aaaa.
+ *
+ * Las filas rechazadas se escriben en un CSV con las columnas originales
+ * más la línea y el motivo, de modo que se puede corregir y volver a importar.
+ *
+ * Reanudación: cada bloque guarda su punto de control ({@link ImportacionDAO})
+ * en la misma transacción que sus conductores, y sus rechazos se escriben
+ * antes de confirmar. Si la importación se interrumpe, volver a ejecutarla
+ * con el mismo archivo continúa justo después del último bloque confirmado,
+ * sin volver a insertar ni a rechazar sus filas; el informe de rechazos se
+ * recorta a lo que corresponde a ese punto. El punto de control se elimina
+ * al terminar o con {@link #descartarPuntoControl(File)}.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class ImportadorConductores {
+
+    /**
+     * Recibe el avance de la importación (en el hilo que guarda los bloques)
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void actualizar(long registros, long importados, long rechazados);
+    }
+
+    /**
+     * Totales de una importación. Si se reanudó, incluyen lo hecho en las
+     * ejecuciones anteriores.
+     */
+    public static class Resultado {
+
+        private final long registros;
+        private final long importados;
+        private final long rechazados;
+        private final long registrosEjecucion;
+        private final long nanos;
+
+        Resultado(long registros, long importados, long rechazados, long registrosEjecucion, long nanos) {
+            this.registros = registros;
+            this.importados = importados;
+            this.rechazados = rechazados;
+            this.registrosEjecucion = registrosEjecucion;
+            this.nanos = nanos;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public long getImportados() {
+            return importados;
+        }
+
+        public long getRechazados() {
+            return rechazados;
+        }
+
+        /**
+         * Registros procesados por segundo en esta ejecución
+         */
+        public double getRegistrosPorSegundo() {
+            return nanos > 0 ? registrosEjecucion * 1_000_000_000.0 / nanos : 0;
+        }
+    }
+
+    private static final String[] COLUMNAS = {
+            "cedula", "nombres", "apellidos", "fecha_nacimiento",
+            "direccion", "telefono", "email", "tipo_sangre", "observaciones"
+    };
+    private static final int OBLIGATORIAS = 4;
+    private static final int CEDULA = 0;
+    private static final int NOMBRES = 1;
+    private static final int APELLIDOS = 2;
+    private static final int FECHA_NACIMIENTO = 3;
+    private static final int DIRECCION = 4;
+    private static final int TELEFONO = 5;
+    private static final int EMAIL = 6;
+    private static final int TIPO_SANGRE = 7;
+    private static final int OBSERVACIONES = 8;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private final ConductorDAO conductorDAO;
+    private final ImportacionDAO importacionDAO;
+    private final CargaMasivaDAO cargaMasiva;
+    private final int tamanoBloque;
+    private final Charset codificacion;
+
+    /**
+     * Constructor con bloques de licencias.importacion.bloque registros (5000 por defecto)
+     * y codificación licencias.importacion.charset (UTF-8 por defecto)
+     * @param conductorDAO DAO de conductores
+     */
+    public ImportadorConductores(ConductorDAO conductorDAO) {
+        this(conductorDAO, Integer.getInteger("licencias.importacion.bloque", 5_000),
+                Charset.forName(System.getProperty("licencias.importacion.charset", "UTF-8")));
+    }
+
+    /**
+     * Constructor
+     * @param conductorDAO DAO de conductores
+     * @param tamanoBloque Registros por bloque (una transacción y un punto de control por bloque)
+     * @param codificacion Codificación del CSV
+     */
+    public ImportadorConductores(ConductorDAO conductorDAO, int tamanoBloque, Charset codificacion) {
+        if (tamanoBloque < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor que cero");
+        }
+        this.conductorDAO = conductorDAO;
+        this.importacionDAO = new ImportacionDAO();
+        this.cargaMasiva = new CargaMasivaDAO();
+        this.tamanoBloque = tamanoBloque;
+        this.codificacion = codificacion;
+    }
+
+    /**
+     * Importa los conductores del archivo, o continúa una importación interrumpida
+     * @param archivo CSV de conductores
+     * @param rechazos CSV donde se escriben las filas rechazadas
+     * @param progreso Avance, o null
+     * @return Totales de la importación
+     * @throws LicenciaException Si el archivo no se puede leer, falla la base de
+     *                           datos (se conserva el punto de control) o se cancela
+     */
+    public Resultado importar(File archivo, File rechazos, Progreso progreso) throws LicenciaException {
+        PuntoControl punto = PuntoControl.leer(importacionDAO, archivo);
+        long registrosPrevios = punto.registros;
+        long inicio = System.nanoTime();
+
+        ExecutorService escritor = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-conductores");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        try {
+            char separador = detectarSeparador(archivo);
+
+            try (LectorCSV lector = new LectorCSV(abrir(archivo), separador)) {
+                String[] encabezado = lector.leer();
+                if (encabezado == null) {
+                    throw new LicenciaException("El archivo está vacío: " + archivo);
+                }
+                int[] indices = ubicarColumnas(encabezado);
+
+                for (long i = 0; i < punto.registros; i++) {
+                    if (lector.leer() == null) {
+                        throw new LicenciaException("El archivo tiene menos registros que el punto de control " +
+                                "de la importación anterior; descártelo para empezar de nuevo");
+                    }
+                }
+
+                try (EscritorCSV informe = abrirRechazos(rechazos, punto, encabezado, separador)) {
+                    try {
+                        Future<?> pendiente = null;
+                        List<Fila> bloque;
+
+                        while (!(bloque = leerBloque(lector)).isEmpty()) {
+                            if (Thread.interrupted()) {
+                                throw new InterruptedException();
+                            }
+
+                            bloque.parallelStream().forEach(fila -> validar(fila, indices));
+                            marcarRepetidas(bloque);
+
+                            // Un solo bloque guardándose a la vez: conserva el orden y acota la memoria
+                            if (pendiente != null) {
+                                pendiente.get();
+                            }
+                            List<Fila> listo = bloque;
+                            pendiente = escritor.submit(() -> {
+                                guardarBloque(listo, informe, rechazos, encabezado.length, punto);
+                                if (progreso != null) {
+                                    progreso.actualizar(punto.registros, punto.importados, punto.rechazados);
+                                }
+                                return null;
+                            });
+                        }
+
+                        if (pendiente != null) {
+                            pendiente.get();
+                        }
+                    } finally {
+                        // Sin interrumpir: el bloque en curso termina y deja su punto de control
+                        // antes de cerrar el informe de rechazos
+                        escritor.shutdown();
+                        esperarTerminacion(escritor);
+                    }
+                }
+            }
+
+            importacionDAO.eliminar(punto.clave);
+            return new Resultado(punto.registros, punto.importados, punto.rechazados,
+                    punto.registros - registrosPrevios, System.nanoTime() - inicio);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LicenciaException("Importación cancelada; se puede reanudar con el mismo archivo");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw new LicenciaException("Error al importar conductores: " + causa.getMessage(), causa);
+        } catch (IOException e) {
+            throw new LicenciaException("Error al leer " + archivo + ": " + e.getMessage(), e);
+        } finally {
+            escritor.shutdown();
+        }
+    }
+
+    /**
+     * Descarta el punto de control de una importación interrumpida, para que
+     * la próxima empiece desde el primer registro
+     * @param archivo CSV de conductores
+     * @throws LicenciaException Si falla la base de datos
+     */
+    public void descartarPuntoControl(File archivo) throws LicenciaException {
+        importacionDAO.eliminar(archivo.getAbsolutePath());
+    }
+
+    /**
+     * Convierte una fila en Conductor con los setters y validar() de la entidad
+     */
+    private static void validar(Fila fila, int[] indices) {
+        try {
+            Conductor conductor = new Conductor();
+            conductor.setCedula(campo(fila, indices[CEDULA]));
+            conductor.setNombres(campo(fila, indices[NOMBRES]));
+            conductor.setApellidos(campo(fila, indices[APELLIDOS]));
+            conductor.setFechaNacimiento(parsearFecha(campo(fila, indices[FECHA_NACIMIENTO])));
+            conductor.setDireccion(campo(fila, indices[DIRECCION]));
+            conductor.setTelefono(campo(fila, indices[TELEFONO]));
+            conductor.setEmail(campo(fila, indices[EMAIL]));
+            String tipoSangre = campo(fila, indices[TIPO_SANGRE]);
+            conductor.setTipoSangre(tipoSangre != null ? tipoSangre.toUpperCase() : null);
+            conductor.setObservaciones(campo(fila, indices[OBSERVACIONES]));
+
+            conductor.validar();
+            fila.conductor = conductor;
+
+        } catch (DatosInvalidosException e) {
+            fila.motivo = e.getMessage();
+        } catch (DocumentoInvalidoException e) {
+            fila.motivo = resumir(e.getMessage());
+        }
+    }
+
+    /**
+     * Rechaza las cédulas que se repiten dentro del bloque (se queda la primera).
+     * Las repetidas entre bloques las detecta la consulta a la base de datos.
+     */
+    private static void marcarRepetidas(List<Fila> bloque) {
+        Map<String, Long> vistas = new HashMap<>();
+        for (Fila fila : bloque) {
+            if (fila.conductor != null) {
+                Long primera = vistas.putIfAbsent(fila.conductor.getCedula(), fila.linea);
+                if (primera != null) {
+                    fila.conductor = null;
+                    fila.motivo = "Cédula repetida en el archivo (línea " + primera + ")";
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta las cédulas ya registradas, inserta el resto, escribe los
+     * rechazos y guarda el punto de control, todo antes de confirmar la
+     * transacción del bloque. Se ejecuta en el hilo escritor.
+     */
+    private void guardarBloque(List<Fila> bloque, EscritorCSV informe, File rechazos, int columnas,
+                               PuntoControl punto) throws LicenciaException {
+        List<Fila> validas = new ArrayList<>(bloque.size());
+        List<String> cedulas = new ArrayList<>(bloque.size());
+        for (Fila fila : bloque) {
+            if (fila.conductor != null) {
+                validas.add(fila);
+                cedulas.add(fila.conductor.getCedula());
+            }
+        }
+
+        ImportacionDAO.Avance avance = UnidadTrabajo.ejecutar(() -> {
+            int importados = cargaMasiva.estaDisponible() ? cargarBloque(validas) : insertarBloque(validas, cedulas);
+
+            // Si la transacción no se confirma, al reanudar se recorta el informe a bytesRechazos
+            int rechazadas = 0;
+            try {
+                for (Fila fila : bloque) {
+                    if (fila.motivo != null) {
+                        String[] registro = Arrays.copyOf(fila.campos, columnas + 2);
+                        registro[columnas] = String.valueOf(fila.linea);
+                        registro[columnas + 1] = fila.motivo;
+                        informe.escribir(registro);
+                        rechazadas++;
+                    }
+                }
+                informe.flush();
+            } catch (IOException e) {
+                throw new LicenciaException("Error al escribir " + rechazos + ": " + e.getMessage(), e);
+            }
+
+            ImportacionDAO.Avance nuevo = punto.sumar(bloque.size(), importados, rechazadas, rechazos.length());
+            importacionDAO.guardar(punto.clave, nuevo);
+            return nuevo;
+        });
+
+        punto.aplicar(avance);
+    }
+
+    /**
+     * Consulta las cédulas ya registradas e inserta el resto en lotes JDBC
+     * (motores sin COPY); las registradas quedan rechazadas
+     */
+    private int insertarBloque(List<Fila> validas, List<String> cedulas) throws LicenciaException {
+        Set<String> existentes = conductorDAO.buscarCedulasExistentes(cedulas);
+        List<Conductor> nuevos = new ArrayList<>(validas.size());
+        for (Fila fila : validas) {
+            if (existentes.contains(fila.conductor.getCedula())) {
+                fila.motivo = "Ya existe un conductor registrado con la cédula: " + fila.conductor.getCedula();
+                fila.conductor = null;
+            } else {
+                nuevos.add(fila.conductor);
+            }
+        }
+        conductorDAO.guardarTodos(nuevos);
+        return nuevos.size();
+    }
+
+    /**
+     * Carga las filas válidas con COPY; las que chocan con una cédula ya
+     * registrada quedan rechazadas
+     */
+    private int cargarBloque(List<Fila> validas) throws LicenciaException {
+        List<Conductor> conductores = new ArrayList<>(validas.size());
+        for (Fila fila : validas) {
+            conductores.add(fila.conductor);
+        }
+
+        CargaMasivaDAO.Resultado resultado = cargaMasiva.cargarConductores(conductores.iterator(),
+                CargaMasivaDAO.Conflicto.OMITIR, posicion -> {
+                    Fila fila = validas.get(posicion);
+                    fila.motivo = "Ya existe un conductor registrado con la cédula: " + fila.conductor.getCedula();
+                    fila.conductor = null;
+                });
+        return resultado.getInsertadas();
+    }
+
+    private List<Fila> leerBloque(LectorCSV lector) throws IOException {
+        List<Fila> bloque = new ArrayList<>(tamanoBloque);
+        String[] campos;
+        while (bloque.size() < tamanoBloque && (campos = lector.leer()) != null) {
+            bloque.add(new Fila(lector.getLinea(), campos));
+        }
+        return bloque;
+    }
+
+    /**
+     * Posición de cada columna de COLUMNAS en el encabezado (-1 si no está)
+     */
+    private static int[] ubicarColumnas(String[] encabezado) throws LicenciaException {
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < encabezado.length; i++) {
+            posiciones.putIfAbsent(NormalizadorTexto.normalizar(encabezado[i]).replace(' ', '_'), i);
+        }
+
+        int[] indices = new int[COLUMNAS.length];
+        List<String> faltantes = new ArrayList<>();
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            indices[i] = posiciones.getOrDefault(COLUMNAS[i], -1);
+            if (indices[i] < 0 && i < OBLIGATORIAS) {
+                faltantes.add(COLUMNAS[i]);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new LicenciaException("Faltan columnas obligatorias en el CSV: " + String.join(", ", faltantes));
+        }
+        return indices;
+    }
+
+    /**
+     * Valor de la columna sin espacios alrededor; null si no existe o está vacío
+     */
+    private static String campo(Fila fila, int indice) {
+        if (indice < 0 || indice >= fila.campos.length) {
+            return null;
+        }
+        String valor = fila.campos[indice].trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static LocalDate parsearFecha(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return texto.indexOf('/') >= 0 ? LocalDate.parse(texto, FORMATO_FECHA) : LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new DatosInvalidosException("Fecha de nacimiento inválida: " + texto);
+        }
+    }
+
+    /**
+     * Convierte el mensaje multilínea de validar() en una sola línea
+     */
+    private static String resumir(String mensaje) {
+        String[] lineas = mensaje.split("\n");
+        List<String> errores = new ArrayList<>();
+        for (int i = 1; i < lineas.length; i++) {
+            String linea = lineas[i].trim();
+            if (linea.startsWith("- ")) {
+                linea = linea.substring(2);
+            }
+            if (!linea.isEmpty()) {
+                errores.add(linea);
+            }
+        }
+        return errores.isEmpty() ? mensaje : String.join("; ", errores);
+    }
+
+    private char detectarSeparador(File archivo) throws IOException {
+        try (BufferedReader lector = new BufferedReader(abrir(archivo))) {
+            return LectorCSV.detectarSeparador(lector.readLine());
+        }
+    }
+
+    private Reader abrir(File archivo) throws IOException {
+        return new InputStreamReader(new FileInputStream(archivo), codificacion);
+    }
+
+    /**
+     * Abre el informe de rechazos; al reanudar descarta lo escrito después
+     * del último punto de control y continúa el mismo archivo
+     */
+    private static EscritorCSV abrirRechazos(File rechazos, PuntoControl punto, String[] encabezado,
+                                             char separador) throws IOException {
+        boolean continuar = punto.registros > 0 && rechazos.length() >= punto.bytesRechazos;
+        if (continuar) {
+            try (RandomAccessFile archivo = new RandomAccessFile(rechazos, "rw")) {
+                archivo.setLength(punto.bytesRechazos);
+            }
+        }
+
+        Writer salida = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(rechazos, continuar), StandardCharsets.UTF_8));
+        EscritorCSV informe = new EscritorCSV(salida, separador);
+        if (!continuar) {
+            String[] columnas = Arrays.copyOf(encabezado, encabezado.length + 2);
+            columnas[encabezado.length] = "linea";
+            columnas[encabezado.length + 1] = "motivo";
+            informe.escribir(columnas);
+            informe.flush();
+        }
+        return informe;
+    }
+
+    private static void esperarTerminacion(ExecutorService escritor) {
+        boolean interrumpido = Thread.interrupted();
+        try {
+            escritor.awaitTermination(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            interrumpido = true;
+        } finally {
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Registro leído del CSV y el resultado de validarlo
+     */
+    private static final class Fila {
+
+        private final long linea;
+        private final String[] campos;
+        private Conductor conductor;
+        private String motivo;
+
+        Fila(long linea, String[] campos) {
+            this.linea = linea;
+            this.campos = campos;
+        }
+    }
+
+    /**
+     * Avance confirmado de una importación, guardado en la base de datos.
+     * Recuerda tamaño y fecha del CSV para no reanudar sobre otro contenido.
+     */
+    private static final class PuntoControl {
+
+        private final String clave;
+        private final long tamanoArchivo;
+        private final long modificado;
+        private long registros;
+        private long importados;
+        private long rechazados;
+        private long bytesRechazos;
+
+        private PuntoControl(File archivo) {
+            this.clave = archivo.getAbsolutePath();
+            this.tamanoArchivo = archivo.length();
+            this.modificado = archivo.lastModified();
+        }
+
+        static PuntoControl leer(ImportacionDAO importacionDAO, File archivo) throws LicenciaException {
+            PuntoControl punto = new PuntoControl(archivo);
+            ImportacionDAO.Avance avance = importacionDAO.buscar(punto.clave);
+            if (avance == null) {
+                return punto;
+            }
+            if (avance.getTamanoArchivo() != punto.tamanoArchivo || avance.getModificado() != punto.modificado) {
+                throw new LicenciaException("El archivo cambió desde la importación interrumpida; " +
+                        "descarte su punto de control para empezar de nuevo");
+            }
+            punto.aplicar(avance);
+            return punto;
+        }
+
+        /**
+         * Avance con un bloque más, sin modificar este punto hasta que se confirme
+         */
+        ImportacionDAO.Avance sumar(int registrosBloque, int importadosBloque, int rechazadosBloque,
+                                    long bytesRechazos) {
+            return new ImportacionDAO.Avance(tamanoArchivo, modificado, registros + registrosBloque,
+                    importados + importadosBloque, rechazados + rechazadosBloque, bytesRechazos);
+        }
+
+        void aplicar(ImportacionDAO.Avance avance) {
+            registros = avance.getRegistros();
+            importados = avance.getImportados();
+            rechazados = avance.getRechazados();
+            bytesRechazos = avance.getBytesRechazos();
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package ec.edu.sistemalicencias.service;
 
+import ec.edu.sistemalicencias.config.MetricasJdbc;
+import ec.edu.sistemalicencias.config.UnidadTrabajo;
+import ec.edu.sistemalicencias.dao.CargaMasivaDAO;
 import ec.edu.sistemalicencias.dao.ConductorDAO;
 import ec.edu.sistemalicencias.dao.LicenciaDAO;
 import ec.edu.sistemalicencias.dao.PruebaPsicometricaDAO;
 import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
 import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
 import ec.edu.sistemalicencias.model.entities.Licencia;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
 import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
 import ec.edu.sistemalicencias.model.exceptions.BaseDatosException;
+import ec.edu.sistemalicencias.model.exceptions.DatosInvalidosException;
 import ec.edu.sistemalicencias.model.exceptions.DocumentoInvalidoException;
 import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.model.interfaces.ProcesadorFilas;
+import ec.edu.sistemalicencias.util.ValidadorCedula;
 
+import java.io.File;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -44,29 +55,32 @@ public class LicenciaService {
      * @throws LicenciaException Si hay errores de validación o persistencia
      */
     public Long registrarConductor(Conductor conductor) throws LicenciaException {
-        try {
-            // Validar datos del conductor
-            conductor.validar();
-
-            // Verificar que no exista otro conductor con la misma cédula
-            Conductor conductorExistente = conductorDAO.buscarPorCedula(conductor.getCedula());
-            if (conductorExistente != null) {
-                throw new DocumentoInvalidoException(
-                        "Ya existe un conductor registrado con la cédula: " + conductor.getCedula()
-                );
-            }
+        return registrarEvento("registrarConductor", conductor.getId(), evento -> {
+            try {
+                // Validar datos del conductor
+                conductor.validar();
+
+                // Verificar que no exista otro conductor con la misma cédula
+                Conductor conductorExistente = conductorDAO.buscarPorCedula(conductor.getCedula());
+                if (conductorExistente != null) {
+                    throw new DocumentoInvalidoException(
+                            "Ya existe un conductor registrado con la cédula: " + conductor.getCedula()
+                    );
+                }
 
-            // Guardar conductor
-            Long id = conductorDAO.guardar(conductor);
-            conductor.setId(id);
+                // Guardar conductor
+                Long id = conductorDAO.guardar(conductor);
+                conductor.setId(id);
+                evento.setConductorId(id);
 
-            return id;
+                return id;
 
-        } catch (DocumentoInvalidoException e) {
-            throw e; // Reenviar excepción de validación
-        } catch (BaseDatosException e) {
-            throw new LicenciaException("Error al registrar conductor", e);
-        }
+            } catch (DocumentoInvalidoException e) {
+                throw e; // Reenviar excepción de validación
+            } catch (BaseDatosException e) {
+                throw new LicenciaException("Error al registrar conductor", e);
+            }
+        });
     }
 
     /**
@@ -101,20 +115,23 @@ public class LicenciaService {
      */
     public void validarDocumentos(Long conductorId, boolean documentosValidos, String observaciones)
             throws LicenciaException {
-        try {
-            Conductor conductor = conductorDAO.buscarPorId(conductorId);
-            if (conductor == null) {
-                throw new DocumentoInvalidoException("Conductor no encontrado");
-            }
+        registrarEvento("validarDocumentos", conductorId, evento -> {
+            try {
+                Conductor conductor = conductorDAO.buscarPorId(conductorId);
+                if (conductor == null) {
+                    throw new DocumentoInvalidoException("Conductor no encontrado");
+                }
 
-            conductor.setDocumentosValidados(documentosValidos);
-            conductor.setObservaciones(observaciones);
+                conductor.setDocumentosValidados(documentosValidos);
+                conductor.setObservaciones(observaciones);
 
-            conductorDAO.guardar(conductor);
+                conductorDAO.guardar(conductor);
 
-        } catch (BaseDatosException e) {
-            throw new LicenciaException("Error al validar documentos", e);
-        }
+            } catch (BaseDatosException e) {
+                throw new LicenciaException("Error al validar documentos", e);
+            }
+            return null;
+        });
     }
 
     /**
@@ -124,19 +141,21 @@ public class LicenciaService {
      * @throws LicenciaException Si hay errores
      */
     public Long registrarPruebaPsicometrica(PruebaPsicometrica prueba) throws LicenciaException {
-        try {
-            // Verificar que el conductor existe
-            Conductor conductor = conductorDAO.buscarPorId(prueba.getConductorId());
-            if (conductor == null) {
-                throw new DocumentoInvalidoException("Conductor no encontrado");
-            }
+        return registrarEvento("registrarPruebaPsicometrica", prueba.getConductorId(), evento -> {
+            try {
+                // Verificar que el conductor existe
+                Conductor conductor = conductorDAO.buscarPorId(prueba.getConductorId());
+                if (conductor == null) {
+                    throw new DocumentoInvalidoException("Conductor no encontrado");
+                }
 
-            // Guardar prueba
-            return pruebaPsicometricaDAO.guardar(prueba);
+                // Guardar prueba
+                return pruebaPsicometricaDAO.guardar(prueba);
 
-        } catch (BaseDatosException e) {
-            throw new LicenciaException("Error al registrar prueba psicométrica", e);
-        }
+            } catch (BaseDatosException e) {
+                throw new LicenciaException("Error al registrar prueba psicométrica", e);
+            }
+        });
     }
 
     /**
@@ -149,70 +168,76 @@ public class LicenciaService {
      */
     public Licencia emitirLicencia(Long conductorId, String tipoLicencia, Long pruebaPsicometricaId)
             throws LicenciaException {
-        try {
-            // 1. Verificar que el conductor existe y está validado
-            Conductor conductor = conductorDAO.buscarPorId(conductorId);
-            if (conductor == null) {
-                throw new DocumentoInvalidoException("Conductor no encontrado");
-            }
-
-            if (!conductor.isDocumentosValidados()) {
-                throw new DocumentoInvalidoException(
-                        "No se puede emitir licencia: documentos del conductor no validados"
-                );
-            }
-
-            // 2. Verificar edad mínima
-            if (conductor.calcularEdad() < 18) {
-                throw new DocumentoInvalidoException(
-                        "No se puede emitir licencia: el conductor debe ser mayor de 18 años"
-                );
-            }
-
-            // 3. Verificar prueba psicométrica si se proporcionó
-            if (pruebaPsicometricaId != null) {
-                PruebaPsicometrica prueba = pruebaPsicometricaDAO.buscarPorId(pruebaPsicometricaId);
-                if (prueba == null) {
-                    throw new DocumentoInvalidoException("Prueba psicométrica no encontrada");
-                }
-
-                if (!prueba.estaAprobado()) {
-                    throw new DocumentoInvalidoException(
-                            "No se puede emitir licencia: prueba psicométrica no aprobada (Promedio: " +
-                                    String.format("%.2f", prueba.calcularPromedio()) + ")"
-                    );
-                }
+        return registrarEvento("emitirLicencia", conductorId, evento -> {
+            try {
+                // Una sola conexión y transacción para todas las verificaciones y el insert
+                return UnidadTrabajo.ejecutar(() -> {
+                    // 1. Verificar que el conductor existe y está validado.
+                    //    Bloquear su fila serializa emisiones simultáneas del mismo conductor.
+                    Conductor conductor = conductorDAO.bloquearPorId(conductorId);
+                    if (conductor == null) {
+                        throw new DocumentoInvalidoException("Conductor no encontrado");
+                    }
+
+                    if (!conductor.isDocumentosValidados()) {
+                        throw new DocumentoInvalidoException(
+                                "No se puede emitir licencia: documentos del conductor no validados"
+                        );
+                    }
+
+                    // 2. Verificar edad mínima
+                    if (conductor.calcularEdad() < 18) {
+                        throw new DocumentoInvalidoException(
+                                "No se puede emitir licencia: el conductor debe ser mayor de 18 años"
+                        );
+                    }
+
+                    // 3. Verificar prueba psicométrica si se proporcionó
+                    if (pruebaPsicometricaId != null) {
+                        PruebaPsicometrica prueba = pruebaPsicometricaDAO.buscarPorId(pruebaPsicometricaId);
+                        if (prueba == null) {
+                            throw new DocumentoInvalidoException("Prueba psicométrica no encontrada");
+                        }
+
+                        if (!prueba.estaAprobado()) {
+                            throw new DocumentoInvalidoException(
+                                    "No se puede emitir licencia: prueba psicométrica no aprobada (Promedio: " +
+                                            String.format("%.2f", prueba.calcularPromedio()) + ")"
+                            );
+                        }
+                    }
+
+                    // 4. Verificar que no tenga licencias vigentes del mismo tipo
+                    List<Licencia> licenciasExistentes = licenciaDAO.buscarPorConductor(conductorId);
+                    for (Licencia lic : licenciasExistentes) {
+                        if (tipoLicencia.equals(lic.getTipoLicencia()) && lic.estaVigente()) {
+                            throw new DocumentoInvalidoException(
+                                    "El conductor ya tiene una licencia vigente de tipo " + TipoLicenciaConstantes.obtenerNombre(tipoLicencia)
+                            );
+                        }
+                    }
+
+                    // 5. Crear y guardar la licencia
+                    Licencia nuevaLicencia = new Licencia(conductorId, tipoLicencia);
+                    nuevaLicencia.setPruebaPsicometricaId(pruebaPsicometricaId);
+                    nuevaLicencia.generarNumeroLicencia(conductor.getCedula());
+
+                    // Validar licencia
+                    nuevaLicencia.validar();
+
+                    // Guardar en base de datos
+                    Long licenciaId = licenciaDAO.guardar(nuevaLicencia);
+                    nuevaLicencia.setId(licenciaId);
+
+                    return nuevaLicencia;
+                });
+
+            } catch (DocumentoInvalidoException e) {
+                throw e;
+            } catch (BaseDatosException e) {
+                throw new LicenciaException("Error al emitir licencia", e);
             }
-
-            // 4. Verificar que no tenga licencias vigentes del mismo tipo
-            List<Licencia> licenciasExistentes = licenciaDAO.buscarPorConductor(conductorId);
-            for (Licencia lic : licenciasExistentes) {
-                if (tipoLicencia.equals(lic.getTipoLicencia()) && lic.estaVigente()) {
-                    throw new DocumentoInvalidoException(
-                            "El conductor ya tiene una licencia vigente de tipo " + TipoLicenciaConstantes.obtenerNombre(tipoLicencia)
-                    );
-                }
-            }
-
-            // 5. Crear y guardar la licencia
-            Licencia nuevaLicencia = new Licencia(conductorId, tipoLicencia);
-            nuevaLicencia.setPruebaPsicometricaId(pruebaPsicometricaId);
-            nuevaLicencia.generarNumeroLicencia(conductor.getCedula());
-
-            // Validar licencia
-            nuevaLicencia.validar();
-
-            // Guardar en base de datos
-            Long licenciaId = licenciaDAO.guardar(nuevaLicencia);
-            nuevaLicencia.setId(licenciaId);
-
-            return nuevaLicencia;
-
-        } catch (DocumentoInvalidoException e) {
-            throw e;
-        } catch (BaseDatosException e) {
-            throw new LicenciaException("Error al emitir licencia", e);
-        }
+        });
     }
 
     /**
@@ -256,6 +281,20 @@ public class LicenciaService {
         }
     }
 
+    /**
+     * Recorre todos los conductores sin cargarlos en memoria
+     * @param procesador Recibe cada conductor; devuelve false para detener
+     * @return Número de conductores procesados
+     * @throws LicenciaException Si hay errores
+     */
+    public int recorrerConductores(ProcesadorFilas<Conductor> procesador) throws LicenciaException {
+        try {
+            return conductorDAO.recorrerTodos(procesador);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al recorrer conductores", e);
+        }
+    }
+
     /**
      * Busca conductores por nombre
      * @param nombre Nombre a buscar
@@ -270,6 +309,21 @@ public class LicenciaService {
         }
     }
 
+    /**
+     * Busca conductores cuyos apellidos o nombres empiezan con el texto,
+     * sin distinguir tildes ni mayúsculas
+     * @param texto Inicio de los apellidos o de los nombres
+     * @return Lista de conductores
+     * @throws LicenciaException Si hay errores
+     */
+    public List<Conductor> buscarConductoresPorPrefijo(String texto) throws LicenciaException {
+        try {
+            return conductorDAO.buscarPorPrefijo(texto);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al buscar conductores", e);
+        }
+    }
+
     /**
      * Obtiene las pruebas psicométricas de un conductor
      * @param conductorId ID del conductor
@@ -312,6 +366,94 @@ public class LicenciaService {
         }
     }
 
+    /**
+     * Obtiene los datos para imprimir una licencia (licencia, conductor y prueba)
+     * @param licenciaId ID de la licencia
+     * @return Documento de la licencia o null si no existe
+     * @throws LicenciaException Si hay errores
+     */
+    public DocumentoLicencia obtenerDocumentoLicencia(Long licenciaId) throws LicenciaException {
+        try {
+            return licenciaDAO.buscarDocumento(licenciaId);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al obtener documento de licencia", e);
+        }
+    }
+
+    /**
+     * Exporta a PDF las licencias que cumplen el filtro, generándolas en paralelo
+     * @param filtro Licencias a exportar
+     * @param destino Directorio (un PDF por licencia) o archivo (PDF combinado)
+     * @param combinado true para generar un único PDF con todas las licencias
+     * @param progreso Avance de la exportación, o null
+     * @return Número de licencias exportadas
+     * @throws LicenciaException Si hay errores o la exportación se cancela
+     */
+    public int exportarLicencias(FiltroLicencias filtro, File destino, boolean combinado,
+                                 ExportadorLicencias.Progreso progreso) throws LicenciaException {
+        ExportadorLicencias exportador = new ExportadorLicencias(licenciaDAO);
+        if (combinado) {
+            return exportador.exportarCombinado(filtro, destino, progreso);
+        }
+        return exportador.exportarADirectorio(filtro, destino, progreso);
+    }
+
+    /**
+     * Importa conductores desde un CSV en bloques validados en paralelo.
+     * Si existe un punto de control de una ejecución interrumpida, continúa desde él.
+     * @param archivo CSV de conductores
+     * @param rechazos CSV donde se escriben las filas rechazadas y el motivo
+     * @param progreso Avance de la importación, o null
+     * @return Totales de la importación
+     * @throws LicenciaException Si hay errores o la importación se cancela
+     */
+    public ImportadorConductores.Resultado importarConductores(File archivo, File rechazos,
+                                                              ImportadorConductores.Progreso progreso)
+            throws LicenciaException {
+        return new ImportadorConductores(conductorDAO).importar(archivo, rechazos, progreso);
+    }
+
+    /**
+     * Descarta el punto de control de una importación de conductores
+     * interrumpida; la próxima importación del archivo empieza de cero
+     * @param archivo CSV de conductores
+     * @throws LicenciaException Si falla la base de datos
+     */
+    public void descartarImportacionConductores(File archivo) throws LicenciaException {
+        new ImportadorConductores(conductorDAO).descartarPuntoControl(archivo);
+    }
+
+    /**
+     * Carga pruebas psicométricas en bloque con COPY (solo PostgreSQL), en una
+     * transacción. Se omiten las de conductores inexistentes y las ya
+     * registradas, así que la misma carga se puede repetir sin duplicar.
+     * @param pruebas Pruebas a cargar
+     * @return Totales de la carga
+     * @throws LicenciaException Si falla la carga (no se guarda ninguna prueba)
+     */
+    public CargaMasivaDAO.Resultado cargarPruebasPsicometricas(Iterator<PruebaPsicometrica> pruebas)
+            throws LicenciaException {
+        return new CargaMasivaDAO().cargarPruebas(pruebas, null);
+    }
+
+    /**
+     * Vuelca todas las licencias con los datos del conductor a CSV o JSON Lines,
+     * leyendo con un cursor (la memoria no crece con el tamaño de la tabla)
+     * @param destino Archivo de salida
+     * @param formato CSV o JSONL
+     * @param comprimir true para escribir gzip
+     * @param progreso Avance de la exportación, o null
+     * @return Filas, bytes y velocidad de la exportación
+     * @throws LicenciaException Si hay errores o la exportación se cancela
+     */
+    public ExportadorListadoLicencias.Resultado exportarListadoLicencias(File destino,
+                                                                        ExportadorListadoLicencias.Formato formato,
+                                                                        boolean comprimir,
+                                                                        ExportadorListadoLicencias.Progreso progreso)
+            throws LicenciaException {
+        return new ExportadorListadoLicencias(licenciaDAO).exportar(destino, formato, comprimir, progreso);
+    }
+
     /**
      * Obtiene las licencias de un conductor
      * @param conductorId ID del conductor
@@ -339,6 +481,47 @@ public class LicenciaService {
         }
     }
 
+    /**
+     * Obtiene el listado de licencias con los datos del conductor
+     * @return Lista de filas de listado
+     * @throws LicenciaException Si hay errores
+     */
+    public List<LicenciaListado> obtenerListadoLicencias() throws LicenciaException {
+        try {
+            return licenciaDAO.obtenerListado();
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al obtener licencias", e);
+        }
+    }
+
+    /**
+     * Busca licencias por número o por cédula del conductor
+     * @param criterio Número de licencia o cédula
+     * @return Lista de filas de listado
+     * @throws LicenciaException Si hay errores
+     */
+    public List<LicenciaListado> buscarListadoLicencias(String criterio) throws LicenciaException {
+        try {
+            return licenciaDAO.buscarListado(criterio);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al buscar licencias", e);
+        }
+    }
+
+    /**
+     * Recorre todas las licencias sin cargarlas en memoria
+     * @param procesador Recibe cada licencia; devuelve false para detener
+     * @return Número de licencias procesadas
+     * @throws LicenciaException Si hay errores
+     */
+    public int recorrerLicencias(ProcesadorFilas<Licencia> procesador) throws LicenciaException {
+        try {
+            return licenciaDAO.recorrerTodas(procesador);
+        } catch (BaseDatosException e) {
+            throw new LicenciaException("Error al recorrer licencias", e);
+        }
+    }
+
     /**
      * Obtiene las licencias vigentes
      * @return Lista de licencias vigentes
@@ -359,19 +542,72 @@ public class LicenciaService {
      * @throws LicenciaException Si hay errores
      */
     public void desactivarLicencia(Long licenciaId, String motivo) throws LicenciaException {
-        try {
-            Licencia licencia = licenciaDAO.buscarPorId(licenciaId);
-            if (licencia == null) {
-                throw new DocumentoInvalidoException("Licencia no encontrada");
-            }
+        registrarEvento("desactivarLicencia", null, evento -> {
+            try {
+                Licencia licencia = licenciaDAO.buscarPorId(licenciaId);
+                if (licencia == null) {
+                    throw new DocumentoInvalidoException("Licencia no encontrada");
+                }
+                evento.setConductorId(licencia.getConductorId());
 
-            licencia.setActiva(false);
-            licencia.setObservaciones(motivo);
+                licencia.setActiva(false);
+                licencia.setObservaciones(motivo);
 
-            licenciaDAO.guardar(licencia);
+                licenciaDAO.guardar(licencia);
 
-        } catch (BaseDatosException e) {
-            throw new LicenciaException("Error al desactivar licencia", e);
+            } catch (BaseDatosException e) {
+                throw new LicenciaException("Error al desactivar licencia", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Cuerpo de una operación registrada con {@link #registrarEvento}; recibe
+     * el evento para completar el conductor cuando se conoce durante la operación
+     */
+    @FunctionalInterface
+    private interface OperacionRegistrada<T> {
+        T ejecutar(EventoOperacionLicencia evento) throws LicenciaException;
+    }
+
+    /**
+     * Ejecuta una operación de negocio dentro de un evento de Java Flight
+     * Recorder con su duración, conductor, resultado e idas a la base de datos
+     * @param operacion Nombre del método de servicio
+     * @param conductorId Conductor, o null si todavía no se conoce
+     * @param cuerpo Operación
+     * @return Resultado de la operación
+     * @throws LicenciaException La de la operación, sin cambios
+     */
+    private static <T> T registrarEvento(String operacion, Long conductorId, OperacionRegistrada<T> cuerpo)
+            throws LicenciaException {
+        EventoOperacionLicencia evento = new EventoOperacionLicencia();
+        evento.setConductorId(conductorId);
+        evento.begin();
+        long idasInicio = MetricasJdbc.getIdasBaseDatos();
+        Exception error = null;
+        String resultado = "ERROR";
+        try {
+            T valor = cuerpo.ejecutar(evento);
+            resultado = "EXITO";
+            return valor;
+        } catch (DocumentoInvalidoException | DatosInvalidosException e) {
+            resultado = "RECHAZADA";
+            error = e;
+            throw e;
+        } catch (LicenciaException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.operacion = operacion;
+                evento.resultado = resultado;
+                evento.idasBaseDatos = MetricasJdbc.getIdasBaseDatos() - idasInicio;
+                evento.mensaje = error != null ? ValidadorCedula.enmascarar(error.getMessage()) : null;
+                evento.commit();
+            }
         }
     }
 }
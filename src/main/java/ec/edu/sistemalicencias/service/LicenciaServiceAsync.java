@@ -0,0 +1,191 @@
+package ec.edu.sistemalicencias.service;
+
+import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
+import ec.edu.sistemalicencias.model.entities.Licencia;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
+import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Variante asíncrona de {@link LicenciaService}.
+ * Cada operación se ejecuta en un hilo virtual y devuelve un CompletableFuture,
+ * de modo que la interfaz gráfica nunca espera a JDBC en el hilo de eventos.
+ *
+ * Cancelar el CompletableFuture interrumpe el hilo virtual de la operación,
+ * salvo en las escrituras (registrar, actualizar, emitir): la interrupción
+ * podría llegar después del commit y la interfaz descartaría un resultado ya
+ * guardado, así que su cancel() devuelve false y la operación termina.
+ * Los errores llegan como CompletionException con la LicenciaException original como causa.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class LicenciaServiceAsync {
+
+    // Un hilo virtual por tarea: esperar a la red no ocupa hilos de plataforma
+    private static final ExecutorService EJECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LicenciaService licenciaService;
+
+    /**
+     * Operación bloqueante del servicio
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Operacion<T> {
+        T ejecutar() throws Exception;
+    }
+
+    /**
+     * Constructor
+     * @param licenciaService Servicio síncrono al que se delega
+     */
+    public LicenciaServiceAsync(LicenciaService licenciaService) {
+        this.licenciaService = licenciaService;
+    }
+
+    /**
+     * Ejecuta cualquier operación en un hilo virtual
+     * @param operacion Operación bloqueante
+     * @return Future con el resultado; cancel(true) interrumpe la operación
+     */
+    public <T> CompletableFuture<T> ejecutar(Operacion<T> operacion) {
+        return ejecutar(operacion, true);
+    }
+
+    /**
+     * Ejecuta una operación que escribe en la base de datos en un hilo virtual
+     * @param operacion Operación bloqueante
+     * @return Future con el resultado; no se puede cancelar
+     */
+    public <T> CompletableFuture<T> ejecutarEscritura(Operacion<T> operacion) {
+        return ejecutar(operacion, false);
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Operacion<T> operacion, boolean cancelable) {
+        FuturoCancelable<T> resultado = new FuturoCancelable<>(cancelable);
+        resultado.tarea = EJECUTOR.submit(() -> {
+            try {
+                resultado.complete(operacion.ejecutar());
+            } catch (Exception e) {
+                resultado.completeExceptionally(new CompletionException(e));
+            }
+        });
+        return resultado;
+    }
+
+    public CompletableFuture<Long> registrarConductor(Conductor conductor) {
+        return ejecutarEscritura(() -> licenciaService.registrarConductor(conductor));
+    }
+
+    public CompletableFuture<Void> actualizarConductor(Conductor conductor) {
+        return ejecutarEscritura(() -> {
+            licenciaService.actualizarConductor(conductor);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Long> registrarPruebaPsicometrica(PruebaPsicometrica prueba) {
+        return ejecutarEscritura(() -> licenciaService.registrarPruebaPsicometrica(prueba));
+    }
+
+    public CompletableFuture<Licencia> emitirLicencia(Long conductorId, String tipoLicencia,
+                                                      Long pruebaPsicometricaId) {
+        return ejecutarEscritura(() -> licenciaService.emitirLicencia(conductorId, tipoLicencia, pruebaPsicometricaId));
+    }
+
+    public CompletableFuture<Conductor> buscarConductorPorCedula(String cedula) {
+        return ejecutar(() -> licenciaService.buscarConductorPorCedula(cedula));
+    }
+
+    public CompletableFuture<Conductor> buscarConductorPorId(Long id) {
+        return ejecutar(() -> licenciaService.buscarConductorPorId(id));
+    }
+
+    public CompletableFuture<List<Conductor>> obtenerTodosConductores() {
+        return ejecutar(licenciaService::obtenerTodosConductores);
+    }
+
+    public CompletableFuture<PruebaPsicometrica> obtenerUltimaPruebaAprobada(Long conductorId) {
+        return ejecutar(() -> licenciaService.obtenerUltimaPruebaAprobada(conductorId));
+    }
+
+    public CompletableFuture<List<Licencia>> obtenerLicenciasConductor(Long conductorId) {
+        return ejecutar(() -> licenciaService.obtenerLicenciasConductor(conductorId));
+    }
+
+    public CompletableFuture<List<LicenciaListado>> obtenerListadoLicencias() {
+        return ejecutar(licenciaService::obtenerListadoLicencias);
+    }
+
+    public CompletableFuture<List<LicenciaListado>> buscarListadoLicencias(String criterio) {
+        return ejecutar(() -> licenciaService.buscarListadoLicencias(criterio));
+    }
+
+    public CompletableFuture<DocumentoLicencia> obtenerDocumentoLicencia(Long licenciaId) {
+        return ejecutar(() -> licenciaService.obtenerDocumentoLicencia(licenciaId));
+    }
+
+    public CompletableFuture<Integer> exportarLicencias(FiltroLicencias filtro, File destino, boolean combinado,
+                                                        ExportadorLicencias.Progreso progreso) {
+        return ejecutar(() -> licenciaService.exportarLicencias(filtro, destino, combinado, progreso));
+    }
+
+    /**
+     * Obtiene la causa real de un error asíncrono
+     * @param error Excepción recibida en el future (posiblemente CompletionException)
+     * @return Excepción original (por ejemplo LicenciaException)
+     */
+    public static Throwable causaReal(Throwable error) {
+        Throwable causa = error;
+        while (causa instanceof CompletionException && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+
+    /**
+     * Indica si cancelar el future detiene la operación
+     * @param futuro Future devuelto por esta clase u otro CompletableFuture
+     * @return false para las escrituras, que no se pueden cancelar
+     */
+    public static boolean esCancelable(Future<?> futuro) {
+        return !(futuro instanceof FuturoCancelable) || ((FuturoCancelable<?>) futuro).cancelable;
+    }
+
+    /**
+     * CompletableFuture cuyo cancel() interrumpe el hilo virtual de la tarea,
+     * o no hace nada si la tarea no es cancelable
+     */
+    private static class FuturoCancelable<T> extends CompletableFuture<T> {
+
+        private final boolean cancelable;
+        private volatile Future<?> tarea;
+
+        FuturoCancelable(boolean cancelable) {
+            this.cancelable = cancelable;
+        }
+
+        @Override
+        public boolean cancel(boolean interrumpir) {
+            if (!cancelable) {
+                return false;
+            }
+            boolean cancelado = super.cancel(interrumpir);
+            Future<?> enCurso = tarea;
+            if (cancelado && enCurso != null) {
+                enCurso.cancel(true);
+            }
+            return cancelado;
+        }
+    }
+}
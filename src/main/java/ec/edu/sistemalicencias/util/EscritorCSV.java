@@ -0,0 +1,85 @@
+package ec.edu.sistemalicencias.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de CSV por registros. Pone entre comillas solo los campos que
+ * contienen el separador, comillas o saltos de línea; null se escribe como
+ * campo vacío. Las líneas terminan en CRLF (RFC 4180).
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class EscritorCSV implements Closeable, Flushable {
+
+    private final Writer salida;
+    private final char separador;
+
+    /**
+     * Constructor
+     * @param salida Destino del texto (conviene que tenga buffer; se cierra con el escritor)
+     * @param separador Separador de campos
+     */
+    public EscritorCSV(Writer salida, char separador) {
+        this.salida = salida;
+        this.separador = separador;
+    }
+
+    /**
+     * Escribe un registro completo
+     * @param campos Valores del registro
+     * @throws IOException Si falla la escritura
+     */
+    public void escribir(String... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                salida.write(separador);
+            }
+            escribirCampo(campos[i]);
+        }
+        salida.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        salida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+
+    private void escribirCampo(String valor) throws IOException {
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        if (!requiereComillas(valor)) {
+            salida.write(valor);
+            return;
+        }
+        salida.write('"');
+        int desde = 0;
+        int comilla;
+        while ((comilla = valor.indexOf('"', desde)) >= 0) {
+            salida.write(valor, desde, comilla + 1 - desde);
+            salida.write('"');
+            desde = comilla + 1;
+        }
+        salida.write(valor, desde, valor.length() - desde);
+        salida.write('"');
+    }
+
+    private boolean requiereComillas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == separador || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
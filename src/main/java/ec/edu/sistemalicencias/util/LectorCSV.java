@@ -0,0 +1,184 @@
+package ec.edu.sistemalicencias.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV por registros, sin cargar el archivo en memoria.
+ * Admite campos entre comillas con separadores, comillas dobles ("") y
+ * saltos de línea dentro, finales de línea LF o CRLF y BOM inicial.
+ * Las líneas vacías se ignoran.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public class LectorCSV implements Closeable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Reader entrada;
+    private final char separador;
+    private final char[] buffer = new char[TAMANO_BUFFER];
+    private final StringBuilder campo = new StringBuilder();
+    private final List<String> campos = new ArrayList<>();
+
+    private int posicion;
+    private int limite;
+    private boolean inicio = true;
+
+    // Línea física donde empieza el próximo registro y donde empezó el último leído
+    private long linea = 1;
+    private long lineaRegistro;
+
+    /**
+     * Constructor
+     * @param entrada Texto CSV (se cierra con el lector)
+     * @param separador Separador de campos, normalmente ',' o ';'
+     */
+    public LectorCSV(Reader entrada, char separador) {
+        this.entrada = entrada;
+        this.separador = separador;
+    }
+
+    /**
+     * Elige el separador de un encabezado: ';' si aparece y ',' no
+     * (CSV guardado por Excel en configuración regional de Ecuador), si no ','
+     * @param encabezado Primera línea del archivo
+     * @return Separador a usar
+     */
+    public static char detectarSeparador(String encabezado) {
+        if (encabezado != null && encabezado.indexOf(';') >= 0 && encabezado.indexOf(',') < 0) {
+            return ';';
+        }
+        return ',';
+    }
+
+    /**
+     * Lee el siguiente registro
+     * @return Campos del registro, o null al final del archivo
+     * @throws IOException Si falla la lectura o hay comillas sin cerrar
+     */
+    public String[] leer() throws IOException {
+        while (true) {
+            int c = siguiente();
+            if (c < 0) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                consumirFinLinea(c);
+                continue;
+            }
+            posicion--;
+            break;
+        }
+
+        lineaRegistro = linea;
+        campos.clear();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean inicioCampo = true;
+
+        while (true) {
+            int c = siguiente();
+
+            if (entreComillas) {
+                if (c < 0) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + lineaRegistro);
+                }
+                if (c == '"') {
+                    if (mirar() == '"') {
+                        posicion++;
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && mirar() != '\n')) {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+                continue;
+            }
+
+            if (c < 0 || c == '\r' || c == '\n') {
+                if (c >= 0) {
+                    consumirFinLinea(c);
+                }
+                campos.add(campo.toString());
+                return campos.toArray(new String[0]);
+            }
+
+            if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                inicioCampo = true;
+                continue;
+            }
+
+            if (c == '"' && inicioCampo) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+            inicioCampo = false;
+        }
+    }
+
+    /**
+     * Línea física (desde 1) en la que empieza el último registro leído
+     * @return Número de línea
+     */
+    public long getLinea() {
+        return lineaRegistro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    private void consumirFinLinea(int c) throws IOException {
+        if (c == '\r' && mirar() == '\n') {
+            posicion++;
+        }
+        linea++;
+    }
+
+    private int siguiente() throws IOException {
+        if (posicion == limite && !llenar()) {
+            return -1;
+        }
+        return buffer[posicion++];
+    }
+
+    private int mirar() throws IOException {
+        if (posicion == limite && !llenar()) {
+            return -1;
+        }
+        return buffer[posicion];
+    }
+
+    private boolean llenar() throws IOException {
+        int leidos;
+        do {
+            leidos = entrada.read(buffer, 0, buffer.length);
+        } while (leidos == 0);
+        if (leidos < 0) {
+            return false;
+        }
+        posicion = 0;
+        limite = leidos;
+        if (inicio) {
+            inicio = false;
+            if (buffer[0] == '\uFEFF') {
+                posicion = 1;
+                return limite > 1 || llenar();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package ec.edu.sistemalicencias.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Genera claves de búsqueda normalizadas para nombres y apellidos.
+ * "  Núñez   PÉREZ " y "nunez perez" producen la misma clave, de modo que
+ * la búsqueda no depende de tildes, eñes, mayúsculas ni espacios repetidos.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public final class NormalizadorTexto {
+
+    // Marcas diacríticas que NFD separa de la letra base (tildes, diéresis, virgulilla de la ñ)
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Normaliza un texto para búsqueda: NFD sin diacríticos, minúsculas
+     * y espacios internos colapsados
+     * @param texto Texto original
+     * @return Clave de búsqueda, o null si el texto es null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String sinDiacriticos = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinDiacriticos.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+}
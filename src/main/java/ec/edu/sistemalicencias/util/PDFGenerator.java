@@ -8,13 +8,21 @@ import ec.edu.sistemalicencias.model.entities.Conductor;
 import ec.edu.sistemalicencias.model.entities.Licencia;
 import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Utilidad para generar documentos PDF de licencias de conducir.
  * Usa iText para la generación de documentos.
+ * Las fuentes se preparan una sola vez por JVM; los métodos son seguros
+ * para llamarse desde varios hilos.
+ * El encabezado se compone directamente en cada documento: importarlo desde
+ * una plantilla pre-renderizada (PdfReader + XObject) fue más lento y asignó
+ * más memoria por documento en PDFGeneratorBenchmark.
  *
  * @author Sistema Licencias Ecuador
  * @version 1.0
@@ -22,10 +30,17 @@ import java.time.format.DateTimeFormatter;
 public class PDFGenerator {
 
     private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
     private static final Font FONT_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
     private static final Font FONT_SUBTITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.BLUE);
     private static final Font FONT_NORMAL = FontFactory.getFont(FontFactory.HELVETICA, 11, BaseColor.BLACK);
     private static final Font FONT_CAMPO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, BaseColor.BLACK);
+    private static final Font FONT_IMPORTANTE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.RED);
+    private static final Font FONT_APROBADO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, BaseColor.GREEN);
+    private static final Font FONT_REPROBADO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, BaseColor.RED);
+    private static final Font FONT_PIE = FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.GRAY);
+    private static final BaseColor FONDO_DESTACADO = new BaseColor(230, 240, 255);
+    private static final BaseColor FONDO_RESUMEN = new BaseColor(240, 240, 240);
 
     /**
      * Genera un documento PDF de licencia de conducir
@@ -40,9 +55,29 @@ public class PDFGenerator {
                                           PruebaPsicometrica prueba, String rutaArchivo)
             throws DocumentException, IOException {
 
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(rutaArchivo))) {
+            generarLicenciaPDF(licencia, conductor, prueba, salida);
+        }
+    }
+
+    /**
+     * Genera un documento PDF de licencia de conducir en un flujo de salida
+     * (por ejemplo un ByteArrayOutputStream o la respuesta de un servidor).
+     * El flujo no se cierra.
+     * @param licencia Licencia a generar
+     * @param conductor Conductor propietario
+     * @param prueba Prueba psicométrica asociada (puede ser null)
+     * @param salida Flujo donde se escribe el PDF
+     * @throws DocumentException Si hay error al generar el documento
+     */
+    public static void generarLicenciaPDF(Licencia licencia, Conductor conductor,
+                                          PruebaPsicometrica prueba, OutputStream salida)
+            throws DocumentException {
+
         // Crear documento PDF
         Document documento = new Document(PageSize.A4);
-        PdfWriter.getInstance(documento, new FileOutputStream(rutaArchivo));
+        PdfWriter writer = PdfWriter.getInstance(documento, salida);
+        writer.setCloseStream(false);
 
         documento.open();
 
@@ -173,15 +208,14 @@ public class PDFGenerator {
         cuadroImportante.setSpacingAfter(15);
 
         PdfPCell celda = new PdfPCell();
-        celda.setBackgroundColor(new BaseColor(230, 240, 255));
+        celda.setBackgroundColor(FONDO_DESTACADO);
         celda.setBorderColor(BaseColor.BLUE);
         celda.setBorderWidth(2);
         celda.setPadding(10);
 
         Paragraph importante = new Paragraph();
         importante.add(new Chunk("VÁLIDA HASTA: ", FONT_CAMPO));
-        importante.add(new Chunk(licencia.getFechaVencimiento().format(FORMATO_FECHA),
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.RED)));
+        importante.add(new Chunk(licencia.getFechaVencimiento().format(FORMATO_FECHA), FONT_IMPORTANTE));
         importante.setAlignment(Element.ALIGN_CENTER);
 
         celda.addElement(importante);
@@ -217,7 +251,7 @@ public class PDFGenerator {
 
         // Fila de promedio destacada
         PdfPCell celdaCampo = new PdfPCell(new Phrase("PROMEDIO:", FONT_CAMPO));
-        celdaCampo.setBackgroundColor(new BaseColor(240, 240, 240));
+        celdaCampo.setBackgroundColor(FONDO_RESUMEN);
         celdaCampo.setPadding(5);
         tabla.addCell(celdaCampo);
 
@@ -225,21 +259,20 @@ public class PDFGenerator {
                 String.format("%.2f", prueba.calcularPromedio()),
                 FONT_CAMPO
         ));
-        celdaValor.setBackgroundColor(new BaseColor(240, 240, 240));
+        celdaValor.setBackgroundColor(FONDO_RESUMEN);
         celdaValor.setPadding(5);
         tabla.addCell(celdaValor);
 
         // Fila de estado
         celdaCampo = new PdfPCell(new Phrase("ESTADO:", FONT_CAMPO));
-        celdaCampo.setBackgroundColor(new BaseColor(240, 240, 240));
+        celdaCampo.setBackgroundColor(FONDO_RESUMEN);
         celdaCampo.setPadding(5);
         tabla.addCell(celdaCampo);
 
-        Font fontEstado = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11,
-                prueba.estaAprobado() ? BaseColor.GREEN : BaseColor.RED);
+        Font fontEstado = prueba.estaAprobado() ? FONT_APROBADO : FONT_REPROBADO;
 
         celdaValor = new PdfPCell(new Phrase(prueba.obtenerEstado(), fontEstado));
-        celdaValor.setBackgroundColor(new BaseColor(240, 240, 240));
+        celdaValor.setBackgroundColor(FONDO_RESUMEN);
         celdaValor.setPadding(5);
         tabla.addCell(celdaValor);
 
@@ -261,7 +294,7 @@ public class PDFGenerator {
         Paragraph piePagina = new Paragraph(
                 "Este documento es generado electrónicamente por el Sistema de Licencias de Conducir del Ecuador.\n" +
                         "Documento válido únicamente con sello y firma de la autoridad competente.",
-                FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.GRAY)
+                FONT_PIE
         );
         piePagina.setAlignment(Element.ALIGN_CENTER);
         piePagina.setSpacingBefore(10);
@@ -269,10 +302,8 @@ public class PDFGenerator {
 
         // Fecha de generación
         Paragraph fechaGen = new Paragraph(
-                "Fecha de generación: " + java.time.LocalDateTime.now().format(
-                        DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
-                ),
-                FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.GRAY)
+                "Fecha de generación: " + LocalDateTime.now().format(FORMATO_FECHA_HORA),
+                FONT_PIE
         );
         fechaGen.setAlignment(Element.ALIGN_CENTER);
         documento.add(fechaGen);
@@ -0,0 +1,181 @@
+package ec.edu.sistemalicencias.util;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Validación de cédulas ecuatorianas (personas naturales) con el algoritmo
+ * del módulo 10. Trabaja directamente sobre los caracteres, sin substring,
+ * parseo ni expresiones regulares, así que validar una cédula no crea objetos.
+ *
+ * La validación masiva reparte el arreglo en bloques de 64 cédulas entre los
+ * hilos del ForkJoinPool común; cada bloque escribe su propia palabra del
+ * resultado, por lo que los hilos no comparten nada.
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+public final class ValidadorCedula {
+
+    public static final int LONGITUD = 10;
+
+    // Códigos de provincia válidos: 01 a 24
+    private static final int PROVINCIA_MAXIMA = 24;
+
+    // Personas naturales: tercer dígito de 0 a 5
+    private static final int TERCER_DIGITO_MAXIMO = 5;
+
+    // Por debajo de este tamaño repartir entre hilos cuesta más que validar
+    private static final int UMBRAL_PARALELO = 8_192;
+
+    private ValidadorCedula() {
+    }
+
+    /**
+     * Indica si el texto tiene el formato de una cédula: exactamente 10 dígitos
+     * @param cedula Texto a revisar
+     * @return true si son 10 dígitos ASCII
+     */
+    public static boolean tieneFormato(CharSequence cedula) {
+        if (cedula == null || cedula.length() != LONGITUD) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD; i++) {
+            char c = cedula.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Valida formato, provincia, tercer dígito y dígito verificador
+     * @param cedula Número de cédula
+     * @return true si la cédula es válida
+     */
+    public static boolean esValida(CharSequence cedula) {
+        if (!tieneFormato(cedula)) {
+            return false;
+        }
+
+        int provincia = (cedula.charAt(0) - '0') * 10 + (cedula.charAt(1) - '0');
+        if (provincia < 1 || provincia > PROVINCIA_MAXIMA) {
+            return false;
+        }
+        if (cedula.charAt(2) - '0' > TERCER_DIGITO_MAXIMO) {
+            return false;
+        }
+
+        // Coeficientes 2,1,2,1...: las posiciones pares se duplican y se restan 9 si pasan de 9
+        int suma = 0;
+        for (int i = 0; i < LONGITUD - 1; i++) {
+            int valor = cedula.charAt(i) - '0';
+            if ((i & 1) == 0) {
+                valor <<= 1;
+                if (valor > 9) {
+                    valor -= 9;
+                }
+            }
+            suma += valor;
+        }
+
+        int residuo = suma % 10;
+        int verificador = residuo == 0 ? 0 : 10 - residuo;
+        return verificador == cedula.charAt(LONGITUD - 1) - '0';
+    }
+
+    /**
+     * Valida un arreglo de cédulas, en paralelo si es grande
+     * @param cedulas Cédulas a validar (los null cuentan como inválidas)
+     * @return Bit i encendido si cedulas[i] es válida
+     */
+    public static BitSet validarTodas(CharSequence[] cedulas) {
+        return validarTodas(cedulas.length, i -> cedulas[i]);
+    }
+
+    /**
+     * Valida una lista de cédulas, en paralelo si es grande.
+     * Se recorre por índice: usar listas de acceso aleatorio (ArrayList).
+     * @param cedulas Cédulas a validar (los null cuentan como inválidas)
+     * @return Bit i encendido si cedulas.get(i) es válida
+     */
+    public static BitSet validarTodas(List<? extends CharSequence> cedulas) {
+        return validarTodas(cedulas.size(), cedulas::get);
+    }
+
+    /**
+     * Valida las cédulas de un stream ordenado.
+     * Las referencias se reúnen primero en un arreglo para conservar la
+     * posición de cada cédula en el resultado.
+     * @param cedulas Cédulas a validar (los null cuentan como inválidas)
+     * @return Bit i encendido si el i-ésimo elemento es válido
+     */
+    public static BitSet validarTodas(Stream<? extends CharSequence> cedulas) {
+        return validarTodas(cedulas.toArray(CharSequence[]::new));
+    }
+
+    /**
+     * Enmascara las cédulas de un texto para registros y diagnósticos: cada
+     * secuencia de exactamente 10 dígitos deja visibles los dos primeros y el
+     * verificador (1712345678 queda 17*******8)
+     * @param texto Texto a enmascarar (puede ser null)
+     * @return El mismo texto si no tiene cédulas, o una copia enmascarada
+     */
+    public static String enmascarar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        char[] resultado = null;
+        int i = 0;
+        while (i < texto.length()) {
+            if (!esDigito(texto.charAt(i))) {
+                i++;
+                continue;
+            }
+            int fin = i;
+            while (fin < texto.length() && esDigito(texto.charAt(fin))) {
+                fin++;
+            }
+            if (fin - i == LONGITUD) {
+                if (resultado == null) {
+                    resultado = texto.toCharArray();
+                }
+                for (int j = i + 2; j < fin - 1; j++) {
+                    resultado[j] = '*';
+                }
+            }
+            i = fin;
+        }
+        return resultado != null ? new String(resultado) : texto;
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static BitSet validarTodas(int cantidad, IntFunction<? extends CharSequence> cedulas) {
+        long[] palabras = new long[(cantidad + 63) >>> 6];
+
+        IntStream bloques = IntStream.range(0, palabras.length);
+        if (cantidad >= UMBRAL_PARALELO) {
+            bloques = bloques.parallel();
+        }
+        bloques.forEach(bloque -> {
+            int desde = bloque << 6;
+            int hasta = Math.min(desde + 64, cantidad);
+            long palabra = 0L;
+            for (int i = desde; i < hasta; i++) {
+                if (esValida(cedulas.apply(i))) {
+                    palabra |= 1L << (i - desde);
+                }
+            }
+            palabras[bloque] = palabra;
+        });
+
+        return BitSet.valueOf(palabras);
+    }
+}
@@ -4,15 +4,12 @@ import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import ec.edu.sistemalicencias.controller.LicenciaController;
 import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
-import ec.edu.sistemalicencias.model.entities.Conductor;
-import ec.edu.sistemalicencias.model.entities.Licencia;
-import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
+import ec.edu.sistemalicencias.model.entities.LicenciaListado;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,6 +18,7 @@ import java.util.List;
 @SuppressWarnings("unused")
 public class ConsultarLicenciasView extends JFrame {
     private final LicenciaController controller;
+    private final TareaVista tarea;
     private DefaultTableModel modeloTabla;
 
     // Componentes enlazados desde el .form (UI Designer)
@@ -38,6 +36,7 @@ public class ConsultarLicenciasView extends JFrame {
 
     public ConsultarLicenciasView(LicenciaController controller) {
         this.controller = controller;
+        this.tarea = new TareaVista(this);
         setTitle("Consultar Licencias");
         setContentPane(panelPrincipal);
         setSize(900, 550);
@@ -74,65 +73,41 @@ public class ConsultarLicenciasView extends JFrame {
             return;
         }
 
-        try {
-            List<Licencia> licencias = new ArrayList<>();
-
-            // Buscar por número de licencia
-            Licencia licPorNumero = controller.buscarLicenciaPorNumero(criterio);
-            if (licPorNumero != null) {
-                licencias.add(licPorNumero);
-            }
-
-            // Si no encontró por número, buscar por cédula del conductor
-            if (licencias.isEmpty()) {
-                Conductor conductor = controller.buscarConductorPorCedula(criterio);
-                if (conductor != null) {
-                    licencias = controller.obtenerLicenciasConductor(conductor.getId());
-                }
-            }
-
-            if (licencias.isEmpty()) {
-                controller.mostrarError("No se encontraron licencias con el criterio: " + criterio);
-            }
-
-            cargarLicenciasEnTabla(licencias);
-
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
-        }
+        // Busca por número de licencia y, si no hay coincidencia, por cédula del conductor
+        tarea.ejecutar(() -> controller.buscarListadoLicenciasAsync(criterio),
+                licencias -> {
+                    if (licencias.isEmpty()) {
+                        controller.mostrarError("No se encontraron licencias con el criterio: " + criterio);
+                    }
+
+                    cargarLicenciasEnTabla(licencias);
+                },
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnActualizar, btnGenerarPDF);
     }
 
     private void cargarTodasLicencias() {
-        try {
-            List<Licencia> licencias = controller.obtenerTodasLicencias();
-            cargarLicenciasEnTabla(licencias);
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
-        }
+        tarea.ejecutar(controller::obtenerListadoLicenciasAsync,
+                this::cargarLicenciasEnTabla,
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnActualizar, btnGenerarPDF);
     }
 
-    private void cargarLicenciasEnTabla(List<Licencia> licencias) {
+    private void cargarLicenciasEnTabla(List<LicenciaListado> licencias) {
         modeloTabla.setRowCount(0);
 
-        for (Licencia lic : licencias) {
-            try {
-                Conductor conductor = controller.buscarConductorPorId(lic.getConductorId());
-
-                Object[] fila = {
-                        lic.getId(),
-                        lic.getNumeroLicencia(),
-                        conductor != null ? conductor.getNombreCompleto() : "N/A",
-                        conductor != null ? conductor.getCedula() : "N/A",
-                        TipoLicenciaConstantes.obtenerNombre(lic.getTipoLicencia()),
-                        lic.getFechaEmision(),
-                        lic.getFechaVencimiento(),
-                        lic.obtenerEstado()
-                };
-                modeloTabla.addRow(fila);
-
-            } catch (LicenciaException ex) {
-                System.err.println("Error al cargar conductor: " + ex.getMessage());
-            }
+        for (LicenciaListado lic : licencias) {
+            Object[] fila = {
+                    lic.getId(),
+                    lic.getNumeroLicencia(),
+                    lic.getNombreConductor() != null ? lic.getNombreConductor() : "N/A",
+                    lic.getCedulaConductor() != null ? lic.getCedulaConductor() : "N/A",
+                    TipoLicenciaConstantes.obtenerNombre(lic.getTipoLicencia()),
+                    lic.getFechaEmision(),
+                    lic.getFechaVencimiento(),
+                    lic.obtenerEstado()
+            };
+            modeloTabla.addRow(fila);
         }
     }
 
@@ -145,7 +120,15 @@ public class ConsultarLicenciasView extends JFrame {
         }
 
         Long licenciaId = (Long) modeloTabla.getValueAt(filaSeleccionada, 0);
-        controller.generarDocumentoLicenciaConDialogo(licenciaId);
+        String rutaArchivo = controller.seleccionarRutaPDF(licenciaId);
+        if (rutaArchivo == null) {
+            return;
+        }
+
+        tarea.ejecutar(() -> controller.generarDocumentoLicenciaAsync(licenciaId, rutaArchivo),
+                sinResultado -> controller.mostrarExito("Documento generado exitosamente en:\n" + rutaArchivo),
+                error -> controller.mostrarError("Error al generar el documento:\n" + error.getMessage()),
+                btnBuscar, btnActualizar, btnGenerarPDF);
     }
 
     {
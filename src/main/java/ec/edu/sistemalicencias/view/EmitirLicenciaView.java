@@ -7,7 +7,6 @@ import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
 import ec.edu.sistemalicencias.model.entities.Conductor;
 import ec.edu.sistemalicencias.model.entities.Licencia;
 import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
-import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -22,6 +21,7 @@ import java.util.Locale;
 @SuppressWarnings("unused")
 public class EmitirLicenciaView extends JFrame {
     private final LicenciaController controller;
+    private final TareaVista tarea;
     private Conductor conductorActual;
     private PruebaPsicometrica pruebaActual;
 
@@ -42,6 +42,7 @@ public class EmitirLicenciaView extends JFrame {
 
     public EmitirLicenciaView(LicenciaController controller) {
         this.controller = controller;
+        this.tarea = new TareaVista(this);
         setTitle("Emitir Licencia de Conducir");
         setContentPane(panelPrincipal);
         setSize(650, 500);
@@ -62,41 +63,50 @@ public class EmitirLicenciaView extends JFrame {
     }
 
     private void buscarConductor() {
-        try {
-            conductorActual = controller.buscarConductorPorCedula(txtCedula.getText().trim());
+        tarea.ejecutar(() -> controller.buscarConductorPorCedulaAsync(txtCedula.getText().trim()),
+                this::mostrarConductor,
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnEmitir);
+    }
 
-            if (conductorActual == null) {
-                controller.mostrarError("Conductor no encontrado");
-                limpiarInfo();
-                return;
-            }
+    private void mostrarConductor(Conductor conductor) {
+        conductorActual = conductor;
 
-            // Mostrar info conductor
-            StringBuilder sb = new StringBuilder();
-            sb.append("Nombre: ").append(conductorActual.getNombreCompleto()).append("\n");
-            sb.append("Cédula: ").append(conductorActual.getCedula()).append("\n");
-            sb.append("Edad: ").append(conductorActual.calcularEdad()).append(" años\n");
-            sb.append("Documentos Validados: ").append(conductorActual.isDocumentosValidados() ? "SÍ" : "NO");
-            txtInfoConductor.setText(sb.toString());
-
-            // Buscar última prueba aprobada
-            pruebaActual = controller.obtenerUltimaPruebaAprobada(conductorActual.getId());
-
-            if (pruebaActual != null) {
-                lblPruebaInfo.setText(String.format(
-                        "<html>Prueba ID: %d | Promedio: %.2f | Estado: %s</html>",
-                        pruebaActual.getId(),
-                        pruebaActual.calcularPromedio(),
-                        pruebaActual.obtenerEstado()
-                ));
-                lblPruebaInfo.setForeground(new Color(34, 139, 34));
-            } else {
-                lblPruebaInfo.setText("No tiene pruebas aprobadas");
-                lblPruebaInfo.setForeground(Color.RED);
-            }
+        if (conductorActual == null) {
+            controller.mostrarError("Conductor no encontrado");
+            limpiarInfo();
+            return;
+        }
+
+        // Mostrar info conductor
+        StringBuilder sb = new StringBuilder();
+        sb.append("Nombre: ").append(conductorActual.getNombreCompleto()).append("\n");
+        sb.append("Cédula: ").append(conductorActual.getCedula()).append("\n");
+        sb.append("Edad: ").append(conductorActual.calcularEdad()).append(" años\n");
+        sb.append("Documentos Validados: ").append(conductorActual.isDocumentosValidados() ? "SÍ" : "NO");
+        txtInfoConductor.setText(sb.toString());
 
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
+        // Buscar última prueba aprobada
+        tarea.ejecutar(() -> controller.obtenerUltimaPruebaAprobadaAsync(conductorActual.getId()),
+                this::mostrarPrueba,
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnEmitir);
+    }
+
+    private void mostrarPrueba(PruebaPsicometrica prueba) {
+        pruebaActual = prueba;
+
+        if (pruebaActual != null) {
+            lblPruebaInfo.setText(String.format(
+                    "<html>Prueba ID: %d | Promedio: %.2f | Estado: %s</html>",
+                    pruebaActual.getId(),
+                    pruebaActual.calcularPromedio(),
+                    pruebaActual.obtenerEstado()
+            ));
+            lblPruebaInfo.setForeground(new Color(34, 139, 34));
+        } else {
+            lblPruebaInfo.setText("No tiene pruebas aprobadas");
+            lblPruebaInfo.setForeground(Color.RED);
         }
     }
 
@@ -106,33 +116,39 @@ public class EmitirLicenciaView extends JFrame {
             return;
         }
 
-        try {
-            // Obtener el tipo de licencia seleccionado (convertir índice a constante)
-            int indiceSeleccionado = cmbTipoLicencia.getSelectedIndex();
-            String tipoLicencia = TipoLicenciaConstantes.TIPOS_LICENCIA[indiceSeleccionado];
-            Long pruebaId = pruebaActual != null ? pruebaActual.getId() : null;
+        // Obtener el tipo de licencia seleccionado (convertir índice a constante)
+        int indiceSeleccionado = cmbTipoLicencia.getSelectedIndex();
+        String tipoLicencia = TipoLicenciaConstantes.TIPOS_LICENCIA[indiceSeleccionado];
+        Long pruebaId = pruebaActual != null ? pruebaActual.getId() : null;
 
-            Licencia licencia = controller.emitirLicencia(conductorActual.getId(), tipoLicencia, pruebaId);
+        tarea.ejecutar(() -> controller.emitirLicenciaAsync(conductorActual.getId(), tipoLicencia, pruebaId),
+                this::mostrarLicenciaEmitida,
+                error -> controller.mostrarError("Error al emitir licencia:\n" + error.getMessage()),
+                btnBuscar, btnEmitir);
+    }
 
-            StringBuilder mensaje = new StringBuilder();
-            mensaje.append("¡LICENCIA EMITIDA EXITOSAMENTE!\n\n");
-            mensaje.append("Número: ").append(licencia.getNumeroLicencia()).append("\n");
-            mensaje.append("Tipo: ").append(TipoLicenciaConstantes.obtenerNombre(licencia.getTipoLicencia())).append("\n");
-            mensaje.append("Conductor: ").append(conductorActual.getNombreCompleto()).append("\n");
-            mensaje.append("Válida hasta: ").append(licencia.getFechaVencimiento()).append("\n");
+    private void mostrarLicenciaEmitida(Licencia licencia) {
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append("¡LICENCIA EMITIDA EXITOSAMENTE!\n\n");
+        mensaje.append("Número: ").append(licencia.getNumeroLicencia()).append("\n");
+        mensaje.append("Tipo: ").append(TipoLicenciaConstantes.obtenerNombre(licencia.getTipoLicencia())).append("\n");
+        mensaje.append("Conductor: ").append(conductorActual.getNombreCompleto()).append("\n");
+        mensaje.append("Válida hasta: ").append(licencia.getFechaVencimiento()).append("\n");
 
-            controller.mostrarExito(mensaje.toString());
+        controller.mostrarExito(mensaje.toString());
 
-            // Preguntar si desea generar PDF
-            if (controller.confirmar("¿Desea generar el documento PDF de la licencia?")) {
-                controller.generarDocumentoLicenciaConDialogo(licencia.getId());
+        // Preguntar si desea generar PDF
+        if (controller.confirmar("¿Desea generar el documento PDF de la licencia?")) {
+            String rutaArchivo = controller.seleccionarRutaPDF(licencia.getId());
+            if (rutaArchivo != null) {
+                tarea.ejecutar(() -> controller.generarDocumentoLicenciaAsync(licencia.getId(), rutaArchivo),
+                        sinResultado -> controller.mostrarExito("Documento generado exitosamente en:\n" + rutaArchivo),
+                        error -> controller.mostrarError("Error al generar el documento:\n" + error.getMessage()),
+                        btnBuscar, btnEmitir);
             }
-
-            limpiarInfo();
-
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error al emitir licencia:\n" + ex.getMessage());
         }
+
+        limpiarInfo();
     }
 
     private void limpiarInfo() {
@@ -25,6 +25,7 @@ import java.util.List;
 @SuppressWarnings("unused")
 public class GestionConductoresView extends JFrame {
     private final LicenciaController controller;
+    private final TareaVista tarea;
     private DefaultTableModel modeloTabla;
     private Conductor conductorSeleccionado;
 
@@ -54,6 +55,7 @@ public class GestionConductoresView extends JFrame {
      */
     public GestionConductoresView(LicenciaController controller) {
         this.controller = controller;
+        this.tarea = new TareaVista(this);
         setTitle("Gestión de Conductores");
         setContentPane(panelPrincipal);
         setSize(900, 600);
@@ -152,20 +154,28 @@ public class GestionConductoresView extends JFrame {
                 conductor.setTipoSangre(tipoSangre);
             }
 
-            // Guardar
-            Long id = controller.registrarConductor(conductor);
+            // Guardar en segundo plano
+            final boolean esActualizacion = conductorSeleccionado != null;
+            tarea.ejecutar(() -> controller.registrarConductorAsync(conductor),
+                    id -> {
+                        if (esActualizacion) {
+                            controller.mostrarExito("Conductor actualizado exitosamente");
+                        } else {
+                            controller.mostrarExito("Conductor registrado exitosamente con ID: " + id);
+                        }
 
-            if (conductorSeleccionado != null) {
-                controller.mostrarExito("Conductor actualizado exitosamente");
-            } else {
-                controller.mostrarExito("Conductor registrado exitosamente con ID: " + id);
-            }
-
-            limpiarFormulario();
-            cargarConductores();
+                        limpiarFormulario();
+                        cargarConductores();
+                    },
+                    error -> {
+                        if (error instanceof LicenciaException) {
+                            controller.mostrarError("Error al guardar conductor: " + error.getMessage());
+                        } else {
+                            controller.mostrarError("Error: " + error.getMessage());
+                        }
+                    },
+                    btnGuardar, btnActualizar);
 
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error al guardar conductor: " + ex.getMessage());
         } catch (Exception ex) {
             controller.mostrarError("Error: " + ex.getMessage());
         }
@@ -175,25 +185,25 @@ public class GestionConductoresView extends JFrame {
      * Carga los conductores en la tabla
      */
     private void cargarConductores() {
-        try {
-            List<Conductor> conductores = controller.obtenerTodosConductores();
-            modeloTabla.setRowCount(0);
+        tarea.ejecutar(controller::obtenerTodosConductoresAsync,
+                conductores -> {
+                    modeloTabla.setRowCount(0);
 
-            for (Conductor c : conductores) {
-                Object[] fila = {
-                        c.getId(),
-                        c.getCedula(),
-                        c.getNombres(),
-                        c.getApellidos(),
-                        c.getFechaNacimiento(),
-                        c.getTelefono(),
-                        c.isDocumentosValidados() ? "SÍ" : "NO"
-                };
-                modeloTabla.addRow(fila);
-            }
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error al cargar conductores: " + ex.getMessage());
-        }
+                    for (Conductor c : conductores) {
+                        Object[] fila = {
+                                c.getId(),
+                                c.getCedula(),
+                                c.getNombres(),
+                                c.getApellidos(),
+                                c.getFechaNacimiento(),
+                                c.getTelefono(),
+                                c.isDocumentosValidados() ? "SÍ" : "NO"
+                        };
+                        modeloTabla.addRow(fila);
+                    }
+                },
+                error -> controller.mostrarError("Error al cargar conductores: " + error.getMessage()),
+                btnActualizar, btnGuardar);
     }
 
     /**
@@ -202,31 +212,33 @@ public class GestionConductoresView extends JFrame {
      * @param fila Índice de la fila seleccionada
      */
     private void cargarConductorEnFormulario(int fila) {
-        try {
-            Long id = (Long) modeloTabla.getValueAt(fila, 0);
-            conductorSeleccionado = controller.buscarConductorPorId(id);
+        Long id = (Long) modeloTabla.getValueAt(fila, 0);
 
-            if (conductorSeleccionado != null) {
-                txtCedula.setText(conductorSeleccionado.getCedula());
-                txtNombres.setText(conductorSeleccionado.getNombres());
-                txtApellidos.setText(conductorSeleccionado.getApellidos());
-                txtFechaNacimiento.setText(conductorSeleccionado.getFechaNacimiento().toString());
-                txtDireccion.setText(conductorSeleccionado.getDireccion());
-                txtTelefono.setText(conductorSeleccionado.getTelefono());
-                txtEmail.setText(conductorSeleccionado.getEmail());
+        tarea.ejecutar(() -> controller.buscarConductorPorIdAsync(id),
+                conductor -> {
+                    conductorSeleccionado = conductor;
+
+                    if (conductorSeleccionado != null) {
+                        txtCedula.setText(conductorSeleccionado.getCedula());
+                        txtNombres.setText(conductorSeleccionado.getNombres());
+                        txtApellidos.setText(conductorSeleccionado.getApellidos());
+                        txtFechaNacimiento.setText(conductorSeleccionado.getFechaNacimiento().toString());
+                        txtDireccion.setText(conductorSeleccionado.getDireccion());
+                        txtTelefono.setText(conductorSeleccionado.getTelefono());
+                        txtEmail.setText(conductorSeleccionado.getEmail());
 
-                // Seleccionar tipo de sangre
-                String tipoSangre = conductorSeleccionado.getTipoSangre();
-                for (int i = 0; i < cmbTipoSangre.getItemCount(); i++) {
-                    if (cmbTipoSangre.getItemAt(i).equals(tipoSangre)) {
-                        cmbTipoSangre.setSelectedIndex(i);
-                        break;
+                        // Seleccionar tipo de sangre
+                        String tipoSangre = conductorSeleccionado.getTipoSangre();
+                        for (int i = 0; i < cmbTipoSangre.getItemCount(); i++) {
+                            if (cmbTipoSangre.getItemAt(i).equals(tipoSangre)) {
+                                cmbTipoSangre.setSelectedIndex(i);
+                                break;
+                            }
+                        }
                     }
-                }
-            }
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error al cargar conductor: " + ex.getMessage());
-        }
+                },
+                error -> controller.mostrarError("Error al cargar conductor: " + error.getMessage()),
+                btnGuardar);
     }
 
     /**
@@ -3,9 +3,11 @@ package ec.edu.sistemalicencias.view;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import ec.edu.sistemalicencias.controller.LicenciaController;
+import ec.edu.sistemalicencias.model.TipoLicenciaConstantes;
 import ec.edu.sistemalicencias.model.entities.Conductor;
+import ec.edu.sistemalicencias.model.entities.DocumentoLicencia;
+import ec.edu.sistemalicencias.model.entities.FiltroLicencias;
 import ec.edu.sistemalicencias.model.entities.Licencia;
-import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
 import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 import ec.edu.sistemalicencias.util.PDFGenerator;
 
@@ -16,6 +18,9 @@ import javax.swing.plaf.FontUIResource;
 import javax.swing.text.StyleContext;
 import java.awt.*;
 import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -30,6 +35,7 @@ public class MainView extends JFrame {
 
     // Controlador del sistema
     private final LicenciaController controller;
+    private final TareaVista tarea;
 
     // Componentes de la interfaz
     private JPanel mainPanel;
@@ -39,13 +45,16 @@ public class MainView extends JFrame {
     private JButton btnEmitirLicencia;
     private JButton btnConsultarLicencias;
     private JButton btnGenerarDocumento;
+    private JButton btnExportarLicencias;
     private JButton btnSalir;
+    private JLabel lblEstadoConexion;
 
     /**
      * Constructor de la vista principal
      */
     public MainView() {
         this.controller = new LicenciaController();
+        this.tarea = new TareaVista(this);
 
         // Inicializar componentes programáticamente
         inicializarComponentes();
@@ -112,6 +121,7 @@ public class MainView extends JFrame {
         btnEmitirLicencia = crearBoton("Emitir Licencia");
         btnConsultarLicencias = crearBoton("Consultar Licencias");
         btnGenerarDocumento = crearBoton("Generar Documento PDF");
+        btnExportarLicencias = crearBoton("Exportar Licencias PDF");
         btnSalir = crearBoton("Salir");
 
         // Agregar botones al panel
@@ -121,8 +131,8 @@ public class MainView extends JFrame {
         panelModulos.add(btnEmitirLicencia);
         panelModulos.add(btnConsultarLicencias);
         panelModulos.add(btnGenerarDocumento);
+        panelModulos.add(btnExportarLicencias);
         panelModulos.add(btnSalir);
-        panelModulos.add(new JLabel()); // Celda vacía para balancear
 
         // === Panel de Pie de Página ===
         JPanel panelPie = new JPanel();
@@ -133,6 +143,12 @@ public class MainView extends JFrame {
         lblVersion.setForeground(Color.GRAY);
         panelPie.add(lblVersion);
 
+        lblEstadoConexion = new JLabel("● Conectando a la base de datos...");
+        lblEstadoConexion.setFont(new Font("Arial", Font.PLAIN, 10));
+        lblEstadoConexion.setForeground(Color.GRAY);
+        panelPie.add(Box.createHorizontalStrut(20));
+        panelPie.add(lblEstadoConexion);
+
         // Agregar paneles al panel principal
         mainPanel.add(panelEncabezado, BorderLayout.NORTH);
         mainPanel.add(panelModulos, BorderLayout.CENTER);
@@ -175,6 +191,9 @@ public class MainView extends JFrame {
         // Botón Generar Documento PDF
         btnGenerarDocumento.addActionListener(e -> generarDocumentoPDF());
 
+        // Botón Exportar Licencias PDF
+        btnExportarLicencias.addActionListener(e -> exportarLicencias());
+
         // Botón Salir
         btnSalir.addActionListener(e -> salirAplicacion());
     }
@@ -196,6 +215,7 @@ public class MainView extends JFrame {
         btnEmitirLicencia.setCursor(new Cursor(Cursor.HAND_CURSOR));
         btnConsultarLicencias.setCursor(new Cursor(Cursor.HAND_CURSOR));
         btnGenerarDocumento.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        btnExportarLicencias.setCursor(new Cursor(Cursor.HAND_CURSOR));
         btnSalir.setCursor(new Cursor(Cursor.HAND_CURSOR));
     }
 
@@ -263,76 +283,250 @@ public class MainView extends JFrame {
      * Genera un documento PDF de una licencia seleccionada
      */
     private void generarDocumentoPDF() {
-        try {
-            // Solicitar cédula del conductor
-            String cedula = JOptionPane.showInputDialog(
-                    this,
-                    "Ingrese la cédula del conductor para generar el PDF:",
-                    "Generar Documento PDF",
-                    JOptionPane.QUESTION_MESSAGE
-            );
-
-            if (cedula == null || cedula.trim().isEmpty()) {
-                return; // Usuario canceló
-            }
+        // Solicitar cédula del conductor
+        String cedula = JOptionPane.showInputDialog(
+                this,
+                "Ingrese la cédula del conductor para generar el PDF:",
+                "Generar Documento PDF",
+                JOptionPane.QUESTION_MESSAGE
+        );
 
-            // Buscar conductor
-            Conductor conductor = controller.buscarConductorPorCedula(cedula.trim());
-            if (conductor == null) {
-                mostrarError("No se encontró un conductor con la cédula: " + cedula);
-                return;
-            }
+        if (cedula == null || cedula.trim().isEmpty()) {
+            return; // Usuario canceló
+        }
 
-            // Buscar licencias del conductor
-            List<Licencia> licencias = controller.obtenerLicenciasConductor(conductor.getId());
-            if (licencias == null || licencias.isEmpty()) {
-                mostrarError("El conductor no tiene licencias emitidas.");
-                return;
-            }
+        // Buscar conductor
+        tarea.ejecutar(() -> controller.buscarConductorPorCedulaAsync(cedula.trim()),
+                conductor -> {
+                    if (conductor == null) {
+                        mostrarError("No se encontró un conductor con la cédula: " + cedula);
+                        return;
+                    }
+                    buscarLicenciaParaPDF(conductor);
+                },
+                this::mostrarErrorPDF,
+                btnGenerarDocumento);
+    }
 
-            // Si hay múltiples licencias, usar la más reciente
-            Licencia licencia = licencias.get(0);
+    /**
+     * Busca la licencia más reciente y la última prueba aprobada del conductor
+     *
+     * @param conductor Conductor encontrado
+     */
+    private void buscarLicenciaParaPDF(Conductor conductor) {
+        tarea.ejecutar(() -> controller.ejecutarAsync(() -> {
+                    // Buscar licencias del conductor
+                    List<Licencia> licencias = controller.obtenerLicenciasConductor(conductor.getId());
+                    if (licencias == null || licencias.isEmpty()) {
+                        return null;
+                    }
+
+                    // Si hay múltiples licencias, usar la más reciente
+                    // Obtener última prueba aprobada (puede ser null)
+                    return new DocumentoLicencia(licencias.get(0), conductor,
+                            controller.obtenerUltimaPruebaAprobada(conductor.getId()));
+                }),
+                documento -> {
+                    if (documento == null) {
+                        mostrarError("El conductor no tiene licencias emitidas.");
+                        return;
+                    }
+                    guardarPDF(documento);
+                },
+                this::mostrarErrorPDF,
+                btnGenerarDocumento);
+    }
 
-            // Obtener última prueba aprobada (puede ser null)
-            PruebaPsicometrica prueba = controller.obtenerUltimaPruebaAprobada(conductor.getId());
+    /**
+     * Pide la ubicación del archivo y genera el PDF en segundo plano
+     *
+     * @param documento Licencia, conductor y prueba a imprimir
+     */
+    private void guardarPDF(DocumentoLicencia documento) {
+        // Seleccionar ubicación para guardar
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Guardar Licencia PDF");
+        fileChooser.setSelectedFile(new File("Licencia_" + documento.getConductor().getCedula() + ".pdf"));
+
+        int resultado = fileChooser.showSaveDialog(this);
+        if (resultado != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-            // Seleccionar ubicación para guardar
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setDialogTitle("Guardar Licencia PDF");
-            fileChooser.setSelectedFile(new File("Licencia_" + conductor.getCedula() + ".pdf"));
+        String seleccion = fileChooser.getSelectedFile().getAbsolutePath();
+
+        // Asegurar extensión .pdf
+        final String rutaArchivo = seleccion.toLowerCase().endsWith(".pdf") ? seleccion : seleccion + ".pdf";
+
+        // Generar PDF
+        tarea.ejecutar(() -> controller.ejecutarAsync(() -> {
+                    PDFGenerator.generarLicenciaPDF(documento.getLicencia(), documento.getConductor(),
+                            documento.getPrueba(), rutaArchivo);
+                    return null;
+                }),
+                sinResultado -> {
+                    mostrarExito("Documento PDF generado exitosamente:\n" + rutaArchivo);
+
+                    // Preguntar si desea abrir el archivo
+                    int abrir = JOptionPane.showConfirmDialog(
+                            this,
+                            "¿Desea abrir el documento generado?",
+                            "Abrir PDF",
+                            JOptionPane.YES_NO_OPTION
+                    );
+
+                    if (abrir == JOptionPane.YES_OPTION) {
+                        try {
+                            Desktop.getDesktop().open(new File(rutaArchivo));
+                        } catch (Exception ex) {
+                            mostrarError("Error inesperado: " + ex.getMessage());
+                        }
+                    }
+                },
+                this::mostrarErrorPDF,
+                btnGenerarDocumento);
+    }
 
-            int resultado = fileChooser.showSaveDialog(this);
-            if (resultado == JFileChooser.APPROVE_OPTION) {
-                String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
+    /**
+     * Exporta a PDF varias licencias según un filtro (fechas, tipo o IDs)
+     */
+    private void exportarLicencias() {
+        JTextField txtDesde = new JTextField(10);
+        JTextField txtHasta = new JTextField(10);
+        JComboBox<String> cmbTipo = new JComboBox<>();
+        cmbTipo.addItem("Todos");
+        for (String tipo : TipoLicenciaConstantes.TIPOS_LICENCIA) {
+            cmbTipo.addItem(tipo);
+        }
+        JTextField txtIds = new JTextField(20);
+        JRadioButton rbDirectorio = new JRadioButton("Un PDF por licencia (directorio)", true);
+        JRadioButton rbCombinado = new JRadioButton("Un solo PDF con todas las licencias");
+        ButtonGroup grupoSalida = new ButtonGroup();
+        grupoSalida.add(rbDirectorio);
+        grupoSalida.add(rbCombinado);
+
+        JPanel panelFiltro = new JPanel(new GridLayout(0, 2, 5, 5));
+        panelFiltro.add(new JLabel("Emitidas desde (AAAA-MM-DD):"));
+        panelFiltro.add(txtDesde);
+        panelFiltro.add(new JLabel("Emitidas hasta (AAAA-MM-DD):"));
+        panelFiltro.add(txtHasta);
+        panelFiltro.add(new JLabel("Tipo de licencia:"));
+        panelFiltro.add(cmbTipo);
+        panelFiltro.add(new JLabel("IDs (separados por coma):"));
+        panelFiltro.add(txtIds);
+        panelFiltro.add(rbDirectorio);
+        panelFiltro.add(rbCombinado);
+
+        int opcion = JOptionPane.showConfirmDialog(this, panelFiltro, "Exportar Licencias PDF",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (opcion != JOptionPane.OK_OPTION) {
+            return;
+        }
 
-                // Asegurar extensión .pdf
-                if (!rutaArchivo.toLowerCase().endsWith(".pdf")) {
-                    rutaArchivo += ".pdf";
+        // Construir filtro
+        FiltroLicencias filtro = new FiltroLicencias();
+        try {
+            if (!txtDesde.getText().trim().isEmpty()) {
+                filtro.setEmitidaDesde(LocalDate.parse(txtDesde.getText().trim()));
+            }
+            if (!txtHasta.getText().trim().isEmpty()) {
+                filtro.setEmitidaHasta(LocalDate.parse(txtHasta.getText().trim()));
+            }
+            if (cmbTipo.getSelectedIndex() > 0) {
+                filtro.setTipoLicencia((String) cmbTipo.getSelectedItem());
+            }
+            List<Long> ids = new ArrayList<>();
+            for (String id : txtIds.getText().split(",")) {
+                if (!id.trim().isEmpty()) {
+                    ids.add(Long.parseLong(id.trim()));
                 }
+            }
+            filtro.setIds(ids);
+        } catch (DateTimeParseException ex) {
+            mostrarError("Fecha inválida. Use el formato AAAA-MM-DD.");
+            return;
+        } catch (NumberFormatException ex) {
+            mostrarError("Los IDs deben ser números separados por coma.");
+            return;
+        }
 
-                // Generar PDF
-                PDFGenerator.generarLicenciaPDF(licencia, conductor, prueba, rutaArchivo);
-
-                mostrarExito("Documento PDF generado exitosamente:\n" + rutaArchivo);
+        if (filtro.estaVacio()) {
+            int todas = JOptionPane.showConfirmDialog(this,
+                    "No indicó ningún filtro. ¿Desea exportar todas las licencias?",
+                    "Exportar Licencias PDF", JOptionPane.YES_NO_OPTION);
+            if (todas != JOptionPane.YES_OPTION) {
+                return;
+            }
+        }
 
-                // Preguntar si desea abrir el archivo
-                int abrir = JOptionPane.showConfirmDialog(
-                        this,
-                        "¿Desea abrir el documento generado?",
-                        "Abrir PDF",
-                        JOptionPane.YES_NO_OPTION
-                );
+        // Seleccionar destino
+        boolean combinado = rbCombinado.isSelected();
+        JFileChooser fileChooser = new JFileChooser();
+        if (combinado) {
+            fileChooser.setDialogTitle("Guardar PDF de licencias");
+            fileChooser.setSelectedFile(new File("Licencias.pdf"));
+        } else {
+            fileChooser.setDialogTitle("Seleccionar directorio de destino");
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        }
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-                if (abrir == JOptionPane.YES_OPTION) {
-                    Desktop.getDesktop().open(new File(rutaArchivo));
-                }
+        File seleccion = fileChooser.getSelectedFile();
+        File destino = combinado && !seleccion.getName().toLowerCase().endsWith(".pdf")
+                ? new File(seleccion.getAbsolutePath() + ".pdf") : seleccion;
+
+        // Exportar con barra de progreso; su botón Cancelar (o Esc) detiene la exportación
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exportando licencias...", "", 0, 1);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
+        Timer vigilancia = new Timer(200, null);
+        vigilancia.addActionListener(e -> {
+            if (monitor.isCanceled()) {
+                tarea.cancelar();
             }
+            if (!tarea.estaOcupada()) {
+                monitor.close();
+                vigilancia.stop();
+            }
+        });
+
+        long inicio = System.currentTimeMillis();
+        tarea.ejecutar(() -> controller.exportarLicenciasAsync(filtro, destino, combinado,
+                        (generadas, total) -> SwingUtilities.invokeLater(() -> {
+                            monitor.setMaximum(Math.max(total, 1));
+                            monitor.setProgress(generadas);
+                            monitor.setNote(generadas + " de " + total);
+                        })),
+                cantidad -> {
+                    monitor.close();
+                    if (cantidad == 0) {
+                        mostrarError("No hay licencias que cumplan el filtro.");
+                    } else {
+                        mostrarExito(cantidad + " licencias exportadas en "
+                                + (System.currentTimeMillis() - inicio) / 1000.0 + " s:\n" + destino);
+                    }
+                },
+                error -> {
+                    monitor.close();
+                    mostrarErrorPDF(error);
+                },
+                btnExportarLicencias, btnGenerarDocumento);
+        vigilancia.start();
+    }
 
-        } catch (LicenciaException ex) {
-            mostrarError("Error al generar PDF: " + ex.getMessage());
-        } catch (Exception ex) {
-            mostrarError("Error inesperado: " + ex.getMessage());
-            ex.printStackTrace();
+    /**
+     * Muestra un error ocurrido al generar el PDF
+     *
+     * @param error Causa del error
+     */
+    private void mostrarErrorPDF(Throwable error) {
+        if (error instanceof LicenciaException) {
+            mostrarError("Error al generar PDF: " + error.getMessage());
+        } else {
+            mostrarError("Error inesperado: " + error.getMessage());
+            error.printStackTrace();
         }
     }
 
@@ -353,6 +547,36 @@ public class MainView extends JFrame {
         }
     }
 
+    /**
+     * Actualiza el indicador de conexión del pie de página.
+     * Puede llamarse desde cualquier hilo.
+     *
+     * @param conectado true si la base de datos responde
+     */
+    public void mostrarEstadoConexion(boolean conectado) {
+        mostrarEstadoConexion(conectado, null);
+    }
+
+    /**
+     * Actualiza el indicador de conexión del pie de página con un detalle
+     * en el tooltip. Puede llamarse desde cualquier hilo.
+     *
+     * @param conectado true si la base de datos responde
+     * @param detalle Texto del tooltip, o null
+     */
+    public void mostrarEstadoConexion(boolean conectado, String detalle) {
+        SwingUtilities.invokeLater(() -> {
+            lblEstadoConexion.setToolTipText(detalle);
+            if (conectado) {
+                lblEstadoConexion.setText("● Conectado");
+                lblEstadoConexion.setForeground(new Color(40, 140, 60));
+            } else {
+                lblEstadoConexion.setText("● Sin conexión a la base de datos");
+                lblEstadoConexion.setForeground(new Color(220, 53, 69));
+            }
+        });
+    }
+
     /**
      * Muestra un mensaje de error
      *
@@ -5,7 +5,6 @@ import com.intellij.uiDesigner.core.GridLayoutManager;
 import ec.edu.sistemalicencias.controller.LicenciaController;
 import ec.edu.sistemalicencias.model.entities.Conductor;
 import ec.edu.sistemalicencias.model.entities.PruebaPsicometrica;
-import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -20,6 +19,7 @@ import java.util.Locale;
 @SuppressWarnings("unused")
 public class PruebasPsicometricasView extends JFrame {
     private final LicenciaController controller;
+    private final TareaVista tarea;
     private Conductor conductorActual;
 
     // Componentes enlazados desde el .form (UI Designer)
@@ -49,6 +49,7 @@ public class PruebasPsicometricasView extends JFrame {
 
     public PruebasPsicometricasView(LicenciaController controller) {
         this.controller = controller;
+        this.tarea = new TareaVista(this);
         setTitle("Pruebas Psicométricas");
         setContentPane(panelPrincipal);
         setSize(700, 600);
@@ -65,20 +66,21 @@ public class PruebasPsicometricasView extends JFrame {
     }
 
     private void buscarConductor() {
-        try {
-            conductorActual = controller.buscarConductorPorCedula(txtCedula.getText().trim());
-            if (conductorActual != null) {
-                txtInfoConductor.setText(String.format("Nombre: %s\nCédula: %s\nEdad: %d años",
-                        conductorActual.getNombreCompleto(),
-                        conductorActual.getCedula(),
-                        conductorActual.calcularEdad()));
-            } else {
-                controller.mostrarError("Conductor no encontrado");
-                txtInfoConductor.setText("");
-            }
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
-        }
+        tarea.ejecutar(() -> controller.buscarConductorPorCedulaAsync(txtCedula.getText().trim()),
+                conductor -> {
+                    conductorActual = conductor;
+                    if (conductorActual != null) {
+                        txtInfoConductor.setText(String.format("Nombre: %s\nCédula: %s\nEdad: %d años",
+                                conductorActual.getNombreCompleto(),
+                                conductorActual.getCedula(),
+                                conductorActual.calcularEdad()));
+                    } else {
+                        controller.mostrarError("Conductor no encontrado");
+                        txtInfoConductor.setText("");
+                    }
+                },
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnGuardar);
     }
 
     private void calcularPromedio() {
@@ -119,17 +121,19 @@ public class PruebasPsicometricasView extends JFrame {
             prueba.setNotaPsicologica(Double.parseDouble(txtNotaPsicologica.getText().trim()));
             prueba.setObservaciones(txtObservaciones.getText().trim());
 
-            Long id = controller.registrarPruebaPsicometrica(prueba);
-            controller.mostrarExito("Prueba registrada exitosamente con ID: " + id +
-                    "\nPromedio: " + String.format("%.2f", prueba.calcularPromedio()) +
-                    "\nEstado: " + prueba.obtenerEstado());
+            tarea.ejecutar(() -> controller.registrarPruebaPsicometricaAsync(prueba),
+                    id -> {
+                        controller.mostrarExito("Prueba registrada exitosamente con ID: " + id +
+                                "\nPromedio: " + String.format("%.2f", prueba.calcularPromedio()) +
+                                "\nEstado: " + prueba.obtenerEstado());
 
-            limpiarFormulario();
+                        limpiarFormulario();
+                    },
+                    error -> controller.mostrarError("Error: " + error.getMessage()),
+                    btnBuscar, btnGuardar);
 
         } catch (NumberFormatException ex) {
             controller.mostrarError("Error en formato de notas");
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
         }
     }
 
@@ -0,0 +1,140 @@
+package ec.edu.sistemalicencias.view;
+
+import ec.edu.sistemalicencias.service.LicenciaServiceAsync;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta operaciones asíncronas del controlador desde una ventana.
+ * Mientras la operación corre: cursor de espera, entrada bloqueada,
+ * componentes deshabilitados y título con aviso de carga.
+ * Escape o cerrar la ventana cancelan la operación en curso, salvo las
+ * escrituras (ver {@link LicenciaServiceAsync#esCancelable}): esas terminan y
+ * su resultado se muestra igual, para que no quede guardado algo que el
+ * usuario no vio.
+ * Los callbacks se ejecutan siempre en el hilo de eventos (EDT).
+ *
+ * @author Sistema Licencias Ecuador
+ * @version 1.0
+ */
+class TareaVista {
+
+    private static final String AVISO_CARGA = " - Cargando... (Esc para cancelar)";
+    private static final String AVISO_ESCRITURA = " - Guardando... (no se puede cancelar)";
+
+    private final JFrame ventana;
+    private final JComponent bloqueo;
+    private CompletableFuture<?> enCurso;
+    private JComponent[] deshabilitados = new JComponent[0];
+    private String tituloOriginal;
+
+    /**
+     * Constructor
+     * @param ventana Ventana dueña de las operaciones
+     */
+    TareaVista(JFrame ventana) {
+        this.ventana = ventana;
+
+        // Panel transparente que absorbe el ratón mientras hay una operación en curso
+        this.bloqueo = new JPanel();
+        bloqueo.setOpaque(false);
+        bloqueo.addMouseListener(new MouseAdapter() { });
+        bloqueo.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        JRootPane raiz = ventana.getRootPane();
+        raiz.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "cancelarTarea");
+        raiz.getActionMap().put("cancelarTarea", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                cancelar();
+            }
+        });
+
+        ventana.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelar();
+            }
+        });
+    }
+
+    /**
+     * Inicia una operación si no hay otra en curso
+     * @param operacion Crea el future (se invoca en el EDT)
+     * @param alTerminar Recibe el resultado en el EDT
+     * @param alFallar Recibe la causa real del error en el EDT
+     * @param deshabilitar Componentes a deshabilitar mientras dura la operación
+     */
+    <T> void ejecutar(Supplier<CompletableFuture<T>> operacion, Consumer<T> alTerminar,
+                      Consumer<Throwable> alFallar, JComponent... deshabilitar) {
+        if (enCurso != null) {
+            return;
+        }
+
+        CompletableFuture<T> futuro = operacion.get();
+        enCurso = futuro;
+        mostrarOcupado(deshabilitar, LicenciaServiceAsync.esCancelable(futuro) ? AVISO_CARGA : AVISO_ESCRITURA);
+
+        futuro.whenComplete((resultado, error) -> SwingUtilities.invokeLater(() -> {
+            if (enCurso != futuro) {
+                return; // Cancelada: la interfaz ya se restauró
+            }
+            enCurso = null;
+            ocultarOcupado();
+
+            if (error != null) {
+                alFallar.accept(LicenciaServiceAsync.causaReal(error));
+            } else {
+                alTerminar.accept(resultado);
+            }
+        }));
+    }
+
+    /**
+     * Cancela la operación en curso y restaura la interfaz. Si la operación
+     * no se puede cancelar sigue en curso y su resultado se entrega al terminar.
+     */
+    void cancelar() {
+        if (enCurso != null && enCurso.cancel(true)) {
+            enCurso = null;
+            ocultarOcupado();
+        }
+    }
+
+    /**
+     * Indica si hay una operación en curso
+     * @return true si la ventana está ocupada
+     */
+    boolean estaOcupada() {
+        return enCurso != null;
+    }
+
+    private void mostrarOcupado(JComponent[] componentes, String aviso) {
+        deshabilitados = componentes;
+        for (JComponent componente : componentes) {
+            componente.setEnabled(false);
+        }
+        tituloOriginal = ventana.getTitle();
+        ventana.setTitle(tituloOriginal + aviso);
+        ventana.setGlassPane(bloqueo);
+        bloqueo.setVisible(true);
+    }
+
+    private void ocultarOcupado() {
+        bloqueo.setVisible(false);
+        ventana.setTitle(tituloOriginal);
+        for (JComponent componente : deshabilitados) {
+            componente.setEnabled(true);
+        }
+        deshabilitados = new JComponent[0];
+    }
+}
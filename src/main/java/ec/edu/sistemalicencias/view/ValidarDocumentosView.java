@@ -4,7 +4,6 @@ import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import ec.edu.sistemalicencias.controller.LicenciaController;
 import ec.edu.sistemalicencias.model.entities.Conductor;
-import ec.edu.sistemalicencias.model.exceptions.LicenciaException;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -17,6 +16,7 @@ import java.awt.*;
 @SuppressWarnings("unused")
 public class ValidarDocumentosView extends JFrame {
     private final LicenciaController controller;
+    private final TareaVista tarea;
     private Conductor conductorActual;
 
     // Componentes enlazados desde el .form (UI Designer)
@@ -43,6 +43,7 @@ public class ValidarDocumentosView extends JFrame {
 
     public ValidarDocumentosView(LicenciaController controller) {
         this.controller = controller;
+        this.tarea = new TareaVista(this);
         setTitle("Validar Documentos - Licencia No Profesional");
         setContentPane(panelPrincipal);
         setSize(750, 700);
@@ -70,18 +71,19 @@ public class ValidarDocumentosView extends JFrame {
     }
 
     private void buscarConductor() {
-        try {
-            conductorActual = controller.buscarConductorPorCedula(txtCedula.getText().trim());
-            if (conductorActual != null) {
-                mostrarInfoConductor();
-            } else {
-                controller.mostrarError("No se encontró el conductor con esa cédula");
-                txtInfo.setText("");
-                limpiarCheckboxes();
-            }
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error: " + ex.getMessage());
-        }
+        tarea.ejecutar(() -> controller.buscarConductorPorCedulaAsync(txtCedula.getText().trim()),
+                conductor -> {
+                    conductorActual = conductor;
+                    if (conductorActual != null) {
+                        mostrarInfoConductor();
+                    } else {
+                        controller.mostrarError("No se encontró el conductor con esa cédula");
+                        txtInfo.setText("");
+                        limpiarCheckboxes();
+                    }
+                },
+                error -> controller.mostrarError("Error: " + error.getMessage()),
+                btnBuscar, btnGuardar);
     }
 
     private void mostrarInfoConductor() {
@@ -136,30 +138,29 @@ public class ValidarDocumentosView extends JFrame {
             return;
         }
 
-        try {
-            boolean validacionCompleta = todosDocumentosValidados();
-            String observaciones = "";
-
-            if (!validacionCompleta) {
-                observaciones = "Documentos faltantes:\n" + obtenerDocumentosFaltantes();
-            }
-
-            conductorActual.setDocumentosValidados(validacionCompleta);
-            conductorActual.setObservaciones(observaciones);
+        boolean validacionCompleta = todosDocumentosValidados();
+        String observaciones = "";
 
-            controller.actualizarConductor(conductorActual);
+        if (!validacionCompleta) {
+            observaciones = "Documentos faltantes:\n" + obtenerDocumentosFaltantes();
+        }
 
-            if (validacionCompleta) {
-                controller.mostrarExito("Validación completada exitosamente.\nTodos los documentos han sido verificados.");
-            } else {
-                controller.mostrarError("Validación guardada como INCOMPLETA.\n\n" + observaciones);
-            }
+        conductorActual.setDocumentosValidados(validacionCompleta);
+        conductorActual.setObservaciones(observaciones);
 
-            mostrarInfoConductor();
+        final String mensajeIncompleto = "Validación guardada como INCOMPLETA.\n\n" + observaciones;
+        tarea.ejecutar(() -> controller.actualizarConductorAsync(conductorActual),
+                sinResultado -> {
+                    if (validacionCompleta) {
+                        controller.mostrarExito("Validación completada exitosamente.\nTodos los documentos han sido verificados.");
+                    } else {
+                        controller.mostrarError(mensajeIncompleto);
+                    }
 
-        } catch (LicenciaException ex) {
-            controller.mostrarError("Error al guardar: " + ex.getMessage());
-        }
+                    mostrarInfoConductor();
+                },
+                error -> controller.mostrarError("Error al guardar: " + error.getMessage()),
+                btnBuscar, btnGuardar);
     }
 
     {